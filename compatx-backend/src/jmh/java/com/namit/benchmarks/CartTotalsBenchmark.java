@@ -0,0 +1,50 @@
+package com.namit.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.namit.models.Cart;
+
+/**
+ * Cart.getTotalPrice / getTotalItems (stream over the items, with the boxed
+ * Double subtotal of every line) for carts of {@code lines} items.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartTotalsBenchmark {
+
+    @Param({ "1", "10", "100" })
+    int lines;
+
+    private Cart cart;
+
+    @Setup
+    public void setUp() {
+        cart = Fixtures.cart(Fixtures.catalog(1000, 42), lines, 7);
+    }
+
+    @Benchmark
+    public Double totalPrice() {
+        return cart.getTotalPrice();
+    }
+
+    @Benchmark
+    public Integer totalItems() {
+        return cart.getTotalItems();
+    }
+}
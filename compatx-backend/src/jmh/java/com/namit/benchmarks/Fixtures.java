@@ -0,0 +1,138 @@
+package com.namit.benchmarks;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.namit.enums.OrderStatus;
+import com.namit.enums.PaymentMethod;
+import com.namit.enums.Role;
+import com.namit.models.AppUser;
+import com.namit.models.Cart;
+import com.namit.models.CartItem;
+import com.namit.models.Category;
+import com.namit.models.Order;
+import com.namit.models.OrderItem;
+import com.namit.models.Product;
+
+/**
+ * Deterministic synthetic catalog, cart and order graphs (no database) for
+ * the in-memory hot path benchmarks. The same seed always gives the same data.
+ */
+final class Fixtures {
+
+    static final String[] BRANDS = { "Asus", "MSI", "Gigabyte", "Corsair", "Kingston", "Samsung", "Western Digital",
+            "Seagate", "Intel", "AMD", "NVIDIA", "Crucial", "Cooler Master", "NZXT", "Logitech", "Razer" };
+
+    static final String[] KINDS = { "Motherboard", "Graphics Card", "Processor", "RAM", "SSD", "Hard Drive",
+            "Power Supply", "Cabinet", "CPU Cooler", "Keyboard", "Mouse", "Monitor" };
+
+    static final String[] MODELS = { "Pro", "Gaming", "Ultra", "Elite", "Plus", "Max", "Lite", "Xtreme", "Nano",
+            "Titan", "Vortex", "Phantom" };
+
+    // realistic smartSearch keywords: brand, kind, both, model fragments, misses
+    static final String[] QUERIES = { "asus", "ssd", "corsair ram", "gaming mouse", "rtx", "samsung ssd pro",
+            "kingston", "ultra", "msi motherboard", "cooler", "nvme", "western digital hard" };
+
+    // the same kind of keywords as typed in a hurry (smartSearch falls back to the closest words)
+    static final String[] MISSPELT = { "asuss", "samsng ssd", "corsiar ram", "gamng mouse", "logitec", "kingstn",
+            "utlra", "gigabite motherboard", "seagte", "westen digital hard", "nvdia", "razor keyboard" };
+
+    private Fixtures() {
+    }
+
+    static List<Product> catalog(int size, long seed) {
+        Random random = new Random(seed);
+        AppUser seller = user(1L, Role.ADMIN);
+
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < KINDS.length; i++) {
+            Category category = new Category();
+            category.setCategoryId((long) i + 1);
+            category.setCategoryName(KINDS[i]);
+            categories.add(category);
+        }
+
+        List<Product> products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int kind = random.nextInt(KINDS.length);
+            String brand = BRANDS[random.nextInt(BRANDS.length)];
+
+            Product product = new Product();
+            product.setId((long) i + 1);
+            product.setProductName(brand + " " + KINDS[kind] + " " + MODELS[random.nextInt(MODELS.length)]
+                    + " " + (100 + random.nextInt(9900)));
+            product.setBrand(brand);
+            product.setDescription("Synthetic " + KINDS[kind] + " #" + i);
+            product.setPrice(499.0 + random.nextInt(150_000));
+            product.setStock(random.nextInt(500));
+            product.setImageUrl("https://cdn.compatx.test/products/" + (i + 1) + ".jpg");
+            product.setCreatedAt(Instant.now());
+            product.setCategory(categories.get(kind));
+            product.setUser(seller);
+            products.add(product);
+        }
+        return products;
+    }
+
+    static Cart cart(List<Product> catalog, int lines, long seed) {
+        Random random = new Random(seed);
+        Cart cart = new Cart();
+        cart.setCartId(1L);
+        cart.setUser(user(2L, Role.USER));
+
+        for (int i = 0; i < lines; i++) {
+            Product product = catalog.get(random.nextInt(catalog.size()));
+            CartItem item = new CartItem();
+            item.setCartItemId((long) i + 1);
+            item.setProduct(product);
+            item.setQuantity(1 + random.nextInt(4));
+            item.setPriceAtAdd(product.getPrice());
+            cart.addItem(item);
+        }
+        return cart;
+    }
+
+    static Order order(List<Product> catalog, int lines, long seed) {
+        Random random = new Random(seed);
+        Order order = new Order();
+        order.setOrderId(seed);
+        order.setUser(user(2L, Role.USER));
+        order.setStatus(OrderStatus.CONFIRMED);
+        order.setPaymentMethod(PaymentMethod.STRIPE);
+        order.setShippingFullName("Bench Buyer");
+        order.setShippingAddress("221B Synthetic Street");
+        order.setShippingCity("Pune");
+        order.setShippingState("Maharashtra");
+        order.setShippingPincode("411001");
+        order.setShippingPhone("9000000000");
+        order.setCreatedAt(Instant.now());
+        order.setUpdatedAt(Instant.now());
+
+        double subtotal = 0;
+        for (int i = 0; i < lines; i++) {
+            Product product = catalog.get(random.nextInt(catalog.size()));
+            OrderItem item = new OrderItem();
+            item.setOrderItemId(seed * 1000 + i);
+            item.setProduct(product);
+            item.setQuantity(1 + random.nextInt(4));
+            item.setPriceAtOrder(product.getPrice());
+            item.calculateSubtotal();
+            order.addOrderItem(item);
+            subtotal += item.getSubtotal();
+        }
+        order.setSubtotal(subtotal);
+        order.setTotalAmount(subtotal);
+        return order;
+    }
+
+    static AppUser user(Long id, Role role) {
+        AppUser user = new AppUser();
+        user.setUserId(id);
+        user.setUserName("bench-user-" + id);
+        user.setEmail("bench-user-" + id + "@compatx.test");
+        user.setRole(role);
+        return user;
+    }
+}
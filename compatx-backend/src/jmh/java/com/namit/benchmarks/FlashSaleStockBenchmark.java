@@ -0,0 +1,70 @@
+package com.namit.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.namit.inventory.ShardedStockCounter;
+
+/**
+ * In-memory admission check for one hot SKU: singleCas is one shared
+ * counter, sharded is the flash-sale counter. Run at several thread counts to
+ * see the scaling, e.g. -Djmh.args="FlashSaleStock -t 1" then -t 4, -t 8.
+ *
+ * The comparison with the conditional UPDATE on the product row, including
+ * the flash_sale_shards write of each claim, is ReservationBenchmark with
+ * flashSale=false / true.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlashSaleStockBenchmark {
+
+    // enough that no iteration sells out
+    private static final long STOCK = Long.MAX_VALUE / 4;
+
+    @Param({ "16" })
+    int shards;
+
+    private AtomicLong singleCounter;
+    private ShardedStockCounter sharded;
+
+    @Setup(Level.Iteration)
+    public void seed() {
+        singleCounter = new AtomicLong(STOCK);
+        sharded = new ShardedStockCounter(STOCK, shards);
+    }
+
+    @Benchmark
+    public boolean singleCas() {
+        while (true) {
+            long current = singleCounter.get();
+            if (current < 1) {
+                return false;
+            }
+            if (singleCounter.compareAndSet(current, current - 1)) {
+                return true;
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean sharded() {
+        return sharded.tryClaim(1);
+    }
+}
@@ -0,0 +1,130 @@
+package com.namit.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.namit.enums.Role;
+import com.namit.models.AppUser;
+import com.namit.security.jwt.JwtAuthenticationFilter;
+import com.namit.security.jwt.JwtUtil;
+import com.namit.security.jwt.TokenRevocationList;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Per-request cost of bearer token authentication.
+ *
+ * rebuildKeyAndParser is the old JwtUtil path (new HMAC key and parser for
+ * every call, parsed once to validate and again for the username; the user
+ * lookup it was followed by is not included). generateToken is the login /
+ * refresh cost. verifyUncached is one parse
+ * with the shared parser, verifyCached adds the verified-token cache and
+ * filterCached is the whole JwtAuthenticationFilter pass. Requests cycle
+ * through {@code tokens} distinct tokens, e.g.
+ * -Djmh.args="JwtAuth -prof gc".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret";
+    private static final long EXPIRATION_MS = 3_600_000;
+
+    @Param({ "1024" })
+    int tokens;
+
+    private JwtUtil uncached;
+    private JwtUtil cached;
+    private JwtAuthenticationFilter filter;
+
+    private AppUser user;
+    private String[] issued;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        uncached = new JwtUtil(SECRET, EXPIRATION_MS, 0);
+        cached = new JwtUtil(SECRET, EXPIRATION_MS, tokens * 2);
+        // never reloaded, so no token is revoked; the lookup is still made per request
+        filter = new JwtAuthenticationFilter(cached, null, new TokenRevocationList(null, EXPIRATION_MS));
+
+        issued = new String[tokens];
+        for (int i = 0; i < tokens; i++) {
+            AppUser user = new AppUser();
+            user.setUserId((long) i + 1);
+            user.setUserName("user" + i);
+            user.setRole(Role.USER);
+            issued[i] = cached.generateToken(user);
+            this.user = user;
+        }
+    }
+
+    private String nextToken() {
+        String token = issued[next];
+        next = (next + 1) % issued.length;
+        return token;
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cached.generateToken(user);
+    }
+
+    @Benchmark
+    public String rebuildKeyAndParser() {
+        String token = nextToken();
+        parseWithNewParser(token);
+        return parseWithNewParser(token).getSubject();
+    }
+
+    @Benchmark
+    public Object verifyUncached() {
+        return uncached.verify(nextToken()).orElseThrow().toUserDetails();
+    }
+
+    @Benchmark
+    public Object verifyCached() {
+        return cached.verify(nextToken()).orElseThrow().toUserDetails();
+    }
+
+    @Benchmark
+    public Authentication filterCached() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/user/cart");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + nextToken());
+
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static Claims parseWithNewParser(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
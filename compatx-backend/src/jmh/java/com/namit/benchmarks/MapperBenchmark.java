@@ -0,0 +1,93 @@
+package com.namit.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.namit.dtos.auth.CustomerProductDTO;
+import com.namit.dtos.order.AdminOrderResponseDTO;
+import com.namit.dtos.order.OrderItemResponseDTO;
+import com.namit.dtos.order.OrderResponseDTO;
+import com.namit.dtos.order.OrderSummaryDTO;
+import com.namit.mappers.CustomerProductMapper;
+import com.namit.mappers.OrderMapper;
+import com.namit.models.Cart;
+import com.namit.models.CartItem;
+import com.namit.models.Order;
+import com.namit.models.Product;
+
+/**
+ * Entity to DTO mapping: one customer product page (CustomerProductMapper)
+ * and one order / cart of {@code lines} items through each OrderMapper method.
+ * Run with the GC profiler to see bytes allocated per response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({ "1", "10", "100" })
+    int lines;
+
+    private List<Product> page;
+    private Order order;
+    private Cart cart;
+
+    @Setup
+    public void setUp() {
+        List<Product> catalog = Fixtures.catalog(1000, 42);
+        page = catalog.subList(0, PAGE_SIZE);
+        order = Fixtures.order(catalog, lines, 7);
+        cart = Fixtures.cart(catalog, lines, 7);
+    }
+
+    @Benchmark
+    public List<CustomerProductDTO> customerProductPage() {
+        List<CustomerProductDTO> dtos = new ArrayList<>(page.size());
+        for (Product product : page) {
+            dtos.add(CustomerProductMapper.toDTO(product));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public OrderSummaryDTO orderSummary() {
+        return OrderMapper.toSummaryDTO(order);
+    }
+
+    @Benchmark
+    public OrderResponseDTO orderResponse() {
+        return OrderMapper.toOrderResponse(order);
+    }
+
+    @Benchmark
+    public AdminOrderResponseDTO adminOrder() {
+        return OrderMapper.toAdminResponse(order);
+    }
+
+    @Benchmark
+    public List<OrderItemResponseDTO> cartPreviewItems() {
+        List<OrderItemResponseDTO> items = new ArrayList<>(cart.getItems().size());
+        for (CartItem item : cart.getItems()) {
+            items.add(OrderMapper.toPreviewItem(item));
+        }
+        return items;
+    }
+}
@@ -0,0 +1,64 @@
+package com.namit.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.namit.services.PaymentService;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+
+/**
+ * PaymentService.verifyPaymentSignature (Razorpay HMAC-SHA256 over
+ * "orderId|paymentId") with a valid signature. PaymentService logging is
+ * raised to WARN so console output is not measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaymentSignatureBenchmark {
+
+    private static final String SECRET = "rzp_benchmark_secret";
+    private static final String ORDER_ID = "order_Bench123456789";
+    private static final String PAYMENT_ID = "pay_Bench123456789";
+
+    private PaymentService paymentService;
+    private String signature;
+
+    @Setup
+    public void setUp() throws Exception {
+        ((Logger) LoggerFactory.getLogger(PaymentService.class)).setLevel(Level.WARN);
+
+        paymentService = new PaymentService();
+        ReflectionTestUtils.setField(paymentService, "razorpayKeySecret", SECRET);
+
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        signature = HexFormat.of().formatHex(mac.doFinal((ORDER_ID + "|" + PAYMENT_ID).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Benchmark
+    public boolean verifyPaymentSignature() {
+        return paymentService.verifyPaymentSignature(ORDER_ID, PAYMENT_ID, signature);
+    }
+}
@@ -0,0 +1,154 @@
+package com.namit.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.namit.CompatXApplication;
+import com.namit.dtos.order.PlaceOrderRequest;
+import com.namit.enums.PaymentMethod;
+import com.namit.enums.Role;
+import com.namit.models.AppUser;
+import com.namit.models.Cart;
+import com.namit.models.CartItem;
+import com.namit.models.Category;
+import com.namit.models.Product;
+import com.namit.repositories.AppUserRepository;
+import com.namit.repositories.CartRepository;
+import com.namit.repositories.CategoryRepository;
+import com.namit.repositories.ProductRepository;
+import com.namit.services.OrderService;
+
+/**
+ * placeOrder latency for large carts with JDBC batching off (batchSize=1, one
+ * round trip per row as with IDENTITY ids) and on.
+ *
+ * Runs against the test profile database (in-memory H2) by default, where a
+ * round trip is nearly free. For realistic numbers point it at MySQL:
+ * -Djmh.args="PlaceOrder -jvmArgsAppend -Dspring.datasource.url=jdbc:mysql://...?rewriteBatchedStatements=true"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlaceOrderBenchmark {
+
+    @Param({ "1", "50" })
+    int batchSize;
+
+    @Param({ "20", "100" })
+    int cartLines;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private CartRepository cartRepository;
+    private ProductRepository productRepository;
+    private TransactionTemplate transactionTemplate;
+
+    private Long buyerId;
+    private List<Long> productIds;
+    private PlaceOrderRequest request;
+
+    @Setup(Level.Trial)
+    public void boot() {
+        context = new SpringApplicationBuilder(CompatXApplication.class)
+                .properties("app.jpa.batch-size=" + batchSize, "server.port=0", "logging.level.root=WARN")
+                .run();
+
+        orderService = context.getBean(OrderService.class);
+        cartRepository = context.getBean(CartRepository.class);
+        productRepository = context.getBean(ProductRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        AppUserRepository userRepository = context.getBean(AppUserRepository.class);
+        AppUser seller = userRepository.save(user("bench-seller", Role.ADMIN));
+        buyerId = userRepository.save(user("bench-buyer", Role.USER)).getUserId();
+
+        Category category = new Category();
+        category.setCategoryName("bench-" + System.nanoTime());
+        category = context.getBean(CategoryRepository.class).save(category);
+
+        productIds = new ArrayList<>();
+        for (int i = 0; i < cartLines; i++) {
+            Product product = new Product();
+            product.setProductName("Bench product " + i);
+            product.setBrand("CompatX");
+            product.setPrice(10.0 + i);
+            product.setStock(Integer.MAX_VALUE / 2);
+            product.setCategory(category);
+            product.setUser(seller);
+            productIds.add(productRepository.save(product).getId());
+        }
+
+        request = new PlaceOrderRequest();
+        request.setPaymentMethod(PaymentMethod.CASH_ON_DELIVERY);
+        request.setUseProfileAddress(false);
+        request.setShippingFullName("Bench Buyer");
+        request.setShippingAddress("1 Bench Street");
+        request.setShippingCity("Pune");
+        request.setShippingState("MH");
+        request.setShippingPincode("411001");
+        request.setShippingPhone("9999999999");
+    }
+
+    // placeOrder empties the cart, refill it outside the measurement
+    @Setup(Level.Invocation)
+    public void fillCart() {
+        transactionTemplate.executeWithoutResult(tx -> {
+            Cart cart = cartRepository.findByUser_UserId(buyerId).orElseGet(() -> {
+                Cart created = new Cart();
+                created.setUser(context.getBean(AppUserRepository.class).getReferenceById(buyerId));
+                return created;
+            });
+
+            for (Long productId : productIds) {
+                CartItem item = new CartItem();
+                item.setCart(cart);
+                item.setProduct(productRepository.getReferenceById(productId));
+                item.setQuantity(1);
+                item.setPriceAtAdd(10.0);
+                cart.addItem(item);
+            }
+            cartRepository.save(cart);
+        });
+    }
+
+    @Benchmark
+    public ResponseEntity<?> placeOrder() {
+        return orderService.placeOrder(buyerId, request);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        context.close();
+    }
+
+    private static AppUser user(String prefix, Role role) {
+        AppUser user = new AppUser();
+        user.setUserName(prefix + "-" + System.nanoTime());
+        user.setEmail(prefix + "-" + System.nanoTime() + "@compatx.test");
+        user.setPassword("password");
+        user.setRole(role);
+        return user;
+    }
+}
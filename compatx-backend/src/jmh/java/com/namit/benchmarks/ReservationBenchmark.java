@@ -0,0 +1,114 @@
+package com.namit.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.namit.CompatXApplication;
+import com.namit.enums.Role;
+import com.namit.inventory.FlashSaleInventory;
+import com.namit.models.AppUser;
+import com.namit.models.Category;
+import com.namit.models.Product;
+import com.namit.repositories.AppUserRepository;
+import com.namit.repositories.CategoryRepository;
+import com.namit.repositories.ProductRepository;
+import com.namit.services.InventoryReservationService;
+
+/**
+ * InventoryReservationService.reserve throughput, one unit per call, each
+ * call its own transaction. With flashSale=false that is one conditional
+ * UPDATE on the product row; with flashSale=true the products are on flash
+ * sale, so it is a sharded counter claim plus an upsert of one of the
+ * flash_sale_shards rows. skus=1 puts every thread on the same product,
+ * larger values spread the row locks.
+ *
+ * Runs against the test profile database (in-memory H2) by default; point it
+ * at MySQL for numbers that include real row locking and round trips, e.g.
+ * -Djmh.args="Reservation -t 8 -jvmArgsAppend -Dspring.datasource.url=jdbc:mysql://..."
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReservationBenchmark {
+
+    @Param({ "1", "64" })
+    int skus;
+
+    @Param({ "false", "true" })
+    boolean flashSale;
+
+    private ConfigurableApplicationContext context;
+    private InventoryReservationService inventoryReservationService;
+    private List<Long> productIds;
+
+    @Setup(Level.Trial)
+    public void boot() {
+        context = new SpringApplicationBuilder(CompatXApplication.class)
+                .properties("server.port=0", "logging.level.root=WARN")
+                .run();
+
+        inventoryReservationService = context.getBean(InventoryReservationService.class);
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+
+        AppUser seller = new AppUser();
+        seller.setUserName("bench-seller-" + System.nanoTime());
+        seller.setEmail("bench-seller-" + System.nanoTime() + "@compatx.test");
+        seller.setPassword("password");
+        seller.setRole(Role.ADMIN);
+        seller = context.getBean(AppUserRepository.class).save(seller);
+
+        Category category = new Category();
+        category.setCategoryName("bench-" + System.nanoTime());
+        category = context.getBean(CategoryRepository.class).save(category);
+
+        productIds = new ArrayList<>();
+        for (int i = 0; i < skus; i++) {
+            Product product = new Product();
+            product.setProductName("Bench product " + i);
+            product.setBrand("CompatX");
+            product.setPrice(10.0);
+            product.setStock(Integer.MAX_VALUE / 2);
+            product.setCategory(category);
+            product.setUser(seller);
+            productIds.add(productRepository.save(product).getId());
+        }
+
+        if (flashSale) {
+            FlashSaleInventory flashSaleInventory = context.getBean(FlashSaleInventory.class);
+            productIds.forEach(id -> flashSaleInventory.start(id, 0));
+        }
+    }
+
+    @Benchmark
+    public boolean reserve() {
+        Long productId = productIds.get(ThreadLocalRandom.current().nextInt(productIds.size()));
+        return inventoryReservationService.reserve(Map.of(productId, 1)).isSuccess();
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,103 @@
+package com.namit.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.namit.models.Product;
+import com.namit.search.ProductFilterIndex.IdPage;
+import com.namit.search.ProductRankIndex;
+import com.namit.search.ProductSearchIndex;
+import com.namit.search.ProductSearchIndex.Result;
+
+/**
+ * ProductService.smartSearch token matching over synthetic catalogs.
+ *
+ * index is ProductSearchIndex.searchFuzzy (what smartSearch calls), linearScan
+ * is the original "every token contained in name or brand" loop over the whole
+ * catalog. Each call takes the next keyword from Fixtures.QUERIES. fuzzy is
+ * the same index over Fixtures.MISSPELT, where most calls have to correct a
+ * token before matching. ranked is the first page of
+ * ProductRankIndex.search (ranked-search) for the same keywords.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SmartSearchBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    int catalogSize;
+
+    private List<Product> catalog;
+    private ProductSearchIndex index;
+    private ProductRankIndex rankIndex;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        catalog = Fixtures.catalog(catalogSize, 42);
+        index = new ProductSearchIndex(null, 2);
+        catalog.forEach(index::index);
+        rankIndex = new ProductRankIndex(null, 3.0, 2.0, 1.0, false);
+        catalog.forEach(rankIndex::index);
+    }
+
+    private String nextQuery() {
+        String query = Fixtures.QUERIES[next];
+        next = (next + 1) % Fixtures.QUERIES.length;
+        return query;
+    }
+
+    @Benchmark
+    public Result index() {
+        return index.searchFuzzy(nextQuery());
+    }
+
+    @Benchmark
+    public IdPage ranked() {
+        return rankIndex.search(nextQuery(), 0, 12);
+    }
+
+    @Benchmark
+    public Result fuzzy() {
+        String query = Fixtures.MISSPELT[next];
+        next = (next + 1) % Fixtures.MISSPELT.length;
+        return index.searchFuzzy(query);
+    }
+
+    @Benchmark
+    public List<Product> linearScan() {
+        String[] tokens = nextQuery().toLowerCase().split("\\s+");
+
+        List<Product> filtered = new ArrayList<>();
+        for (Product product : catalog) {
+            boolean all = true;
+            for (String token : tokens) {
+                if (!product.getProductName().toLowerCase().contains(token)
+                        && !product.getBrand().toLowerCase().contains(token)) {
+                    all = false;
+                    break;
+                }
+            }
+            if (all) {
+                filtered.add(product);
+            }
+        }
+        return filtered;
+    }
+}
@@ -0,0 +1,524 @@
+package com.namit.loadtest;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.namit.config.IdSequenceAligner;
+import com.namit.enums.OrderStatus;
+import com.namit.models.OrderStatusCounter;
+import com.namit.search.ProductDiskIndex;
+import com.namit.search.ProductFilterIndex;
+import com.namit.search.ProductRankIndex;
+import com.namit.search.ProductSearchIndex;
+import com.namit.search.ProductSuggestIndex;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bulk-loads an empty CompatX schema with synthetic users, profiles,
+ * categories, products, carts, orders, order items and order seller links.
+ *
+ * Boots the application once (LocalApp) so Hibernate creates or updates the schema,
+ * then writes every table (including the order_sellers links and the
+ * order_status_counters the application maintains on write) through batched
+ * JDBC with explicit ids. Brands,
+ * seller ownership and product popularity are Zipf distributed, prices are
+ * log-normal per category and order sizes are geometric, so hot products,
+ * big sellers and long-tail customers look like production. The same
+ * scale and seed always produce the same data. Afterwards the id sequences
+ * are moved past the loaded ids.
+ *
+ * Scale 1 is 2,000 users (100 sellers), 10,000 products and 20,000 orders;
+ * every count grows linearly with the scale (scale 500 is 10M orders).
+ *
+ * mvn -Pbenchmark test-compile exec:exec@datagen -Ddatagen.args="--scale=10 --seed=42"
+ * Defaults to an H2 file database under target/datagen; for MySQL add
+ * --spring.datasource.url=jdbc:mysql://localhost:3306/compatx_load?rewriteBatchedStatements=true
+ * (plus username / password).
+ */
+@Slf4j
+public class DataGenerator {
+
+    private static final String[] CATEGORIES = { "Motherboard", "Graphics Card", "Processor", "RAM", "SSD",
+            "Hard Drive", "Power Supply", "Cabinet", "CPU Cooler", "Keyboard", "Mouse", "Monitor", "Headset",
+            "Webcam", "Router", "Speakers", "Thermal Paste", "Case Fan", "Capture Card", "UPS", "Mousepad",
+            "Controller", "Cables", "Sound Card" };
+
+    // most popular first, Zipf picks the head far more often than the tail
+    private static final String[] BRANDS = { "Asus", "MSI", "Gigabyte", "Corsair", "Samsung", "Logitech",
+            "Kingston", "Western Digital", "Intel", "AMD", "NVIDIA", "Seagate", "Crucial", "Cooler Master", "NZXT",
+            "Razer", "ASRock", "Zotac", "Sapphire", "HyperX", "Lian Li", "be quiet!", "Noctua", "Deepcool",
+            "Ant Esports", "Zebronics", "Cosmic Byte", "Redragon", "TP-Link", "APC" };
+
+    private static final String[] MODELS = { "Pro", "Gaming", "Ultra", "Elite", "Plus", "Max", "Lite", "Xtreme",
+            "Nano", "Titan", "Vortex", "Phantom", "Aero", "Strix", "Prime", "Eagle" };
+
+    private static final String[] CITIES = { "Mumbai", "Delhi", "Bengaluru", "Hyderabad", "Chennai", "Kolkata",
+            "Pune", "Ahmedabad", "Jaipur", "Lucknow", "Indore", "Nagpur", "Kochi", "Chandigarh", "Bhopal" };
+
+    private static final String[] STATES = { "Maharashtra", "Delhi", "Karnataka", "Telangana", "Tamil Nadu",
+            "West Bengal", "Maharashtra", "Gujarat", "Rajasthan", "Uttar Pradesh", "Madhya Pradesh", "Maharashtra",
+            "Kerala", "Punjab", "Madhya Pradesh" };
+
+    // typical price per category (INR), products scatter log-normally around it
+    private static final double[] BASE_PRICE = { 14000, 35000, 22000, 4500, 6000, 4500, 6500, 5000, 3500, 2500,
+            1500, 15000, 3000, 3500, 2500, 3000, 500, 800, 12000, 6000, 600, 3500, 400, 4000 };
+
+    private static final int USERS_PER_SCALE = 2_000;
+    private static final int SELLERS_PER_SCALE = 100;
+    private static final int PRODUCTS_PER_SCALE = 10_000;
+    private static final int ORDERS_PER_SCALE = 20_000;
+    private static final double CART_SHARE = 0.3;
+    private static final int MAX_ORDER_LINES = 20;
+    private static final Duration ORDER_HISTORY = Duration.ofDays(730);
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int scale;
+    private final long seed;
+    private final int batchSize;
+    private final String passwordHash;
+    private final Instant now = Instant.now();
+
+    private int users;
+    private int sellers;
+    private int products;
+    private double[] productPrice;
+    private long[] productSeller;
+
+    public DataGenerator(JdbcTemplate jdbcTemplate, int scale, long seed, int batchSize, String passwordHash) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.scale = scale;
+        this.seed = seed;
+        this.batchSize = batchSize;
+        this.passwordHash = passwordHash;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new LinkedHashMap<>();
+        List<String> springArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--scale=") || arg.startsWith("--seed=") || arg.startsWith("--batch=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            } else {
+                springArgs.add(arg);
+            }
+        }
+
+        try (ConfigurableApplicationContext context = LocalApp.start(springArgs.toArray(String[]::new), "0")) {
+            load(context,
+                    Integer.parseInt(options.getOrDefault("scale", "1")),
+                    Long.parseLong(options.getOrDefault("seed", "42")),
+                    Integer.parseInt(options.getOrDefault("batch", "1000")));
+        }
+    }
+
+    // generate into the context's database, then move the id generators past the loaded rows
+    static void load(ConfigurableApplicationContext context, int scale, long seed, int batchSize) throws IOException {
+        DataGenerator generator = new DataGenerator(
+                context.getBean(JdbcTemplate.class), scale, seed, batchSize,
+                context.getBean(PasswordEncoder.class).encode("password"));
+
+        generator.generate();
+        generator.alignIdGenerators(context.getBean(IdSequenceAligner.class));
+
+        // built empty when the application started
+        context.getBean(ProductSearchIndex.class).rebuild();
+        context.getBean(ProductFilterIndex.class).rebuild();
+        context.getBean(ProductSuggestIndex.class).rebuild();
+        context.getBean(ProductRankIndex.class).rebuild();
+        context.getBean(ProductDiskIndex.class).verify();
+    }
+
+    public void generate() {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM app_user", Integer.class);
+        if (existing != null && existing > 0) {
+            throw new IllegalStateException("Target database already has " + existing + " users, load into an empty schema");
+        }
+
+        users = USERS_PER_SCALE * scale;
+        sellers = SELLERS_PER_SCALE * scale;
+        products = PRODUCTS_PER_SCALE * scale;
+
+        long started = System.nanoTime();
+        log.info("Generating scale {} (seed {}): {} users, {} products, {} orders",
+                scale, seed, users, products, ORDERS_PER_SCALE * scale);
+
+        loadUsers();
+        loadCategories();
+        loadProducts();
+        loadCarts();
+        loadOrders();
+
+        log.info("Data generated in {} s", Duration.ofNanos(System.nanoTime() - started).toSeconds());
+    }
+
+    // USERS AND PROFILES (sellers are ADMIN, everyone else USER)
+
+    private void loadUsers() {
+        Random random = new Random(seed);
+        Batch appUsers = new Batch("INSERT INTO app_user (user_id, user_name, email, password, is_active, role, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)");
+        Batch profiles = new Batch("INSERT INTO app_user_profile (profile_id, user_id, full_name, phone, address, city, "
+                + "state, pincode, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+
+        for (long id = 1; id <= users; id++) {
+            boolean seller = id <= sellers;
+            String name = (seller ? "seller" : "user") + id;
+            Timestamp createdAt = pastTimestamp(random);
+            appUsers.add(id, name, name + "@compatx.test", passwordHash, random.nextInt(100) != 0,
+                    seller ? "ADMIN" : "USER", createdAt);
+
+            // most buyers have filled in their profile
+            if (seller || random.nextInt(10) < 8) {
+                int city = random.nextInt(CITIES.length);
+                profiles.add(id, id, "Customer " + id, phone(random), (1 + random.nextInt(999)) + ", Sector "
+                        + (1 + random.nextInt(60)), CITIES[city], STATES[city],
+                        String.valueOf(110000 + random.nextInt(750000)), createdAt, createdAt);
+            }
+
+            if (appUsers.size() >= batchSize) {
+                appUsers.flush();
+                profiles.flush();
+            }
+        }
+        appUsers.flush();
+        profiles.flush();
+        log.info("Users: {}, profiles: {}", appUsers.total(), profiles.total());
+    }
+
+    private void loadCategories() {
+        Batch categories = new Batch("INSERT INTO category (category_id, category_name, created_at, updated_at) VALUES (?, ?, ?, ?)");
+        Timestamp createdAt = Timestamp.from(now.minus(ORDER_HISTORY));
+        for (int i = 0; i < CATEGORIES.length; i++) {
+            categories.add((long) i + 1, CATEGORIES[i], createdAt, createdAt);
+        }
+        categories.flush();
+    }
+
+    // PRODUCTS (Zipf brands and seller ownership, log-normal prices)
+
+    private void loadProducts() {
+        Random random = new Random(seed + 1);
+        Zipf brandPick = new Zipf(BRANDS.length, 1.1, random);
+        Zipf sellerPick = new Zipf(sellers, 1.2, random);
+
+        productPrice = new double[products + 1];
+        productSeller = new long[products + 1];
+
+        Batch rows = new Batch("INSERT INTO product (id, product_name, brand, description, price, stock, image_url, "
+                + "created_at, updated_at, category_id, user_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+
+        for (int id = 1; id <= products; id++) {
+            int category = random.nextInt(CATEGORIES.length);
+            String brand = BRANDS[brandPick.next()];
+            double price = Math.max(99, Math.round(BASE_PRICE[category] * Math.exp(0.6 * random.nextGaussian())));
+            long seller = 1 + sellerPick.next();
+            Timestamp createdAt = pastTimestamp(random);
+
+            productPrice[id] = price;
+            productSeller[id] = seller;
+
+            // a tenth of the catalog is out of stock
+            int stock = random.nextInt(10) == 0 ? 0 : 1 + random.nextInt(500);
+
+            rows.add((long) id,
+                    brand + " " + CATEGORIES[category] + " " + MODELS[random.nextInt(MODELS.length)] + " "
+                            + (100 + random.nextInt(9900)),
+                    brand, "Synthetic " + CATEGORIES[category].toLowerCase() + " #" + id, price, stock,
+                    "https://cdn.compatx.test/products/" + id + ".jpg", createdAt, createdAt,
+                    (long) category + 1, seller);
+
+            if (rows.size() >= batchSize) {
+                rows.flush();
+            }
+        }
+        rows.flush();
+        log.info("Products: {}", rows.total());
+    }
+
+    // CARTS (a share of the buyers has an open cart)
+
+    private void loadCarts() {
+        Random random = new Random(seed + 2);
+        Zipf productPick = new Zipf(products, 1.0, random);
+
+        Batch carts = new Batch("INSERT INTO cart (cart_id, user_id, created_at, updated_at) VALUES (?, ?, ?, ?)");
+        Batch items = new Batch("INSERT INTO cart_item (cart_item_id, cart_id, product_id, quantity, price_at_add, "
+                + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)");
+
+        long cartId = 0;
+        long itemId = 0;
+        for (long user = sellers + 1; user <= users; user++) {
+            if (random.nextDouble() >= CART_SHARE) {
+                continue;
+            }
+
+            Timestamp createdAt = Timestamp.from(now.minus(Duration.ofMinutes(random.nextInt(60 * 24 * 30))));
+            carts.add(++cartId, user, createdAt, createdAt);
+
+            for (int product : distinctProducts(productPick, lines(random, 5))) {
+                items.add(++itemId, cartId, (long) product, 1 + random.nextInt(3), productPrice[product],
+                        createdAt, createdAt);
+            }
+
+            if (items.size() >= batchSize) {
+                carts.flush();
+                items.flush();
+            }
+        }
+        carts.flush();
+        items.flush();
+        log.info("Carts: {}, cart items: {}", carts.total(), items.total());
+    }
+
+    // ORDERS, ITEMS AND SELLER LINKS (Zipf product popularity, geometric order size)
+
+    private void loadOrders() {
+        Random random = new Random(seed + 3);
+        Zipf productPick = new Zipf(products, 1.0, random);
+        Zipf buyerPick = new Zipf(users - sellers, 0.8, random);
+
+        Batch orders = new Batch("INSERT INTO orders (order_id, user_id, status, payment_method, payment_status, "
+                + "subtotal, tax_amount, shipping_charges, total_amount, shipping_full_name, shipping_address, "
+                + "shipping_city, shipping_state, shipping_pincode, shipping_phone, delivery_otp, otp_verified, "
+                + "created_at, updated_at, confirmed_at, shipped_at, delivered_at, cancelled_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+        Batch items = new Batch("INSERT INTO order_items (order_item_id, order_id, product_id, quantity, "
+                + "price_at_order, subtotal, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)");
+        Batch links = new Batch("INSERT INTO order_sellers (id, order_id, seller_id, status, created_at) VALUES (?, ?, ?, ?, ?)");
+
+        // (sellerId, status) -> {orders, revenue}, seller 0 is the global row
+        Map<String, double[]> counters = new LinkedHashMap<>();
+
+        int total = ORDERS_PER_SCALE * scale;
+        long itemId = 0;
+        long linkId = 0;
+        for (long orderId = 1; orderId <= total; orderId++) {
+            long buyer = sellers + 1 + buyerPick.next();
+            Instant createdAt = now.minus(Duration.ofSeconds((long) (ORDER_HISTORY.toSeconds()
+                    * Math.pow(random.nextDouble(), 2)))); // more recent orders than old ones
+            Timestamp created = Timestamp.from(createdAt);
+            OrderStatus status = status(random, createdAt);
+
+            double subtotal = 0;
+            Set<Long> orderSellers = new LinkedHashSet<>();
+            for (int product : distinctProducts(productPick, lines(random, MAX_ORDER_LINES))) {
+                int quantity = random.nextInt(10) == 0 ? 2 + random.nextInt(4) : 1;
+                double lineTotal = productPrice[product] * quantity;
+                subtotal += lineTotal;
+                items.add(++itemId, orderId, (long) product, quantity, productPrice[product], lineTotal, created);
+                orderSellers.add(productSeller[product]);
+            }
+
+            for (Long seller : orderSellers) {
+                links.add(++linkId, orderId, seller, status.name(), created);
+            }
+
+            double shipping = subtotal >= 999 ? 0.0 : 49.0;
+            count(counters, OrderStatusCounter.ALL_SELLERS, status, subtotal + shipping);
+            for (Long seller : orderSellers) {
+                count(counters, seller, status, subtotal + shipping);
+            }
+
+            boolean cod = random.nextInt(3) == 0;
+            int city = random.nextInt(CITIES.length);
+            Timestamp confirmed = status == OrderStatus.PENDING ? null : Timestamp.from(createdAt.plusSeconds(600));
+            Timestamp shipped = status == OrderStatus.SHIPPED || status == OrderStatus.DELIVERED
+                    ? Timestamp.from(createdAt.plus(Duration.ofDays(1))) : null;
+            Timestamp delivered = status == OrderStatus.DELIVERED ? Timestamp.from(createdAt.plus(Duration.ofDays(4))) : null;
+            Timestamp cancelled = status == OrderStatus.CANCELLED ? Timestamp.from(createdAt.plus(Duration.ofHours(6))) : null;
+            String paymentStatus = status == OrderStatus.CANCELLED ? (cod ? "PENDING" : "REFUNDED")
+                    : cod && status != OrderStatus.DELIVERED ? "PENDING" : "COMPLETED";
+
+            orders.add(orderId, buyer, status.name(), cod ? "CASH_ON_DELIVERY" : "STRIPE", paymentStatus,
+                    subtotal, 0.0, shipping, subtotal + shipping, "Customer " + buyer,
+                    (1 + random.nextInt(999)) + ", Sector " + (1 + random.nextInt(60)), CITIES[city], STATES[city],
+                    String.valueOf(110000 + random.nextInt(750000)), phone(random),
+                    String.format("%06d", random.nextInt(1_000_000)), status == OrderStatus.DELIVERED,
+                    created, created, confirmed, shipped, delivered, cancelled);
+
+            // parents before children
+            if (items.size() >= batchSize) {
+                orders.flush();
+                items.flush();
+                links.flush();
+            }
+            if (orderId % 1_000_000 == 0) {
+                log.info("Orders: {} / {}", orderId, total);
+            }
+        }
+        orders.flush();
+        items.flush();
+        links.flush();
+        Batch counterRows = new Batch("INSERT INTO order_status_counters (seller_id, status, order_count, revenue) "
+                + "VALUES (?, ?, ?, ?)");
+        for (Map.Entry<String, double[]> counter : counters.entrySet()) {
+            String[] key = counter.getKey().split(":");
+            counterRows.add(Long.parseLong(key[0]), key[1], (long) counter.getValue()[0], counter.getValue()[1]);
+            if (counterRows.size() >= batchSize) {
+                counterRows.flush();
+            }
+        }
+        counterRows.flush();
+
+        log.info("Orders: {}, order items: {}, seller links: {}, status counters: {}",
+                orders.total(), items.total(), links.total(), counterRows.total());
+    }
+
+    private static void count(Map<String, double[]> counters, Long sellerId, OrderStatus status, double amount) {
+        double[] counter = counters.computeIfAbsent(sellerId + ":" + status.name(), key -> new double[2]);
+        counter[0]++;
+        counter[1] += amount;
+    }
+
+    // ID GENERATORS (rows were written with explicit ids)
+
+    public void alignIdGenerators(IdSequenceAligner aligner) {
+        String database = jdbcTemplate.execute((Connection c) -> c.getMetaData().getDatabaseProductName());
+        if (database != null && database.toLowerCase().contains("mysql")) {
+            // sequence tables; AUTO_INCREMENT already moved past the explicit ids
+            aligner.afterPropertiesSet();
+            return;
+        }
+
+        restartSequence("product_seq", "product", "id");
+        restartSequence("cart_seq", "cart", "cart_id");
+        restartSequence("cart_item_seq", "cart_item", "cart_item_id");
+        restartSequence("orders_seq", "orders", "order_id");
+        restartSequence("order_item_seq", "order_items", "order_item_id");
+        restartSequence("order_seller_seq", "order_sellers", "id");
+        restartIdentity("app_user", "user_id");
+        restartIdentity("app_user_profile", "profile_id");
+        restartIdentity("category", "category_id");
+    }
+
+    // pooled optimizer: the value read is the top of the next block, so skip a whole block past MAX(id)
+    private void restartSequence(String sequence, String table, String idColumn) {
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH "
+                + (maxId(table, idColumn) + ID_ALLOCATION_SIZE + 1));
+    }
+
+    private void restartIdentity(String table, String idColumn) {
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN " + idColumn + " RESTART WITH "
+                + (maxId(table, idColumn) + 1));
+    }
+
+    private long maxId(String table, String idColumn) {
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(" + idColumn + "), 0) FROM " + table, Long.class);
+        return max == null ? 0 : max;
+    }
+
+    // HELPERS
+
+    // newer orders are mostly in flight, older ones delivered or cancelled
+    private static OrderStatus status(Random random, Instant createdAt) {
+        int roll = random.nextInt(100);
+        if (createdAt.isAfter(Instant.now().minus(Duration.ofDays(7)))) {
+            return roll < 25 ? OrderStatus.PENDING : roll < 55 ? OrderStatus.CONFIRMED
+                    : roll < 85 ? OrderStatus.SHIPPED : roll < 95 ? OrderStatus.DELIVERED : OrderStatus.CANCELLED;
+        }
+        return roll < 88 ? OrderStatus.DELIVERED : OrderStatus.CANCELLED;
+    }
+
+    // 1 + geometric(0.45), so most orders have one or two lines
+    private static int lines(Random random, int max) {
+        int lines = 1;
+        while (lines < max && random.nextDouble() < 0.45) {
+            lines++;
+        }
+        return lines;
+    }
+
+    private static Set<Integer> distinctProducts(Zipf productPick, int count) {
+        Set<Integer> picked = new LinkedHashSet<>();
+        for (int attempt = 0; picked.size() < count && attempt < count * 4; attempt++) {
+            picked.add(1 + productPick.next());
+        }
+        return picked;
+    }
+
+    private Timestamp pastTimestamp(Random random) {
+        return Timestamp.from(now.minus(Duration.ofSeconds((long) (random.nextDouble() * ORDER_HISTORY.toSeconds()))));
+    }
+
+    private static String phone(Random random) {
+        return String.valueOf(6_000_000_000L + (long) (random.nextDouble() * 3_999_999_999L));
+    }
+
+    /**
+     * Zipf(n, s) sampler over 0..n-1, rank 0 most likely. Inverse transform on
+     * a precomputed CDF.
+     */
+    static final class Zipf {
+
+        private final double[] cdf;
+        private final Random random;
+
+        Zipf(int n, double s, Random random) {
+            this.random = random;
+            this.cdf = new double[n];
+            double sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += 1.0 / Math.pow(i + 1, s);
+                cdf[i] = sum;
+            }
+            for (int i = 0; i < n; i++) {
+                cdf[i] /= sum;
+            }
+        }
+
+        int next() {
+            int index = Arrays.binarySearch(cdf, random.nextDouble());
+            return Math.min(index >= 0 ? index : -index - 1, cdf.length - 1);
+        }
+    }
+
+    // rows for one INSERT, sent as a JDBC batch on flush
+    private final class Batch {
+
+        private final String sql;
+        private final List<Object[]> rows = new ArrayList<>();
+        private long total;
+
+        Batch(String sql) {
+            this.sql = sql;
+        }
+
+        void add(Object... row) {
+            rows.add(row);
+        }
+
+        int size() {
+            return rows.size();
+        }
+
+        long total() {
+            return total;
+        }
+
+        void flush() {
+            if (rows.isEmpty()) {
+                return;
+            }
+            jdbcTemplate.batchUpdate(sql, rows);
+            total += rows.size();
+            rows.clear();
+        }
+    }
+}
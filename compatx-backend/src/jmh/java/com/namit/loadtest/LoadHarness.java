@@ -0,0 +1,566 @@
+package com.namit.loadtest;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.namit.config.ThreadingModeReporter;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * End-to-end HTTP load test against a locally started CompatX.
+ *
+ * Boots the application on a random port against the LocalApp database
+ * (generating --scale data first when it is empty), logs in one customer per
+ * client plus a few sellers, then runs closed-loop clients over a weighted mix:
+ * product filter, smart search, cart add, cart update, place order and the
+ * admin order listing. Every request's latency goes into a per-endpoint
+ * HdrHistogram; the warmup is discarded. The report is a CSV with the run
+ * parameters as # lines and one row per endpoint (throughput, p50 to max),
+ * and --baseline compares p99 and throughput against an earlier report,
+ * exiting non-zero when either moved by more than --threshold.
+ *
+ * mvn -Pbenchmark test-compile exec:exec@loadtest -Dloadtest.args="--clients=200 --duration=60 --baseline=baseline.csv"
+ *
+ * --mix=checkout shifts the mix to cart writes and order placement, the
+ * paths that block on row locks and the JDBC pool; run it once with
+ * --spring.threads.virtual.enabled=true and once without to compare the
+ * server's thread modes (recorded in the report as server_threads).
+ *
+ * Every client is a virtual thread.
+ * Latency is measured per request by closed-loop clients, so a stall delays the
+ * next request instead of queueing it (no coordinated omission correction);
+ * compare reports taken with the same client count and think time.
+ */
+@Slf4j
+public class LoadHarness {
+
+    static final String FILTER = "products_filter";
+    static final String SEARCH = "smart_search";
+    static final String CART_ADD = "cart_add";
+    static final String CART_UPDATE = "cart_update";
+    static final String PLACE_ORDER = "place_order";
+    static final String ADMIN_ORDERS = "admin_orders";
+
+    // requests per 100 for each --mix; browse is the storefront, checkout is write and lock heavy
+    private static final Map<String, Map<String, Integer>> MIXES = Map.of(
+            "browse", mix(50, 20, 12, 8, 5, 5),
+            "checkout", mix(15, 5, 30, 20, 25, 5));
+
+    private static Map<String, Integer> mix(int filter, int search, int cartAdd, int cartUpdate, int placeOrder,
+            int adminOrders) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        mix.put(FILTER, filter);
+        mix.put(SEARCH, search);
+        mix.put(CART_ADD, cartAdd);
+        mix.put(CART_UPDATE, cartUpdate);
+        mix.put(PLACE_ORDER, placeOrder);
+        mix.put(ADMIN_ORDERS, adminOrders);
+        return mix;
+    }
+
+    private static final String[] SORT_FIELDS = { "price", "createdAt", "productName" };
+
+    private static final String REPORT_HEADER = "endpoint,requests,errors,throughput_rps,p50_ms,p90_ms,p99_ms,p999_ms,max_ms";
+
+    private final Options options;
+    private final Map<String, Integer> mix;
+    private final String baseUrl;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+
+    private final Map<String, Recorder> recorders = new LinkedHashMap<>();
+    private final Map<String, LongAdder> errors = new LinkedHashMap<>();
+
+    private long[] productIds;
+    private long[] categoryIds;
+    private String[] brands;
+    private List<String> sellerTokens;
+
+    record Options(int clients, int durationSec, int warmupSec, long thinkMs, String mix, int scale, long seed,
+                   Path report, Path baseline, double threshold) {
+    }
+
+    record Row(String endpoint, long requests, long errors, double throughput,
+               double p50, double p90, double p99, double p999, double max) {
+    }
+
+    // one customer: its token and the cart items it knows about
+    private static final class Client {
+        final String token;
+        final Random random;
+        final List<Long> cartItemIds = new ArrayList<>();
+
+        Client(String token, Random random) {
+            this.token = token;
+            this.random = random;
+        }
+    }
+
+    LoadHarness(Options options, int port, ObjectMapper objectMapper) {
+        this.options = options;
+        this.mix = MIXES.get(options.mix());
+        this.baseUrl = "http://localhost:" + port;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        for (String endpoint : mix.keySet()) {
+            recorders.put(endpoint, new Recorder(3));
+            errors.put(endpoint, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> values = new LinkedHashMap<>();
+        List<String> springArgs = new ArrayList<>();
+        for (String arg : args) {
+            String name = arg.startsWith("--") && arg.contains("=") ? arg.substring(2, arg.indexOf('=')) : "";
+            if (List.of("clients", "duration", "warmup", "think-ms", "mix", "scale", "seed", "report", "baseline",
+                    "threshold").contains(name)) {
+                values.put(name, arg.substring(arg.indexOf('=') + 1));
+            } else {
+                springArgs.add(arg);
+            }
+        }
+
+        Options options = new Options(
+                Integer.parseInt(values.getOrDefault("clients", "200")),
+                Integer.parseInt(values.getOrDefault("duration", "60")),
+                Integer.parseInt(values.getOrDefault("warmup", "10")),
+                Long.parseLong(values.getOrDefault("think-ms", "0")),
+                values.getOrDefault("mix", "browse"),
+                Integer.parseInt(values.getOrDefault("scale", "1")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                Path.of(values.getOrDefault("report", "target/loadtest/report.csv")),
+                values.containsKey("baseline") ? Path.of(values.get("baseline")) : null,
+                Double.parseDouble(values.getOrDefault("threshold", "0.2")));
+        if (!MIXES.containsKey(options.mix())) {
+            throw new IllegalArgumentException("Unknown --mix " + options.mix() + ", expected one of " + MIXES.keySet());
+        }
+
+        List<Row> rows;
+        String serverThreads;
+        try (ConfigurableApplicationContext context = LocalApp.start(springArgs.toArray(String[]::new), "0")) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            Integer users = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM app_user", Integer.class);
+            if (users == null || users == 0) {
+                log.info("Empty database, generating scale {} data first", options.scale());
+                DataGenerator.load(context, options.scale(), options.seed(), 1000);
+            }
+
+            serverThreads = context.getBean(ThreadingModeReporter.class).isVirtual() ? "virtual" : "platform";
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            LoadHarness harness = new LoadHarness(options, port, context.getBean(ObjectMapper.class));
+            harness.loadFixtures(jdbcTemplate);
+            rows = harness.run(jdbcTemplate);
+        }
+
+        writeReport(options, serverThreads, rows);
+        if (options.baseline() != null && !compare(readReport(options.baseline()), rows, options.threshold())) {
+            System.exit(1);
+        }
+    }
+
+    // SETUP
+
+    void loadFixtures(JdbcTemplate jdbcTemplate) {
+        productIds = jdbcTemplate.queryForList("SELECT id FROM product WHERE stock > 0 ORDER BY id", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+        categoryIds = jdbcTemplate.queryForList("SELECT category_id FROM category", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+        brands = jdbcTemplate.queryForList("SELECT DISTINCT brand FROM product", String.class)
+                .toArray(String[]::new);
+
+        if (productIds.length == 0 || categoryIds.length == 0) {
+            throw new IllegalStateException("No products in stock, nothing to load test");
+        }
+    }
+
+    List<Row> run(JdbcTemplate jdbcTemplate) throws Exception {
+        List<String> customers = jdbcTemplate.queryForList(
+                "SELECT user_name FROM app_user WHERE role = 'USER' AND is_active = TRUE ORDER BY user_id LIMIT ?",
+                String.class, options.clients());
+        List<String> sellers = jdbcTemplate.queryForList(
+                "SELECT user_name FROM app_user WHERE role = 'ADMIN' AND is_active = TRUE ORDER BY user_id LIMIT ?",
+                String.class, Math.max(1, options.clients() / 20));
+
+        try (ClientExecutor executor = ClientExecutor.create()) {
+            // logins are bcrypt bound, do them in parallel and outside the measurement
+            List<Future<String>> sellerLogins = new ArrayList<>();
+            for (String seller : sellers) {
+                sellerLogins.add(executor.submit(() -> login(seller)));
+            }
+            List<Future<Client>> clientLogins = new ArrayList<>();
+            for (int i = 0; i < customers.size(); i++) {
+                String customer = customers.get(i);
+                Random random = new Random(options.seed() * 31 + i);
+                clientLogins.add(executor.submit(() -> newClient(customer, random)));
+            }
+
+            sellerTokens = new ArrayList<>();
+            for (Future<String> login : sellerLogins) {
+                sellerTokens.add(login.get());
+            }
+            List<Client> clients = new ArrayList<>();
+            for (Future<Client> login : clientLogins) {
+                clients.add(login.get());
+            }
+            log.info("Logged in {} customers and {} sellers, warming up for {}s",
+                    clients.size(), sellerTokens.size(), options.warmupSec());
+
+            long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.warmupSec() + options.durationSec());
+            List<Future<?>> running = new ArrayList<>();
+            for (Client client : clients) {
+                running.add(executor.submit(() -> {
+                    drive(client, end);
+                    return null;
+                }));
+            }
+
+            Thread.sleep(TimeUnit.SECONDS.toMillis(options.warmupSec()));
+            recorders.values().forEach(Recorder::reset);
+            errors.values().forEach(LongAdder::reset);
+            long started = System.nanoTime();
+            log.info("Measuring for {}s", options.durationSec());
+
+            for (Future<?> client : running) {
+                client.get();
+            }
+            return collect((System.nanoTime() - started) / 1e9);
+        }
+    }
+
+    private Client newClient(String username, Random random) throws IOException, InterruptedException {
+        Client client = new Client(login(username), random);
+        JsonNode cart = send(client.token, get("/api/v1/user/cart"));
+        rememberCartItems(client, cart);
+        return client;
+    }
+
+    private String login(String username) throws IOException, InterruptedException {
+        Map<String, Object> body = Map.of("username", username, "password", "password");
+        JsonNode response = send(null, post("/api/v1/auth/login", body));
+        if (response == null || !response.hasNonNull("accessToken")) {
+            throw new IllegalStateException("Login failed for " + username);
+        }
+        return response.get("accessToken").asText();
+    }
+
+    // CLIENT LOOP
+
+    private void drive(Client client, long end) throws InterruptedException {
+        while (System.nanoTime() < end) {
+            String endpoint = pick(client.random);
+
+            // update and checkout need something in the cart, add to it until they do
+            if ((endpoint.equals(CART_UPDATE) || endpoint.equals(PLACE_ORDER)) && client.cartItemIds.isEmpty()) {
+                endpoint = CART_ADD;
+            }
+
+            long start = System.nanoTime();
+            boolean ok;
+            try {
+                ok = execute(endpoint, client);
+            } catch (IOException e) {
+                ok = false;
+            }
+            recorders.get(endpoint).recordValue(System.nanoTime() - start);
+            if (!ok) {
+                errors.get(endpoint).increment();
+            }
+
+            if (options.thinkMs() > 0) {
+                Thread.sleep(options.thinkMs());
+            }
+        }
+    }
+
+    private boolean execute(String endpoint, Client client) throws IOException, InterruptedException {
+        Random random = client.random;
+
+        switch (endpoint) {
+            case FILTER -> {
+                StringBuilder query = new StringBuilder("/api/v1/products/filter?page=")
+                        .append(random.nextInt(5) == 0 ? random.nextInt(10) : 0)
+                        .append("&size=12");
+                if (random.nextBoolean()) {
+                    query.append("&categoryId=").append(categoryIds[random.nextInt(categoryIds.length)]);
+                }
+                if (random.nextInt(3) == 0) {
+                    query.append("&brand=").append(encode(brands[random.nextInt(brands.length)]));
+                }
+                if (random.nextInt(4) == 0) {
+                    int min = 500 * random.nextInt(20);
+                    query.append("&minPrice=").append(min).append("&maxPrice=").append(min + 5000 + random.nextInt(20000));
+                }
+                if (random.nextBoolean()) {
+                    query.append("&sortField=").append(SORT_FIELDS[random.nextInt(SORT_FIELDS.length)])
+                            .append("&sortDirection=").append(random.nextBoolean() ? "asc" : "desc");
+                }
+                return status(client.token, get(query.toString())) < 400;
+            }
+            case SEARCH -> {
+                String keyword = brands[random.nextInt(brands.length)];
+                return status(client.token, get("/api/v1/products/smart-search?keyword=" + encode(keyword))) < 400;
+            }
+            case CART_ADD -> {
+                Map<String, Object> body = Map.of("productId", product(random), "quantity", 1);
+                JsonNode cart = send(client.token, post("/api/v1/user/cart/add", body));
+                rememberCartItems(client, cart);
+                return cart != null;
+            }
+            case CART_UPDATE -> {
+                long itemId = client.cartItemIds.get(random.nextInt(client.cartItemIds.size()));
+                Map<String, Object> body = Map.of("quantity", 1 + random.nextInt(3));
+                JsonNode cart = send(client.token, put("/api/v1/user/cart/items/" + itemId, body));
+                if (cart == null) {
+                    client.cartItemIds.remove(itemId);
+                    return false;
+                }
+                return true;
+            }
+            case PLACE_ORDER -> {
+                Map<String, Object> body = new LinkedHashMap<>();
+                body.put("paymentMethod", "CASH_ON_DELIVERY");
+                body.put("useProfileAddress", false);
+                body.put("shippingFullName", "Load Test");
+                body.put("shippingAddress", "1 Test Street");
+                body.put("shippingCity", "Pune");
+                body.put("shippingState", "Maharashtra");
+                body.put("shippingPincode", "411001");
+                body.put("shippingPhone", "9876543210");
+                // the cart is emptied either way (ordered, or out of stock and retried later)
+                client.cartItemIds.clear();
+                return send(client.token, post("/api/v1/user/orders", body)) != null;
+            }
+            case ADMIN_ORDERS -> {
+                String token = sellerTokens.get(random.nextInt(sellerTokens.size()));
+                return status(token, get("/api/v1/admin/orders?page=" + random.nextInt(3) + "&size=10")) < 400;
+            }
+            default -> throw new IllegalArgumentException(endpoint);
+        }
+    }
+
+    private String pick(Random random) {
+        int roll = random.nextInt(100);
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        return FILTER;
+    }
+
+    // a fifth of the catalog gets four fifths of the traffic
+    private long product(Random random) {
+        int hot = Math.max(1, productIds.length / 5);
+        return random.nextInt(5) == 0
+                ? productIds[random.nextInt(productIds.length)]
+                : productIds[random.nextInt(hot)];
+    }
+
+    private void rememberCartItems(Client client, JsonNode cart) {
+        if (cart == null) {
+            return;
+        }
+        client.cartItemIds.clear();
+        for (JsonNode item : cart.path("data").path("items")) {
+            client.cartItemIds.add(item.path("cartItemId").asLong());
+        }
+    }
+
+    // HTTP
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET();
+    }
+
+    private HttpRequest.Builder post(String path, Object body) throws IOException {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+    }
+
+    private HttpRequest.Builder put(String path, Object body) throws IOException {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+    }
+
+    // status only, the body is read and dropped
+    private int status(String token, HttpRequest.Builder request) throws IOException, InterruptedException {
+        return httpClient.send(authorize(token, request), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    // parsed body of a 2xx response, null otherwise
+    private JsonNode send(String token, HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = httpClient.send(authorize(token, request),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() >= 300) {
+            return null;
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private HttpRequest authorize(String token, HttpRequest.Builder request) {
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return request.timeout(Duration.ofSeconds(30)).build();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    // REPORT
+
+    private List<Row> collect(double seconds) {
+        List<Row> rows = new ArrayList<>();
+        Histogram all = new Histogram(3);
+        long allErrors = 0;
+
+        for (String endpoint : mix.keySet()) {
+            Histogram histogram = recorders.get(endpoint).getIntervalHistogram();
+            long failed = errors.get(endpoint).sum();
+            rows.add(toRow(endpoint, histogram, failed, seconds));
+            all.add(histogram);
+            allErrors += failed;
+        }
+        rows.add(toRow("all", all, allErrors, seconds));
+        return rows;
+    }
+
+    private static Row toRow(String endpoint, Histogram histogram, long failed, double seconds) {
+        return new Row(endpoint, histogram.getTotalCount(), failed, histogram.getTotalCount() / seconds,
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    static void writeReport(Options options, String serverThreads, List<Row> rows) throws IOException {
+        if (options.report().getParent() != null) {
+            Files.createDirectories(options.report().getParent());
+        }
+
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(options.report()))) {
+            out.println("# date=" + Instant.now());
+            out.println("# java=" + System.getProperty("java.version"));
+            out.println("# server_threads=" + serverThreads);
+            out.println("# mix=" + options.mix());
+            out.println("# clients=" + options.clients());
+            out.println("# duration_s=" + options.durationSec());
+            out.println("# warmup_s=" + options.warmupSec());
+            out.println("# think_ms=" + options.thinkMs());
+            out.println(REPORT_HEADER);
+            for (Row row : rows) {
+                out.printf(Locale.ROOT, "%s,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+                        row.endpoint(), row.requests(), row.errors(), row.throughput(),
+                        row.p50(), row.p90(), row.p99(), row.p999(), row.max());
+            }
+        }
+
+        log.info("Load test report ({}):", options.report());
+        log.info(String.format("%-16s %9s %7s %10s %9s %9s %9s %9s", "endpoint", "requests", "errors", "req/s",
+                "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        for (Row row : rows) {
+            log.info(String.format(Locale.ROOT, "%-16s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f",
+                    row.endpoint(), row.requests(), row.errors(), row.throughput(),
+                    row.p50(), row.p90(), row.p99(), row.max()));
+        }
+    }
+
+    static Map<String, Row> readReport(Path path) throws IOException {
+        Map<String, Row> rows = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(path)) {
+            if (line.isBlank() || line.startsWith("#") || line.equals(REPORT_HEADER)) {
+                continue;
+            }
+            String[] f = line.split(",");
+            rows.put(f[0], new Row(f[0], Long.parseLong(f[1]), Long.parseLong(f[2]), Double.parseDouble(f[3]),
+                    Double.parseDouble(f[4]), Double.parseDouble(f[5]), Double.parseDouble(f[6]),
+                    Double.parseDouble(f[7]), Double.parseDouble(f[8])));
+        }
+        return rows;
+    }
+
+    // true when no endpoint lost more than threshold of its throughput or gained more than threshold of p99
+    static boolean compare(Map<String, Row> baseline, List<Row> current, double threshold) {
+        boolean ok = true;
+        log.info("Compared with baseline (threshold {}%):", Math.round(threshold * 100));
+
+        for (Row row : current) {
+            Row base = baseline.get(row.endpoint());
+            if (base == null || base.requests() == 0) {
+                continue;
+            }
+
+            double throughputChange = row.throughput() / base.throughput() - 1;
+            double p99Change = row.p99() / base.p99() - 1;
+            boolean regressed = throughputChange < -threshold || p99Change > threshold;
+            ok &= !regressed;
+
+            log.info(String.format(Locale.ROOT, "%-16s req/s %+7.1f%%  p99 %+7.1f%%%s", row.endpoint(),
+                    throughputChange * 100, p99Change * 100, regressed ? "  REGRESSION" : ""));
+        }
+        return ok;
+    }
+
+    // CLIENT THREADS
+
+    // a virtual thread per client, so thousands of mostly waiting clients stay cheap
+    private record ClientExecutor(ExecutorService executor) implements AutoCloseable {
+
+        static ClientExecutor create() {
+            return new ClientExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        }
+
+        <T> Future<T> submit(Callable<T> task) {
+            return executor.submit(task);
+        }
+
+        @Override
+        public void close() {
+            executor.shutdownNow();
+        }
+    }
+}
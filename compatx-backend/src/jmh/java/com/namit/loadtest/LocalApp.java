@@ -0,0 +1,38 @@
+package com.namit.loadtest;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.namit.CompatXApplication;
+
+/**
+ * Starts CompatX for the load tools against a local database that survives
+ * the run: an H2 file under target/datagen unless a --spring.datasource.url
+ * argument points somewhere else (e.g. a local MySQL).
+ */
+final class LocalApp {
+
+    static final String DEFAULT_URL = "jdbc:h2:file:./target/datagen/compatx;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_ON_EXIT=FALSE";
+
+    private LocalApp() {
+    }
+
+    static ConfigurableApplicationContext start(String[] springArgs, String serverPort) {
+        // system properties outrank application.properties, --spring.* arguments outrank both
+        setDefault("spring.datasource.url", DEFAULT_URL);
+        setDefault("spring.jpa.hibernate.ddl-auto", "update");
+        setDefault("spring.jpa.show-sql", "false");
+        setDefault("server.port", serverPort);
+        setDefault("app.email.outbox.poll-ms", "3600000");
+        // a devtools restart would call main again without the tool's own options
+        setDefault("spring.devtools.restart.enabled", "false");
+
+        return new SpringApplicationBuilder(CompatXApplication.class).run(springArgs);
+    }
+
+    private static void setDefault(String key, String value) {
+        if (System.getProperty(key) == null) {
+            System.setProperty(key, value);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.namit.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.namit.events.ProductChangedEvent;
+import com.namit.events.ProductDeletedEvent;
+import com.namit.dtos.auth.CustomerProductDTO;
+import com.namit.mappers.CustomerProductMapper;
+import com.namit.models.Product;
+import com.namit.repositories.ProductRepository;
+
+/**
+ * Read-through cache of immutable product snapshots in front of
+ * ProductRepository.findById.
+ *
+ * Bounded by size (least recently used entry goes first) and by TTL. Writers
+ * refresh or evict entries; stock changes made inside a transaction evict after
+ * commit so a concurrent reader cannot re-cache the pre-commit row.
+ */
+@Component
+public class ProductCache {
+
+    private final ProductRepository productRepository;
+    private final int maxSize;
+    private final long ttlMs;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // bumped on every write so a slow loader never overwrites a newer invalidation
+    private long generation;
+
+    private final Map<Long, Entry> entries;
+
+    private record Entry(CustomerProductDTO product, long expiresAt) {
+    }
+
+    public record Stats(long hits, long misses, long evictions, int size) {
+    }
+
+    public ProductCache(ProductRepository productRepository,
+                        @Value("${app.product-cache.max-size:10000}") int maxSize,
+                        @Value("${app.product-cache.ttl-ms:300000}") long ttlMs) {
+        this.productRepository = productRepository;
+        this.maxSize = maxSize;
+        this.ttlMs = ttlMs;
+
+        // access-ordered so the eldest entry is the least recently used
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > ProductCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // READ THROUGH
+
+    public Optional<CustomerProductDTO> get(Long productId) {
+        long loadGeneration;
+
+        lock.lock();
+        try {
+            Entry entry = entries.get(productId);
+            if (entry != null) {
+                if (entry.expiresAt() > System.currentTimeMillis()) {
+                    hits.increment();
+                    return Optional.of(entry.product());
+                }
+                entries.remove(productId);
+                evictions.increment();
+            }
+            loadGeneration = generation;
+        } finally {
+            lock.unlock();
+        }
+
+        misses.increment();
+
+        // load outside the lock, only cache it if nothing was invalidated meanwhile
+        Optional<CustomerProductDTO> loaded = productRepository.findById(productId)
+                .map(CustomerProductMapper::toDTO);
+
+        loaded.ifPresent(dto -> {
+            lock.lock();
+            try {
+                if (generation == loadGeneration) {
+                    entries.put(productId, new Entry(dto, System.currentTimeMillis() + ttlMs));
+                }
+            } finally {
+                lock.unlock();
+            }
+        });
+
+        return loaded;
+    }
+
+    // WRITE PATH
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        refresh(event.product());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductDeleted(ProductDeletedEvent event) {
+        evict(event.productId());
+    }
+
+    // replace the cached snapshot with freshly saved state
+    public void refresh(Product product) {
+        CustomerProductDTO dto = CustomerProductMapper.toDTO(product);
+
+        lock.lock();
+        try {
+            generation++;
+            entries.put(product.getId(), new Entry(dto, System.currentTimeMillis() + ttlMs));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void evict(Long productId) {
+        lock.lock();
+        try {
+            generation++;
+            entries.remove(productId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // evicts now and again once the surrounding transaction commits
+    public void evictAfterCommit(Long productId) {
+        evict(productId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(productId);
+                }
+            });
+        }
+    }
+
+    public Stats stats() {
+        lock.lock();
+        try {
+            return new Stats(hits.sum(), misses.sum(), evictions.sum(), entries.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+}
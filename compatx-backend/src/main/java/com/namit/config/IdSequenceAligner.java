@@ -0,0 +1,74 @@
+package com.namit.config;
+
+import java.sql.Connection;
+import java.util.List;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves the pooled id sequences past ids already handed out by AUTO_INCREMENT.
+ *
+ * MySQL has no sequences, so Hibernate keeps each one in a single-row
+ * "<name>_seq" table that starts at 1. Databases created before the switch
+ * from IDENTITY already have rows, so on startup (after the schema update,
+ * before the web server takes traffic) each sequence is raised above
+ * MAX(id) + one allocation block. Other databases use real sequences and are
+ * created empty, nothing to do there.
+ */
+@Component
+@Slf4j
+public class IdSequenceAligner implements InitializingBean {
+
+    // keep allocationSize in sync with the @SequenceGenerator mappings
+    private static final int ALLOCATION_SIZE = 50;
+
+    private record Mapping(String sequence, String table, String idColumn) {
+    }
+
+    private static final List<Mapping> MAPPINGS = List.of(
+            new Mapping("product_seq", "product", "id"),
+            new Mapping("cart_seq", "cart", "cart_id"),
+            new Mapping("cart_item_seq", "cart_item", "cart_item_id"),
+            new Mapping("orders_seq", "orders", "order_id"),
+            new Mapping("order_item_seq", "order_items", "order_item_id"),
+            new Mapping("order_seller_seq", "order_sellers", "id"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // depending on the EntityManagerFactory makes this run after the schema update
+    public IdSequenceAligner(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        String database = jdbcTemplate.execute((Connection c) -> c.getMetaData().getDatabaseProductName());
+        if (database == null || !database.toLowerCase().contains("mysql")) {
+            return;
+        }
+
+        for (Mapping m : MAPPINGS) {
+            if (!tableExists(m.sequence()) || !tableExists(m.table())) {
+                log.warn("Id sequence {} not aligned, table missing", m.sequence());
+                continue;
+            }
+
+            jdbcTemplate.update(
+                    "UPDATE " + m.sequence() + " SET next_val = GREATEST(next_val, "
+                            + "(SELECT COALESCE(MAX(" + m.idColumn() + "), 0) + ? FROM " + m.table() + "))",
+                    ALLOCATION_SIZE + 1);
+        }
+    }
+
+    private boolean tableExists(String table) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = ?",
+                Integer.class, table);
+        return count != null && count > 0;
+    }
+}
@@ -0,0 +1,37 @@
+package com.namit.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * JDBC batching for the order and cart write paths.
+ *
+ * Only works for entities whose ids come from a pooled sequence (IDENTITY ids
+ * force Hibernate to insert row by row). Anything set explicitly under
+ * spring.jpa.properties wins over these defaults. On MySQL also add
+ * rewriteBatchedStatements=true to the JDBC url so a batch goes out as one
+ * multi-row INSERT.
+ *
+ * The read side gets batch fetching: when a page of orders touches
+ * order.orderItems, item.product or order.user, Hibernate initialises up to
+ * app.jpa.fetch-batch-size of the pending proxies/collections with one
+ * IN (...) query instead of one query per row (the N+1 QueryBudgetTest
+ * guards against).
+ */
+@Configuration
+public class JpaBatchConfig {
+
+    @Bean
+    HibernatePropertiesCustomizer jdbcBatchingCustomizer(@Value("${app.jpa.batch-size:50}") int batchSize,
+            @Value("${app.jpa.fetch-batch-size:64}") int fetchBatchSize) {
+        return properties -> {
+            properties.putIfAbsent("hibernate.jdbc.batch_size", batchSize);
+            properties.putIfAbsent("hibernate.default_batch_fetch_size", fetchBatchSize);
+            properties.putIfAbsent("hibernate.order_inserts", true);
+            properties.putIfAbsent("hibernate.order_updates", true);
+            properties.putIfAbsent("hibernate.jdbc.batch_versioned_data", true);
+        };
+    }
+}
@@ -0,0 +1,59 @@
+package com.namit.config;
+
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Logs which threads serve requests and @Async / @Scheduled work.
+ *
+ * spring.threads.virtual.enabled=true moves Tomcat, the applicationTaskExecutor
+ * behind @Async and the scheduler onto virtual threads. With virtual threads the Tomcat thread count no longer caps concurrency:
+ * the Hikari pool is what keeps MySQL from being overwhelmed (excess requests
+ * wait up to connection-timeout for a connection), so its size is logged too.
+ */
+@Component
+@Slf4j
+public class ThreadingModeReporter {
+
+    private final Environment environment;
+    private final DataSource dataSource;
+
+    public ThreadingModeReporter(Environment environment, DataSource dataSource) {
+        this.environment = environment;
+        this.dataSource = dataSource;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        log.info("Requests, @Async and @Scheduled on {} threads, JDBC pool {}",
+                isVirtual() ? "virtual" : "platform", describePool());
+    }
+
+    public boolean isVirtual() {
+        return Threading.VIRTUAL.isActive(environment);
+    }
+
+    // the pool may sit behind a proxy (statement counting in tests)
+    private String describePool() {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+                return hikari.getMaximumPoolSize() + " connections, " + hikari.getConnectionTimeout() + " ms wait";
+            }
+        } catch (SQLException e) {
+            log.debug("Could not unwrap the DataSource", e);
+        }
+        return dataSource.getClass().getSimpleName();
+    }
+}
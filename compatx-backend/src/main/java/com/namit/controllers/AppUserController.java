@@ -2,11 +2,14 @@ package com.namit.controllers;
 
 import org.springframework.http.ResponseEntity;
 
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.namit.dtos.auth.UpdateUserRoleRequest;
 import com.namit.models.AppUser;
 import com.namit.services.AppUserService;
 
@@ -29,4 +32,22 @@ public class AppUserController {
 		return userService.register(appUser);
 	}
 
+	// Change a user's role (Admin)
+	@PutMapping("/admin/users/{userId}/role")
+	public ResponseEntity<?> changeRole(@PathVariable Long userId, @Valid @RequestBody UpdateUserRoleRequest request) {
+		return userService.adminChangeRole(userId, request.getRole());
+	}
+
+	// Deactivate a user (Admin)
+	@PutMapping("/admin/users/{userId}/deactivate")
+	public ResponseEntity<?> deactivate(@PathVariable Long userId) {
+		return userService.adminSetActive(userId, false);
+	}
+
+	// Reactivate a user (Admin)
+	@PutMapping("/admin/users/{userId}/activate")
+	public ResponseEntity<?> activate(@PathVariable Long userId) {
+		return userService.adminSetActive(userId, true);
+	}
+
 }
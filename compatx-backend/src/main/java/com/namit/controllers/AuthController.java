@@ -19,10 +19,12 @@ import com.namit.security.jwt.JwtUtil;
 import com.namit.security.jwt.RefreshTokenService;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 @RestController
 @RequestMapping("/api/v1/auth")
 @RequiredArgsConstructor
+@Slf4j
 
 public class AuthController {
 
@@ -45,7 +47,7 @@ public class AuthController {
 
         // Generate ACCESS TOKEN
 
-        String accessToken = jwtUtil.generateToken(user.getUserName(), user.getRole().name());
+        String accessToken = jwtUtil.generateToken(user);
 
         // Generate REFRESH TOKEN with Remember Me support
         RefreshToken refreshToken = refreshTokenService.createRefreshToken(user, req.isRememberMe());
@@ -68,9 +70,7 @@ public class AuthController {
             refreshTokenService.verifyExpiration(refreshToken);
 
             // 3. Generate new access token
-            String newAccessToken = jwtUtil.generateToken(
-                    refreshToken.getUser().getUserName(),
-                    refreshToken.getUser().getRole().name());
+            String newAccessToken = jwtUtil.generateToken(refreshToken.getUser());
 
             return ResponseEntity.ok(
                     new AuthResponse(
@@ -97,8 +97,7 @@ public class AuthController {
 
         } catch (Exception e) {
             // Return 500 for actual server errors - frontend should NOT logout
-            System.err.println("Error refreshing token: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error refreshing token", e);
             return ResponseEntity.status(org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(java.util.Map.of(
                             "error", "Server error",
@@ -25,6 +25,8 @@ public class CustomerProductController {
 
 	
 	// Customer Search 
+	// passing cursor (empty for the first page) switches to keyset paging : nextCursor instead of totals
+	// facets=true adds brand / category / price range counts for the same filters
 	@GetMapping("/products/filter")
 	public ResponseEntity<?> customerFilterProducts(
 	        @RequestParam(required = false) String keyword,
@@ -35,22 +37,25 @@ public class CustomerProductController {
 	        @RequestParam(required = false) String sortField,
 	        @RequestParam(required = false) String sortDirection,
 	        @RequestParam(defaultValue = "0") Integer page,
-	        @RequestParam(defaultValue = "12") Integer size
+	        @RequestParam(defaultValue = "12") Integer size,
+	        @RequestParam(required = false) String cursor,
+	        @RequestParam(defaultValue = "false") boolean facets
 	) {
 	    return productService.customerFilterProducts(
 	            keyword, categoryId, brand,
 	            minPrice, maxPrice,
 	            sortField, sortDirection,
-	            page, size
+	            page, size, cursor, facets
 	    );
 	}
 
 	@GetMapping("/products")
     public ResponseEntity<?> customerGetAllProducts(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "12") int size
+            @RequestParam(defaultValue = "12") int size,
+            @RequestParam(required = false) String cursor
     ) {
-        return productService.customerGetAllProducts(page, size);
+        return productService.customerGetAllProducts(page, size, cursor);
     }
 	
 	
@@ -90,11 +90,43 @@ public class ProductController {
         return productService.adminDeleteProduct(adminId, productId);
     }
 
+    @PostMapping("/admin/products/{productId}/flash-sale")
+    public ResponseEntity<?> startFlashSale(
+            @AuthenticationPrincipal CustomUserDetails adminDetails,
+            @PathVariable Long productId,
+            @RequestParam(defaultValue = "0") int shards
+    ) {
+        if (adminDetails == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        Long adminId = adminDetails.getUserId();
+        return productService.adminStartFlashSale(adminId, productId, shards);
+    }
+
+    @DeleteMapping("/admin/products/{productId}/flash-sale")
+    public ResponseEntity<?> endFlashSale(
+            @AuthenticationPrincipal CustomUserDetails adminDetails,
+            @PathVariable Long productId
+    ) {
+        if (adminDetails == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        Long adminId = adminDetails.getUserId();
+        return productService.adminEndFlashSale(adminId, productId);
+    }
+
     @GetMapping("/admin/products/stats")
     public ResponseEntity<?> getProductStats() {
         return productService.getProductStats(); // global stats are allowed
     }
 
+    @GetMapping("/admin/products/cache-stats")
+    public ResponseEntity<?> getProductCacheStats() {
+        return productService.getProductCacheStats();
+    }
+
     @GetMapping("/admin/products/filter")
     public ResponseEntity<?> adminFilterProducts(
             @AuthenticationPrincipal CustomUserDetails adminDetails,
@@ -142,4 +174,23 @@ public class ProductController {
     public ResponseEntity<?> smartSearch(@RequestParam String keyword) {
         return productService.smartSearch(keyword);
     }
+
+    // best matches first (name, brand and description), paged like /products/filter
+    @GetMapping("/products/ranked-search")
+    public ResponseEntity<?> rankedSearch(
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "12") int size
+    ) {
+        return productService.rankedSearch(keyword, page, size);
+    }
+
+    // search box autocomplete, top names and brands for what has been typed so far
+    @GetMapping("/products/suggest")
+    public ResponseEntity<?> suggest(
+            @RequestParam String prefix,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return productService.suggest(prefix, limit);
+    }
 }
@@ -2,9 +2,12 @@ package com.namit.dtos.auth;
 
 import java.time.Instant;
 
-import lombok.Data;
+import lombok.Builder;
+import lombok.Value;
 
-@Data
+// immutable : instances are shared through the product cache
+@Value
+@Builder(toBuilder = true)
 public class CustomerProductDTO {
 	
 	private Long id;
@@ -0,0 +1,17 @@
+package com.namit.dtos.auth;
+
+import com.namit.enums.Role;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpdateUserRoleRequest {
+
+	@NotNull
+	private Role role;
+}
@@ -0,0 +1,8 @@
+package com.namit.enums;
+
+public enum EmailStatus {
+
+	PENDING,
+	SENT,
+	FAILED
+}
@@ -0,0 +1,11 @@
+package com.namit.events;
+
+import com.namit.models.Product;
+
+/**
+ * A product was created or updated. Published by ProductService after the
+ * save; the search indexes and the product cache pick up the saved state once
+ * the surrounding transaction commits (at once when there is none).
+ */
+public record ProductChangedEvent(Product product) {
+}
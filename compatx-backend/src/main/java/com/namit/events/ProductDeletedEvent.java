@@ -0,0 +1,8 @@
+package com.namit.events;
+
+/**
+ * A product was deleted. Published by ProductService; the search indexes and
+ * the product cache drop it once the surrounding transaction commits.
+ */
+public record ProductDeletedEvent(Long productId) {
+}
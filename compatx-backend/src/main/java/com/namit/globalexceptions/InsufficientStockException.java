@@ -0,0 +1,21 @@
+package com.namit.globalexceptions;
+
+import java.util.List;
+
+public class InsufficientStockException extends RuntimeException {
+    /**
+	 * 
+	 */
+	private static final long serialVersionUID = 1L;
+
+	private final List<Long> productIds;
+
+	public InsufficientStockException(String message, List<Long> productIds) {
+        super(message);
+        this.productIds = productIds;
+    }
+
+	public List<Long> getProductIds() {
+		return productIds;
+	}
+}
@@ -0,0 +1,261 @@
+package com.namit.inventory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.namit.cache.ProductCache;
+import com.namit.models.FlashSaleShard;
+import com.namit.models.Product;
+import com.namit.repositories.FlashSaleShardRepository;
+import com.namit.repositories.ProductRepository;
+import com.namit.search.ProductFilterIndex;
+import com.namit.search.ProductSearchIndex;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Opt-in flash-sale mode for hot products.
+ *
+ * While a product is on sale its stock lives in a ShardedStockCounter, so
+ * checkouts claim units with a CAS on one of N shards instead of all queuing
+ * on the same product row lock. Each claim is also added to one of N
+ * flash_sale_shards rows in the order's transaction, so sold units are as
+ * durable as the order. Every app.flash-sale.reconcile-ms those rows are
+ * folded into Product.stock, one UPDATE per product.
+ *
+ * The counter is only the admission check: it is seeded from the row minus
+ * the units not folded yet, so a restarted sale carries on where the last one
+ * stopped. It is in memory, so run a single instance while sales are active.
+ */
+@Component
+@Slf4j
+public class FlashSaleInventory {
+
+    public enum Claim { CLAIMED, SOLD_OUT, NOT_ON_SALE }
+
+    public record SaleStatus(Long productId, int shards, long available, long unreconciled) {
+    }
+
+    private final ProductRepository productRepository;
+    private final FlashSaleShardRepository flashSaleShardRepository;
+    private final ProductCache productCache;
+    private final ProductFilterIndex productFilterIndex;
+    private final ProductSearchIndex productSearchIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final List<Long> configuredProductIds;
+    private final int defaultShards;
+
+    private final Map<Long, ShardedStockCounter> active = new ConcurrentHashMap<>();
+
+    // serializes start / end / reconcile; a lock because they run JDBC (no virtual thread pinning)
+    private final ReentrantLock lifecycleLock = new ReentrantLock();
+
+    public FlashSaleInventory(ProductRepository productRepository,
+                              FlashSaleShardRepository flashSaleShardRepository,
+                              ProductCache productCache,
+                              ProductFilterIndex productFilterIndex,
+                              ProductSearchIndex productSearchIndex,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${app.flash-sale.product-ids:}") List<Long> configuredProductIds,
+                              @Value("${app.flash-sale.shards:0}") int shards) {
+        this.productRepository = productRepository;
+        this.flashSaleShardRepository = flashSaleShardRepository;
+        this.productCache = productCache;
+        this.productFilterIndex = productFilterIndex;
+        this.productSearchIndex = productSearchIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.configuredProductIds = configuredProductIds;
+        this.defaultShards = shards > 0 ? shards : Runtime.getRuntime().availableProcessors();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startConfiguredSales() {
+        // units sold before a crash or restart, including sales that are not configured any more
+        reconcile();
+
+        for (Long productId : configuredProductIds) {
+            if (start(productId, defaultShards).isEmpty()) {
+                log.warn("Flash sale not started, product {} not found", productId);
+            }
+        }
+    }
+
+    // SALE LIFECYCLE
+
+    public Optional<SaleStatus> start(Long productId, int shards) {
+        lifecycleLock.lock();
+        try {
+            if (active.containsKey(productId)) {
+                return status(productId);
+            }
+
+            fold(() -> flashSaleShardRepository.findUnreconciled(productId));
+            Product product = productRepository.findById(productId).orElse(null);
+            if (product == null) {
+                return Optional.empty();
+            }
+
+            // anything the fold could not take (it failed, or an order committed since) is still sold
+            long stock = Math.max(product.getStock() - flashSaleShardRepository.sumSold(productId), 0);
+            int shardCount = shards > 0 ? shards : defaultShards;
+            active.put(productId, new ShardedStockCounter(stock, shardCount));
+            log.info("Flash sale started for product {} with {} units over {} shards",
+                    productId, stock, shardCount);
+            return status(productId);
+        } finally {
+            lifecycleLock.unlock();
+        }
+    }
+
+    /**
+     * Stop claiming from the counter and fold what was sold into the row.
+     * Orders still in flight keep their flash_sale_shards writes, the next
+     * reconcile folds them (or their rollback removes them).
+     */
+    public boolean end(Long productId) {
+        lifecycleLock.lock();
+        try {
+            if (active.remove(productId) == null) {
+                return false;
+            }
+
+            fold(() -> flashSaleShardRepository.findUnreconciled(productId));
+            log.info("Flash sale ended for product {}", productId);
+            return true;
+        } finally {
+            lifecycleLock.unlock();
+        }
+    }
+
+    public boolean isOnSale(Long productId) {
+        return active.containsKey(productId);
+    }
+
+    // CHECKOUT PATH
+
+    /**
+     * Claim qty units and record them in the caller's transaction. If it
+     * rolls back both the record and the counter claim are undone, so callers
+     * only need to release explicitly on their own compensation paths.
+     */
+    public Claim claim(Long productId, int qty) {
+        ShardedStockCounter counter = active.get(productId);
+        if (counter == null) {
+            return Claim.NOT_ON_SALE;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Flash sale claims must run inside the order's transaction");
+        }
+        if (!counter.tryClaim(qty)) {
+            return Claim.SOLD_OUT;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    counter.release(qty);
+                }
+            }
+        });
+        flashSaleShardRepository.add(productId, shardFor(counter), qty);
+        return Claim.CLAIMED;
+    }
+
+    /**
+     * Give units back in the caller's transaction. Returns false when the
+     * product is not on sale, in which case the caller releases into the row
+     * as usual. The units only become claimable again after commit.
+     */
+    public boolean release(Long productId, int qty) {
+        ShardedStockCounter counter = active.get(productId);
+        if (counter == null) {
+            return false;
+        }
+
+        flashSaleShardRepository.add(productId, shardFor(counter), -qty);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                counter.release(qty);
+            }
+        });
+        return true;
+    }
+
+    public OptionalLong available(Long productId) {
+        ShardedStockCounter counter = active.get(productId);
+        return counter == null ? OptionalLong.empty() : OptionalLong.of(counter.available());
+    }
+
+    // RECONCILE
+
+    // folds every product's rows, not only active sales, so late commits after end() are kept
+    @Scheduled(fixedDelayString = "${app.flash-sale.reconcile-ms:1000}")
+    public void reconcile() {
+        lifecycleLock.lock();
+        try {
+            fold(flashSaleShardRepository::findUnreconciled);
+        } finally {
+            lifecycleLock.unlock();
+        }
+    }
+
+    public Optional<SaleStatus> status(Long productId) {
+        ShardedStockCounter counter = active.get(productId);
+        if (counter == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new SaleStatus(productId, counter.shardCount(),
+                counter.available(), flashSaleShardRepository.sumSold(productId)));
+    }
+
+    // one row per counter shard, spread the same way so claims rarely wait on each other
+    private static int shardFor(ShardedStockCounter counter) {
+        return ThreadLocalRandom.current().nextInt(counter.shardCount());
+    }
+
+    /*
+     * Moves the units in the locked rows into Product.stock with one relative
+     * UPDATE per product, so row-level writes made meanwhile are kept. Rows
+     * and products change in one transaction: a failure leaves both as they
+     * were for the next reconcile.
+     */
+    private void fold(Supplier<List<FlashSaleShard>> unreconciled) {
+        try {
+            Map<Long, Long> sold = transactionTemplate.execute(tx -> {
+                Map<Long, Long> totals = new TreeMap<>();
+                for (FlashSaleShard row : unreconciled.get()) {
+                    flashSaleShardRepository.add(row.getProductId(), row.getShard(), -row.getSold());
+                    totals.merge(row.getProductId(), row.getSold(), Long::sum);
+                }
+                totals.forEach((productId, units) -> productRepository.incrementStock(productId, (int) -units));
+                return totals;
+            });
+
+            sold.forEach((productId, units) -> {
+                productCache.evict(productId);
+                productFilterIndex.adjustStock(productId, (int) -units);
+                productSearchIndex.adjustStock(productId, (int) -units);
+            });
+        } catch (RuntimeException e) {
+            log.error("Flash sale reconcile failed, will retry", e);
+        }
+    }
+}
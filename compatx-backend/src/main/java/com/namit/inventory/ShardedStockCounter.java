@@ -0,0 +1,124 @@
+package com.namit.inventory;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Stock of one product split across N independently CAS-ed shards.
+ *
+ * A claim starts at a random shard and only touches the next one when the
+ * current shard runs dry, so concurrent claims rarely hit the same slot. Each
+ * shard sits on its own cache line to avoid false sharing. A claim larger than
+ * any single shard is gathered from several shards and put back if the total
+ * is not there.
+ */
+public class ShardedStockCounter {
+
+    // 8 longs = 64 bytes, one shard per cache line
+    private static final int STRIDE = 8;
+
+    private final int shardCount;
+    private final AtomicLongArray slots;
+
+    public ShardedStockCounter(long stock, int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("shardCount must be at least 1");
+        }
+        if (stock < 0) {
+            throw new IllegalArgumentException("stock must not be negative");
+        }
+
+        this.shardCount = shardCount;
+        this.slots = new AtomicLongArray(shardCount * STRIDE);
+
+        // spread evenly, the first (stock % shardCount) shards get one extra unit
+        for (int s = 0; s < shardCount; s++) {
+            slots.set(s * STRIDE, stock / shardCount + (s < stock % shardCount ? 1 : 0));
+        }
+    }
+
+    public boolean tryClaim(int qty) {
+        if (qty <= 0) {
+            throw new IllegalArgumentException("qty must be positive");
+        }
+
+        int start = ThreadLocalRandom.current().nextInt(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            if (tryTake((start + i) % shardCount, qty)) {
+                return true;
+            }
+        }
+
+        return gather(start, qty);
+    }
+
+    public void release(int qty) {
+        if (qty <= 0) {
+            throw new IllegalArgumentException("qty must be positive");
+        }
+        slots.getAndAdd(ThreadLocalRandom.current().nextInt(shardCount) * STRIDE, qty);
+    }
+
+    // sum of all shards; exact when no claim is in flight
+    public long available() {
+        long total = 0;
+        for (int s = 0; s < shardCount; s++) {
+            total += slots.get(s * STRIDE);
+        }
+        return total;
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    // HELPERS
+
+    private boolean tryTake(int shard, long qty) {
+        int slot = shard * STRIDE;
+        while (true) {
+            long current = slots.get(slot);
+            if (current < qty) {
+                return false;
+            }
+            if (slots.compareAndSet(slot, current, current - qty)) {
+                return true;
+            }
+        }
+    }
+
+    // take what each shard has until qty is covered, otherwise put it all back
+    private boolean gather(int start, long qty) {
+        long[] taken = new long[shardCount];
+        long remaining = qty;
+
+        for (int i = 0; i < shardCount && remaining > 0; i++) {
+            int shard = (start + i) % shardCount;
+            int slot = shard * STRIDE;
+
+            while (true) {
+                long current = slots.get(slot);
+                long take = Math.min(current, remaining);
+                if (take == 0) {
+                    break;
+                }
+                if (slots.compareAndSet(slot, current, current - take)) {
+                    taken[shard] = take;
+                    remaining -= take;
+                    break;
+                }
+            }
+        }
+
+        if (remaining == 0) {
+            return true;
+        }
+
+        for (int shard = 0; shard < shardCount; shard++) {
+            if (taken[shard] > 0) {
+                slots.getAndAdd(shard * STRIDE, taken[shard]);
+            }
+        }
+        return false;
+    }
+}
@@ -9,23 +9,22 @@ public class CustomerProductMapper {
 	
 	public static CustomerProductDTO toDTO(Product p) {
 		
-		CustomerProductDTO dto = new CustomerProductDTO();
-		
-		dto.setId(p.getId());
-        dto.setProductName(p.getProductName());
-        dto.setBrand(p.getBrand());
-        dto.setDescription(p.getDescription());
-        dto.setPrice(p.getPrice());
-        dto.setImageUrl(p.getImageUrl());
-        dto.setCreatedAt(p.getCreatedAt());
-        dto.setStock(p.getStock()); 
+		CustomerProductDTO.CustomerProductDTOBuilder dto = CustomerProductDTO.builder()
+				.id(p.getId())
+				.productName(p.getProductName())
+				.brand(p.getBrand())
+				.description(p.getDescription())
+				.price(p.getPrice())
+				.imageUrl(p.getImageUrl())
+				.createdAt(p.getCreatedAt())
+				.stock(p.getStock());
 		
         if (p.getCategory() != null) {
-            dto.setCategoryId(p.getCategory().getCategoryId());
-            dto.setCategoryName(p.getCategory().getCategoryName());
+            dto.categoryId(p.getCategory().getCategoryId());
+            dto.categoryName(p.getCategory().getCategoryName());
         }
 
-        return dto;
+        return dto.build();
         
         
 	}
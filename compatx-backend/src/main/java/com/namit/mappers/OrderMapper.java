@@ -0,0 +1,140 @@
+package com.namit.mappers;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.namit.dtos.order.AdminOrderResponseDTO;
+import com.namit.dtos.order.OrderItemResponseDTO;
+import com.namit.dtos.order.OrderResponseDTO;
+import com.namit.dtos.order.OrderSummaryDTO;
+import com.namit.dtos.order.ProductInOrderDTO;
+import com.namit.dtos.order.ShippingAddressDTO;
+import com.namit.dtos.order.UserInfoDTO;
+import com.namit.models.CartItem;
+import com.namit.models.Order;
+import com.namit.models.Product;
+
+public class OrderMapper {
+
+	public static OrderItemResponseDTO toPreviewItem(CartItem cartItem) {
+		Product product = cartItem.getProduct();
+		return OrderItemResponseDTO.builder()
+				.orderItemId(null) // No order item ID yet
+				.quantity(cartItem.getQuantity())
+				.priceAtOrder(cartItem.getPriceAtAdd()) // Using current price/add price
+				.subtotal(cartItem.getPriceAtAdd() * cartItem.getQuantity())
+				.product(ProductInOrderDTO.builder()
+						.productId(product.getId()) // Fixed: getId() instead of getProductId()
+						.productName(product.getProductName())
+						.imageUrl(product.getImageUrl())
+						.build())
+				.build();
+	}
+
+	public static OrderSummaryDTO toSummaryDTO(Order order) {
+
+		List<OrderItemResponseDTO> items = order.getOrderItems().stream()
+				.map(oi -> OrderItemResponseDTO.builder()
+						.orderItemId(oi.getOrderItemId())
+						.quantity(oi.getQuantity())
+						.priceAtOrder(oi.getPriceAtOrder())
+						.subtotal(oi.getSubtotal())
+						.product(ProductInOrderDTO.builder()
+								.productId(oi.getProduct().getId())
+								.productName(oi.getProduct().getProductName())
+								.imageUrl(oi.getProduct().getImageUrl())
+								.build())
+						.build())
+				.collect(Collectors.toList());
+
+		return OrderSummaryDTO.builder()
+				.orderId(order.getOrderId())
+				.status(order.getStatus())
+				.paymentMethod(order.getPaymentMethod())
+				.paymentStatus(order.getPaymentStatus())
+				.totalItems(order.getTotalItems())
+				.totalAmount(order.getTotalAmount())
+				.createdAt(order.getCreatedAt())
+				.updatedAt(order.getUpdatedAt())
+				.orderItems(items)
+				.build();
+	}
+
+	public static OrderResponseDTO toOrderResponse(Order order) {
+
+		List<OrderItemResponseDTO> items = order.getOrderItems().stream()
+				.map(oi -> OrderItemResponseDTO.builder()
+						.orderItemId(oi.getOrderItemId())
+						.quantity(oi.getQuantity())
+						.priceAtOrder(oi.getPriceAtOrder())
+						.subtotal(oi.getSubtotal())
+						.product(ProductInOrderDTO.builder()
+								.productId(oi.getProduct().getId())
+								.productName(oi.getProduct().getProductName())
+								.brand(oi.getProduct().getBrand())
+								.imageUrl(oi.getProduct().getImageUrl())
+								.build())
+						.build())
+				.collect(Collectors.toList());
+
+		return OrderResponseDTO.builder()
+				.orderId(order.getOrderId())
+				.status(order.getStatus())
+				.paymentMethod(order.getPaymentMethod())
+				.paymentStatus(order.getPaymentStatus())
+				.orderItems(items)
+				.subtotal(order.getSubtotal())
+				.taxAmount(order.getTaxAmount())
+				.shippingCharges(order.getShippingCharges())
+				.totalAmount(order.getTotalAmount())
+				.totalItems(order.getTotalItems())
+				.shippingAddress(ShippingAddressDTO.builder()
+						.fullName(order.getShippingFullName())
+						.address(order.getShippingAddress())
+						.city(order.getShippingCity())
+						.state(order.getShippingState())
+						.pincode(order.getShippingPincode())
+						.phone(order.getShippingPhone())
+						.landmark(order.getShippingLandmark())
+						.alternatePhone(order.getAlternatePhone())
+						.build())
+				.orderNotes(order.getOrderNotes())
+				.cancellationReason(order.getCancellationReason())
+				.transactionId(order.getTransactionId())
+				.createdAt(order.getCreatedAt())
+				.updatedAt(order.getUpdatedAt())
+				.confirmedAt(order.getConfirmedAt())
+				.shippedAt(order.getShippedAt())
+				.deliveredAt(order.getDeliveredAt())
+				.cancelledAt(order.getCancelledAt())
+				.build();
+	}
+
+	public static AdminOrderResponseDTO toAdminResponse(Order order) {
+
+		return AdminOrderResponseDTO.builder()
+				.orderId(order.getOrderId())
+				.user(UserInfoDTO.builder()
+						.userId(order.getUser().getUserId())
+						.userName(order.getUser().getEmail())
+						.email(order.getUser().getEmail())
+						.build())
+				.status(order.getStatus())
+				.paymentMethod(order.getPaymentMethod())
+				.paymentStatus(order.getPaymentStatus())
+				.totalItems(order.getTotalItems())
+				.totalAmount(order.getTotalAmount())
+				.shippingAddress(ShippingAddressDTO.builder()
+						.fullName(order.getShippingFullName())
+						.address(order.getShippingAddress())
+						.city(order.getShippingCity())
+						.state(order.getShippingState())
+						.pincode(order.getShippingPincode())
+						.phone(order.getShippingPhone())
+						.landmark(order.getShippingLandmark())
+						.alternatePhone(order.getAlternatePhone())
+						.build())
+				.createdAt(order.getCreatedAt())
+				.build();
+	}
+}
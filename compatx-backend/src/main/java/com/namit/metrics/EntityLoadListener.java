@@ -0,0 +1,41 @@
+package com.namit.metrics;
+
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Counts entities hydrated from JDBC results into the current
+ * RequestStatistics (session listeners have no entity load callback).
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityLoadListener implements PostLoadEventListener, InitializingBean {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void afterPropertiesSet() {
+        entityManagerFactory.unwrap(SessionFactoryImpl.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_LOAD, this);
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        RequestStatistics statistics = RequestStatistics.current();
+        if (statistics != null) {
+            statistics.entityLoaded();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.namit.metrics;
+
+import java.util.Set;
+
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+import com.namit.cache.ProductCache;
+import com.namit.security.jwt.JwtUtil;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+
+/**
+ * Metrics exposed on /actuator/prometheus.
+ *
+ * - http.server.requests: every controller endpoint (Spring Boot)
+ * - compatx.service: @Timed service methods, tagged class and method
+ * - hibernate.*: global Hibernate statistics (Spring Boot binds them once
+ *   generate_statistics is on) and hibernate.request.* per request
+ * - cache, payment provider and email counters
+ *
+ * Only the timers with latency SLOs (requests, payment provider calls)
+ * publish p50/p95/p99 and a Prometheus histogram, so percentiles can be
+ * aggregated across instances; every other meter keeps count, sum and max,
+ * which keeps the scrape small. The defaults in metrics.properties lose to
+ * anything in application.properties.
+ *
+ * The scrape is open to app.metrics.scrape-allowed-ips (addresses or CIDR
+ * ranges) and to admins, see SecurityConfig.
+ */
+@Configuration
+@PropertySource("classpath:metrics.properties")
+public class MetricsConfig {
+
+    private static final Set<String> SLO_TIMERS = Set.of(
+            "http.server.requests", "compatx.payment.provider.calls");
+
+    @Bean
+    TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    MeterFilter percentilesFilter() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!SLO_TIMERS.contains(id.getName())) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .percentiles(0.5, 0.95, 0.99)
+                        .percentilesHistogram(true)
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+
+    // statistics for the hibernate.* meters, per session counts for RequestStatistics
+    @Bean
+    HibernatePropertiesCustomizer statisticsCustomizer() {
+        return properties -> {
+            properties.putIfAbsent("hibernate.generate_statistics", true);
+            // otherwise every session logs its metrics at INFO
+            properties.putIfAbsent("hibernate.session.events.log", false);
+            properties.putIfAbsent("hibernate.session.events.auto", StatisticsSessionListener.class.getName());
+        };
+    }
+
+    @Bean
+    MeterBinder cacheMetrics(ProductCache productCache, JwtUtil jwtUtil) {
+        return registry -> {
+            FunctionCounter.builder("compatx.cache.requests", productCache, cache -> cache.stats().hits())
+                    .tags("cache", "product", "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("compatx.cache.requests", productCache, cache -> cache.stats().misses())
+                    .tags("cache", "product", "result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("compatx.cache.evictions", productCache, cache -> cache.stats().evictions())
+                    .tags("cache", "product")
+                    .register(registry);
+            Gauge.builder("compatx.cache.size", productCache, cache -> cache.stats().size())
+                    .tags("cache", "product")
+                    .register(registry);
+
+            FunctionCounter.builder("compatx.cache.requests", jwtUtil, JwtUtil::verifiedCacheHits)
+                    .tags("cache", "jwt", "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("compatx.cache.requests", jwtUtil, JwtUtil::verifiedCacheMisses)
+                    .tags("cache", "jwt", "result", "miss")
+                    .register(registry);
+            Gauge.builder("compatx.cache.size", jwtUtil, JwtUtil::verifiedCacheSize)
+                    .tags("cache", "jwt")
+                    .register(registry);
+        };
+    }
+}
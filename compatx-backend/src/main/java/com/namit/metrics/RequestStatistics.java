@@ -0,0 +1,94 @@
+package com.namit.metrics;
+
+/**
+ * Hibernate work done on behalf of the current request: JDBC statements and
+ * the time spent executing them, entity loads and connection acquisitions.
+ *
+ * RequestStatisticsFilter opens a scope on the request thread; the Hibernate
+ * listeners add to it while it is open and ignore work outside a request
+ * (schedulers, startup). Only the owning thread touches an instance.
+ */
+public final class RequestStatistics {
+
+    private static final ThreadLocal<RequestStatistics> CURRENT = new ThreadLocal<>();
+
+    private long statements;
+    private long batches;
+    private long sqlNanos;
+    private long entityLoads;
+    private long connectionAcquisitions;
+    private long connectionAcquisitionNanos;
+
+    private long executionStartedAt;
+    private long acquisitionStartedAt;
+
+    private RequestStatistics() {
+    }
+
+    static RequestStatistics begin() {
+        RequestStatistics statistics = new RequestStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    // null outside a request
+    static RequestStatistics current() {
+        return CURRENT.get();
+    }
+
+    // RECORDING (Hibernate listeners)
+
+    void statementStarted() {
+        statements++;
+        executionStartedAt = System.nanoTime();
+    }
+
+    void batchStarted() {
+        batches++;
+        executionStartedAt = System.nanoTime();
+    }
+
+    void executionEnded() {
+        sqlNanos += System.nanoTime() - executionStartedAt;
+    }
+
+    void entityLoaded() {
+        entityLoads++;
+    }
+
+    void connectionAcquisitionStarted() {
+        acquisitionStartedAt = System.nanoTime();
+    }
+
+    void connectionAcquired() {
+        connectionAcquisitions++;
+        connectionAcquisitionNanos += System.nanoTime() - acquisitionStartedAt;
+    }
+
+    // READING
+
+    // statements and batches both cost one database round trip
+    public long statements() {
+        return statements + batches;
+    }
+
+    public long sqlNanos() {
+        return sqlNanos;
+    }
+
+    public long entityLoads() {
+        return entityLoads;
+    }
+
+    public long connectionAcquisitions() {
+        return connectionAcquisitions;
+    }
+
+    public long connectionAcquisitionNanos() {
+        return connectionAcquisitionNanos;
+    }
+}
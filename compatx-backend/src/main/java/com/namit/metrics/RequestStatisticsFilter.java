@@ -0,0 +1,168 @@
+package com.namit.metrics;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Opens a RequestStatistics scope around each request (ahead of the security
+ * filters, so token and user lookups count) and records per-endpoint
+ * distributions of the JDBC statements, SQL time, entity loads and connection
+ * acquisitions it took, tagged like http.server.requests.
+ *
+ * The same numbers go back to the caller in a Server-Timing header, e.g.
+ *
+ *   Server-Timing: db;dur=3.214;desc="7 statements, 12 entities", conn;dur=0.120
+ *
+ * so browser dev tools, the load harness and tests (QueryBudget) can see the
+ * statement count of a single request. The header is written just before the
+ * response commits, so it covers everything up to serialising the body;
+ * turn it off with app.metrics.server-timing=false.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RequestStatisticsFilter extends OncePerRequestFilter {
+
+    static final String SERVER_TIMING = "Server-Timing";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean serverTiming;
+
+    public RequestStatisticsFilter(MeterRegistry meterRegistry,
+            @Value("${app.metrics.server-timing:true}") boolean serverTiming) {
+        this.meterRegistry = meterRegistry;
+        this.serverTiming = serverTiming;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestStatistics statistics = RequestStatistics.begin();
+        ServerTimingResponse timed = serverTiming ? new ServerTimingResponse(response, statistics) : null;
+        try {
+            chain.doFilter(request, timed != null ? timed : response);
+            if (timed != null) {
+                timed.writeHeader();
+            }
+        } finally {
+            RequestStatistics.end();
+            record(request, statistics);
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestStatistics statistics) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of("method", request.getMethod(), "uri", pattern == null ? "UNKNOWN" : pattern.toString());
+
+        DistributionSummary.builder("hibernate.request.statements")
+                .description("JDBC statements and batches executed per request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(statistics.statements());
+        Timer.builder("hibernate.request.sql.time")
+                .description("Time per request spent executing JDBC statements")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(statistics.sqlNanos(), TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("hibernate.request.entity.loads")
+                .description("Entities loaded per request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(statistics.entityLoads());
+        DistributionSummary.builder("hibernate.request.connection.acquisitions")
+                .description("JDBC connections acquired per request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(statistics.connectionAcquisitions());
+        Timer.builder("hibernate.request.connection.acquisition.time")
+                .description("Time per request spent waiting for JDBC connections")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(statistics.connectionAcquisitionNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    static String serverTiming(RequestStatistics statistics) {
+        return String.format(Locale.ROOT, "db;dur=%.3f;desc=\"%d statements, %d entities\", conn;dur=%.3f",
+                statistics.sqlNanos() / 1e6, statistics.statements(), statistics.entityLoads(),
+                statistics.connectionAcquisitionNanos() / 1e6);
+    }
+
+    // adds the header on the first call that can commit the response
+    private static final class ServerTimingResponse extends HttpServletResponseWrapper {
+
+        private final RequestStatistics statistics;
+        private boolean written;
+
+        ServerTimingResponse(HttpServletResponse response, RequestStatistics statistics) {
+            super(response);
+            this.statistics = statistics;
+        }
+
+        void writeHeader() {
+            if (!written && !isCommitted()) {
+                setHeader(SERVER_TIMING, serverTiming(statistics));
+            }
+            written = true;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeader();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.namit.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Added to every Hibernate session (hibernate.session.events.auto, see
+ * MetricsConfig) to count and time JDBC statements, batches and connection
+ * acquisitions into the current RequestStatistics. Lazy loads and other
+ * hidden queries go through the same callbacks, which is what makes N+1
+ * patterns visible per request.
+ */
+public class StatisticsSessionListener implements SessionEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        RequestStatistics statistics = RequestStatistics.current();
+        if (statistics != null) {
+            statistics.statementStarted();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestStatistics statistics = RequestStatistics.current();
+        if (statistics != null) {
+            statistics.executionEnded();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        RequestStatistics statistics = RequestStatistics.current();
+        if (statistics != null) {
+            statistics.batchStarted();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        RequestStatistics statistics = RequestStatistics.current();
+        if (statistics != null) {
+            statistics.executionEnded();
+        }
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionStart() {
+        RequestStatistics statistics = RequestStatistics.current();
+        if (statistics != null) {
+            statistics.connectionAcquisitionStarted();
+        }
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        RequestStatistics statistics = RequestStatistics.current();
+        if (statistics != null) {
+            statistics.connectionAcquired();
+        }
+    }
+}
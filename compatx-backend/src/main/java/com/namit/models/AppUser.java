@@ -1,6 +1,7 @@
 package com.namit.models;
 
 import java.time.Instant;
+import java.util.Objects;
 
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -17,13 +18,25 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 @Entity
 @Data
 @EntityListeners(AuditingEntityListener.class)
+@Table(indexes = {
+		// TokenRevocationList reloads users whose tokens were revoked recently
+		@Index(name = "idx_app_user_tokens_revoked_at", columnList = "tokens_revoked_at")
+})
 public class AppUser {
 
 	@Id
@@ -53,4 +66,42 @@ public class AppUser {
 	@CreatedDate
 	private Instant createdAt;
 
+	// carried by access tokens; bumped with every role or isActive change made through the app, which revokes older tokens
+	@JsonIgnore
+	@Column(nullable = false)
+	private Long tokenVersion = 0L;
+
+	@JsonIgnore
+	@Column(name = "tokens_revoked_at")
+	private Instant tokensRevokedAt;
+
+	// role and isActive as loaded or saved, to spot a change on update
+	@Transient
+	@JsonIgnore
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	private Role loadedRole;
+
+	@Transient
+	@JsonIgnore
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	private Boolean loadedIsActive;
+
+	@PostLoad
+	@PostPersist
+	void rememberLoadedAccess() {
+		loadedRole = role;
+		loadedIsActive = isActive;
+	}
+
+	@PreUpdate
+	void revokeTokensOnAccessChange() {
+		if (role != loadedRole || !Objects.equals(isActive, loadedIsActive)) {
+			tokenVersion++;
+			tokensRevokedAt = Instant.now();
+			rememberLoadedAccess();
+		}
+	}
+
 }
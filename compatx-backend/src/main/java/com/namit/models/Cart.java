@@ -19,6 +19,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import lombok.Data;
 
 
@@ -28,7 +29,8 @@ import lombok.Data;
 public class Cart {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_seq")
+	@SequenceGenerator(name = "cart_seq", sequenceName = "cart_seq", allocationSize = 50)
 	private Long cartId;
 	
 	
@@ -0,0 +1,78 @@
+package com.namit.models;
+
+import java.time.Instant;
+
+import com.namit.enums.EmailStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Email waiting to be sent. Written in the same transaction as the order or
+ * reset token it belongs to and delivered later by EmailOutboxDispatcher, so
+ * SMTP latency and failures never reach the request.
+ *
+ * A dispatcher claims rows (claimedBy, claimedUntil) before sending them, so
+ * instances never send the same email concurrently. A claim that is not
+ * resolved by claimedUntil, because its instance died, lapses and the row is
+ * picked up again.
+ */
+@Entity
+@Data
+@Table(name = "email_outbox", indexes = {
+		// dispatcher polls (status = PENDING, nextAttemptAt <= now) in id order
+		@Index(name = "idx_email_outbox_status_next_attempt", columnList = "status, next_attempt_at"),
+		// a dispatcher reloads its own claim to record the results
+		@Index(name = "idx_email_outbox_claimed_by", columnList = "claimed_by")
+})
+public class EmailOutbox {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "email_outbox_seq")
+	@SequenceGenerator(name = "email_outbox_seq", sequenceName = "email_outbox_seq", allocationSize = 50)
+	private Long id;
+
+	@Column(nullable = false)
+	private String recipient;
+
+	@Column(nullable = false)
+	private String subject;
+
+	@Lob
+	@Column(nullable = false)
+	private String body;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 16)
+	private EmailStatus status = EmailStatus.PENDING;
+
+	@Column(nullable = false)
+	private int attempts = 0;
+
+	@Column(name = "next_attempt_at", nullable = false)
+	private Instant nextAttemptAt;
+
+	@Column(length = 1000)
+	private String lastError;
+
+	@Column(name = "claimed_by", length = 36)
+	private String claimedBy;
+
+	@Column(name = "claimed_until")
+	private Instant claimedUntil;
+
+	@Column(nullable = false, updatable = false)
+	private Instant createdAt;
+
+	private Instant sentAt;
+}
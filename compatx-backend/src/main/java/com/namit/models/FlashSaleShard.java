@@ -0,0 +1,47 @@
+package com.namit.models;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Units sold in flash-sale mode and not yet subtracted from Product.stock,
+ * split over a few rows per product so concurrent checkouts rarely write the
+ * same one. Written in the order's transaction, folded into the product row by
+ * FlashSaleInventory's reconcile.
+ */
+@Entity
+@Data
+@IdClass(FlashSaleShard.Key.class)
+@Table(name = "flash_sale_shards")
+public class FlashSaleShard {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Id
+    @Column(name = "shard")
+    private Integer shard;
+
+    @Column(name = "sold", nullable = false)
+    private Long sold = 0L;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long productId;
+        private Integer shard;
+    }
+}
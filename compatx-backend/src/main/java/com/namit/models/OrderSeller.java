@@ -0,0 +1,57 @@
+package com.namit.models;
+
+import java.time.Instant;
+
+import com.namit.enums.OrderStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+
+/**
+ * Denormalized order -> seller link (one row per seller whose products are in
+ * the order). Status and createdAt are copied from the order so admin listing
+ * pages are an index range scan without joining order items.
+ */
+@Entity
+@Data
+@Table(name = "order_sellers",
+		uniqueConstraints = @UniqueConstraint(columnNames = { "order_id", "seller_id" }),
+		indexes = {
+				@Index(name = "idx_order_sellers_seller_status_created", columnList = "seller_id, status, created_at"),
+				@Index(name = "idx_order_sellers_seller_created", columnList = "seller_id, created_at")
+		})
+public class OrderSeller {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_seller_seq")
+	@SequenceGenerator(name = "order_seller_seq", sequenceName = "order_seller_seq", allocationSize = 50)
+	private Long id;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "order_id", nullable = false)
+	private Order order;
+
+	@Column(name = "seller_id", nullable = false)
+	private Long sellerId;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false)
+	private OrderStatus status;
+
+	@Column(name = "created_at")
+	private Instant createdAt;
+
+}
@@ -0,0 +1,57 @@
+package com.namit.models;
+
+import java.io.Serializable;
+
+import com.namit.enums.OrderStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Incrementally maintained order count and revenue per (seller, status).
+ * Row sellerId = 0 holds the totals across all orders. Row sellerId = -1 holds
+ * no data, the startup recount locks it so only one instance recounts at a time.
+ */
+@Entity
+@Data
+@IdClass(OrderStatusCounter.Key.class)
+@Table(name = "order_status_counters")
+public class OrderStatusCounter {
+
+    public static final Long ALL_SELLERS = 0L;
+    public static final Long RECOUNT_LOCK = -1L;
+
+    @Id
+    @Column(name = "seller_id")
+    private Long sellerId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private OrderStatus status;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount = 0L;
+
+    @Column(name = "revenue", nullable = false)
+    private Double revenue = 0.0;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long sellerId;
+        private OrderStatus status;
+    }
+}
@@ -16,8 +16,11 @@ import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -27,12 +30,17 @@ import lombok.Data;
 @Entity
 @Data
 @EntityListeners(AuditingEntityListener.class)
-
+@Table(indexes = {
+		// keyset paging seeks on (sortKey, id)
+		@Index(name = "idx_product_created_at_id", columnList = "created_at, id"),
+		@Index(name = "idx_product_price_id", columnList = "price, id")
+})
 public class Product {
 
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+	@SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
 	private Long Id;
 	
 	
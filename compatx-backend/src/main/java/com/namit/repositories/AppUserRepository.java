@@ -1,10 +1,16 @@
 package com.namit.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.namit.enums.Role;
 import com.namit.models.AppUser;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 
@@ -18,4 +24,20 @@ public interface AppUserRepository extends JpaRepository<AppUser, Long> {
 	
 	boolean existsByEmail(String email);
 
+	// [userId, tokenVersion] of users whose tokens were revoked after since
+	@Query("SELECT u.userId, u.tokenVersion FROM AppUser u WHERE u.tokensRevokedAt > :since")
+	List<Object[]> findTokenVersionsRevokedAfter(@Param("since") Instant since);
+
+	// ACCESS CHANGES: tokenVersion moves in the same UPDATE, so tokens carrying the old access are revoked with it
+
+	@Modifying
+	@Query("UPDATE AppUser u SET u.role = :role, u.tokenVersion = u.tokenVersion + 1, u.tokensRevokedAt = :now "
+			+ "WHERE u.userId = :userId AND (u.role IS NULL OR u.role <> :role)")
+	int changeRole(@Param("userId") Long userId, @Param("role") Role role, @Param("now") Instant now);
+
+	@Modifying
+	@Query("UPDATE AppUser u SET u.isActive = :active, u.tokenVersion = u.tokenVersion + 1, u.tokensRevokedAt = :now "
+			+ "WHERE u.userId = :userId AND u.isActive <> :active")
+	int changeActive(@Param("userId") Long userId, @Param("active") boolean active, @Param("now") Instant now);
+
 }
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -42,6 +43,13 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
 
 
     void deleteByCart_CartId(Long cartId);
+
+    
+    
+    // Bulk delete (one statement, no per-item load/delete)
+    @Modifying
+    @Query("DELETE FROM CartItem ci WHERE ci.cart.cartId = :cartId")
+    int deleteAllByCartId(@Param("cartId") Long cartId);
     
     
     
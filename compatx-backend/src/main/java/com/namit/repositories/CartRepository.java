@@ -21,6 +21,11 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
     @Query("SELECT c FROM Cart c LEFT JOIN FETCH c.items WHERE c.user.userId = :userId")
     Optional<Cart> findByUserIdWithItems(@Param("userId") Long userId);
     
+    // Checkout: items with their products, owners and categories in one query
+    @Query("SELECT c FROM Cart c LEFT JOIN FETCH c.items i LEFT JOIN FETCH i.product p " +
+           "LEFT JOIN FETCH p.user LEFT JOIN FETCH p.category WHERE c.user.userId = :userId")
+    Optional<Cart> findForCheckout(@Param("userId") Long userId);
+    
     // Delete cart by user ID
     void deleteByUser_UserId(Long userId);
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.namit.repositories;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.namit.enums.EmailStatus;
+import com.namit.models.EmailOutbox;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+	// oldest due emails nobody holds a live claim on, (status, next_attempt_at) index
+	@Query("SELECT e.id FROM EmailOutbox e WHERE e.status = com.namit.enums.EmailStatus.PENDING " +
+			"AND e.nextAttemptAt <= :now AND (e.claimedUntil IS NULL OR e.claimedUntil < :now) ORDER BY e.id")
+	List<Long> findDueIds(@Param("now") Instant now, Pageable pageable);
+
+	// Conditional claim : rows another dispatcher claimed since findDueIds are left alone
+	@Modifying
+	@Query("UPDATE EmailOutbox e SET e.claimedBy = :claim, e.claimedUntil = :until " +
+			"WHERE e.id IN :ids AND e.status = com.namit.enums.EmailStatus.PENDING " +
+			"AND (e.claimedUntil IS NULL OR e.claimedUntil < :now)")
+	int claim(
+			@Param("ids") List<Long> ids,
+			@Param("claim") String claim,
+			@Param("now") Instant now,
+			@Param("until") Instant until);
+
+	// rows still held by this claim, locked while the claim's results are written
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT e FROM EmailOutbox e WHERE e.claimedBy = :claim ORDER BY e.id")
+	List<EmailOutbox> findClaimed(@Param("claim") String claim);
+
+	long countByStatus(EmailStatus status);
+}
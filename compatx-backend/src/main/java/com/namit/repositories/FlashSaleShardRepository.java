@@ -0,0 +1,41 @@
+package com.namit.repositories;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.namit.models.FlashSaleShard;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface FlashSaleShardRepository extends JpaRepository<FlashSaleShard, FlashSaleShard.Key> {
+
+	// Atomic upsert : adds qty sold units (negative when given back) to one (product, shard) row
+	@Modifying
+	@Query(value = "INSERT INTO flash_sale_shards (product_id, shard, sold) VALUES (:productId, :shard, :qty) " +
+			"ON DUPLICATE KEY UPDATE sold = sold + :qty",
+			nativeQuery = true)
+	void add(
+			@Param("productId") Long productId,
+			@Param("shard") int shard,
+			@Param("qty") long qty);
+
+	// Reconcile : rows still holding units, locked until the product rows are updated
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT s FROM FlashSaleShard s WHERE s.sold <> 0 ORDER BY s.productId, s.shard")
+	List<FlashSaleShard> findUnreconciled();
+
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT s FROM FlashSaleShard s WHERE s.productId = :productId AND s.sold <> 0 ORDER BY s.shard")
+	List<FlashSaleShard> findUnreconciled(@Param("productId") Long productId);
+
+	@Query("SELECT COALESCE(SUM(s.sold), 0) FROM FlashSaleShard s WHERE s.productId = :productId")
+	long sumSold(@Param("productId") Long productId);
+
+}
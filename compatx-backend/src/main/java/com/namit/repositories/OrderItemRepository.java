@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.namit.enums.OrderStatus;
 import com.namit.models.OrderItem;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
@@ -26,5 +27,11 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
 			)
 			Integer getTotalQuantitySoldForProduct(@Param("productId") Long productId);
 
+		// [productId, units sold] over every order not in the given status (suggest popularity)
+		@Query(
+			    "SELECT oi.product.Id, SUM(oi.quantity) FROM OrderItem oi WHERE oi.order.status <> :excluded GROUP BY oi.product.Id"
+			)
+			List<Object[]> sumQuantitySoldByProduct(@Param("excluded") OrderStatus excluded);
+
 	
 }
@@ -37,45 +37,13 @@ public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecific
 
 	Long countByStatus(OrderStatus status);
 
-	// Admin-filtered queries (multi-tenant)
-	// Get orders containing products owned by specific admin
-
-	@Query("SELECT DISTINCT o FROM Order o " +
-			"JOIN o.orderItems oi " +
-			"JOIN oi.product p " +
-			"WHERE p.user.userId = :userId")
-	Page<Order> findOrdersForAdmin(@Param("userId") Long userId, Pageable pageable);
-
-	@Query("SELECT DISTINCT o FROM Order o " +
-			"JOIN o.orderItems oi " +
-			"JOIN oi.product p " +
-			"WHERE p.user.userId = :userId AND o.status = :status")
-	Page<Order> findOrdersForAdminByStatus(
-			@Param("userId") Long userId,
-			@Param("status") OrderStatus status,
-			Pageable pageable);
-
-	// Count queries for admin stats
-	@Query("SELECT COUNT(DISTINCT o) FROM Order o " +
-			"JOIN o.orderItems oi " +
-			"JOIN oi.product p " +
-			"WHERE p.user.userId = :userId")
-	Long countOrdersForAdmin(@Param("userId") Long userId);
-
-	@Query("SELECT COUNT(DISTINCT o) FROM Order o " +
-			"JOIN o.orderItems oi " +
-			"JOIN oi.product p " +
-			"WHERE p.user.userId = :userId AND o.status = :status")
-	Long countOrdersForAdminByStatus(
-			@Param("userId") Long userId,
-			@Param("status") OrderStatus status);
-
-	// Revenue calculation for admin
-	@Query("SELECT COALESCE(SUM(o.totalAmount), 0.0) FROM Order o " +
+	// Order seller link backfill : one row per distinct (order, seller) that has no link yet
+	@Query("SELECT DISTINCT o.orderId, p.user.userId, o.status, o.createdAt FROM Order o " +
 			"JOIN o.orderItems oi " +
 			"JOIN oi.product p " +
-			"WHERE p.user.userId = :userId AND o.status = 'DELIVERED'")
-	Double getTotalRevenueForAdmin(@Param("userId") Long userId);
+			"WHERE NOT EXISTS (SELECT 1 FROM OrderSeller os " +
+			"WHERE os.order = o AND os.sellerId = p.user.userId)")
+	List<Object[]> findMissingOrderSellerRows();
 
 	// Fetch and Search
 
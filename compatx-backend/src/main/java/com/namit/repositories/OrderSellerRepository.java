@@ -0,0 +1,40 @@
+package com.namit.repositories;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.namit.enums.OrderStatus;
+import com.namit.models.Order;
+import com.namit.models.OrderSeller;
+
+@Repository
+public interface OrderSellerRepository extends JpaRepository<OrderSeller, Long> {
+
+	// Admin order pages : (seller, status, createdAt) index range scan, no DISTINCT
+
+	@Query(value = "SELECT o FROM OrderSeller os JOIN os.order o WHERE os.sellerId = :sellerId",
+			countQuery = "SELECT COUNT(os) FROM OrderSeller os WHERE os.sellerId = :sellerId")
+	Page<Order> findOrdersBySeller(@Param("sellerId") Long sellerId, Pageable pageable);
+
+	@Query(value = "SELECT o FROM OrderSeller os JOIN os.order o " +
+			"WHERE os.sellerId = :sellerId AND os.status = :status",
+			countQuery = "SELECT COUNT(os) FROM OrderSeller os " +
+					"WHERE os.sellerId = :sellerId AND os.status = :status")
+	Page<Order> findOrdersBySellerAndStatus(
+			@Param("sellerId") Long sellerId,
+			@Param("status") OrderStatus status,
+			Pageable pageable);
+
+	boolean existsByOrder_OrderIdAndSellerId(Long orderId, Long sellerId);
+
+	// keep the denormalized status in step with the order
+	@Modifying
+	@Query("UPDATE OrderSeller os SET os.status = :status WHERE os.order.orderId = :orderId")
+	int updateStatus(@Param("orderId") Long orderId, @Param("status") OrderStatus status);
+
+}
@@ -0,0 +1,51 @@
+package com.namit.repositories;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.namit.models.OrderStatusCounter;
+
+@Repository
+public interface OrderStatusCounterRepository extends JpaRepository<OrderStatusCounter, OrderStatusCounter.Key> {
+
+	// Atomic upsert : adds delta orders / amount to one (seller, status) row
+	@Modifying
+	@Query(value = "INSERT INTO order_status_counters (seller_id, status, order_count, revenue) " +
+			"VALUES (:sellerId, :status, :delta, :amount) " +
+			"ON DUPLICATE KEY UPDATE order_count = order_count + :delta, revenue = revenue + :amount",
+			nativeQuery = true)
+	void increment(
+			@Param("sellerId") Long sellerId,
+			@Param("status") String status,
+			@Param("delta") long delta,
+			@Param("amount") double amount);
+
+	// Recount : [sellerId, status, orderCount, revenue] of what the orders add up to minus what
+	// the counters hold, per (seller, status). One statement, so both sides are read consistently
+	@Query(value = "SELECT d.seller_id, d.status, SUM(d.order_count), SUM(d.revenue) FROM ( " +
+			"SELECT 0 AS seller_id, o.status AS status, COUNT(*) AS order_count, SUM(o.total_amount) AS revenue " +
+			"FROM orders o GROUP BY o.status " +
+			"UNION ALL " +
+			"SELECT so.seller_id, so.status, COUNT(*), SUM(so.total_amount) FROM ( " +
+			"SELECT DISTINCT p.user_id AS seller_id, o.order_id, o.status, o.total_amount FROM orders o " +
+			"JOIN order_items oi ON oi.order_id = o.order_id " +
+			"JOIN product p ON p.id = oi.product_id) so " +
+			"GROUP BY so.seller_id, so.status " +
+			"UNION ALL " +
+			"SELECT c.seller_id, c.status, -c.order_count, -c.revenue FROM order_status_counters c " +
+			"WHERE c.seller_id >= 0 " +
+			") d GROUP BY d.seller_id, d.status",
+			nativeQuery = true)
+	List<Object[]> differenceFromOrders();
+
+	// One round trip : [status, orderCount, revenue] per status
+	@Query("SELECT c.status, SUM(c.orderCount), SUM(c.revenue) FROM OrderStatusCounter c " +
+			"WHERE c.sellerId = :sellerId GROUP BY c.status")
+	List<Object[]> aggregateBySeller(@Param("sellerId") Long sellerId);
+
+}
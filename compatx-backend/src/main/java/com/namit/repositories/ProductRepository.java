@@ -1,18 +1,21 @@
 
 package com.namit.repositories;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 
 import com.namit.models.Product;
+import com.namit.search.ProductIndexState;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> , JpaSpecificationExecutor<Product>{
@@ -71,9 +74,30 @@ public interface ProductRepository extends JpaRepository<Product, Long> , JpaSpe
 	 	@EntityGraph(attributePaths = {"category"})
 	 	Optional<Product> findById(Long id);
 
+	 	
+	 	
+	 	// STOCK : conditional single-row updates (no read-check-write race)
+	 	
+	 	@Modifying
+	 	@Query("UPDATE Product p SET p.stock = p.stock - :qty WHERE p.Id = :id AND p.stock >= :qty")
+	 	int decrementStock(@Param("id") Long id, @Param("qty") int qty);
+
+	 	@Modifying
+	 	@Query("UPDATE Product p SET p.stock = p.stock + :qty WHERE p.Id = :id")
+	 	int incrementStock(@Param("id") Long id, @Param("qty") int qty);
+
 	 	@EntityGraph(attributePaths = {"category"})
 	 	List<Product> findAll();
 
+	 	// on-disk search index verification and catch-up
+	 	@Query("SELECT new com.namit.search.ProductIndexState(COUNT(p), SUM(p.Id), MAX(p.updatedAt)) FROM Product p")
+	 	ProductIndexState indexState();
+
+	 	List<Product> findByUpdatedAtGreaterThanEqual(Instant since);
+
+	 	@Query("SELECT p.Id FROM Product p")
+	 	List<Long> findAllIds();
+
 	 	
 	 	
 	
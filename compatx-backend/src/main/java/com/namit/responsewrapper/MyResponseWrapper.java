@@ -2,29 +2,19 @@ package com.namit.responsewrapper;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.stereotype.Component;
 
-import lombok.Data;
+/**
+ * The { "message", "data" } body returned by the services.
+ *
+ * One immutable instance per response, so concurrent requests can never see
+ * each other's payload.
+ */
+public record MyResponseWrapper(String message, Object data) {
 
-@Component
-@Data
-public class MyResponseWrapper {
-	
-	private String message;
-	
-	private Object data;
-	
-	
-	public ResponseEntity<MyResponseWrapper> universalResponse( String message ,
-																Object data ,
-																HttpStatus httpStatus){
-		this.message = message;
-		this.data = data;
-		
-		return new ResponseEntity<>( this , httpStatus);
-		
+	public static ResponseEntity<MyResponseWrapper> universalResponse( String message ,
+																	Object data ,
+																	HttpStatus httpStatus){
+		return new ResponseEntity<>( new MyResponseWrapper(message, data) , httpStatus);
 	}
-	
-	
 
 }
@@ -0,0 +1,120 @@
+package com.namit.search;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Burkhard-Keller tree over a set of words, for "every word within n edits"
+ * lookups. Each child hangs off its parent at their Levenshtein distance, so
+ * by the triangle inequality a query only descends into the children whose
+ * distance is within n of the query's distance to the parent.
+ *
+ * Words cannot be removed; callers skip words that are no longer in use and
+ * build a new tree once too many of them pile up. Not thread safe.
+ */
+final class BkTree {
+
+    private Node root;
+    private int size;
+
+    private static final class Node {
+
+        private final String word;
+        private Map<Integer, Node> children;
+
+        private Node(String word) {
+            this.word = word;
+        }
+    }
+
+    public void add(String word) {
+        if (root == null) {
+            root = new Node(word);
+            size = 1;
+            return;
+        }
+
+        Node node = root;
+        while (true) {
+            int distance = distance(word, node.word);
+            if (distance == 0) {
+                return;
+            }
+
+            if (node.children == null) {
+                node.children = new HashMap<>(4);
+            }
+
+            Node child = node.children.get(distance);
+            if (child == null) {
+                node.children.put(distance, new Node(word));
+                size++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /** Calls found(word, distance) for every word at most maxEdits away from the query. */
+    public void within(String query, int maxEdits, ObjIntConsumer<String> found) {
+        if (root == null) {
+            return;
+        }
+
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            int distance = distance(query, node.word);
+            if (distance <= maxEdits) {
+                found.accept(node.word, distance);
+            }
+
+            if (node.children != null) {
+                for (int d = Math.max(1, distance - maxEdits); d <= distance + maxEdits; d++) {
+                    Node child = node.children.get(d);
+                    if (child != null) {
+                        pending.push(child);
+                    }
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Levenshtein distance, two rows
+    static int distance(String a, String b) {
+        if (a.length() < b.length()) {
+            String swap = a;
+            a = b;
+            b = swap;
+        }
+
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int substitute = previous[j - 1] + (ca == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitute, Math.min(previous[j], current[j - 1]) + 1);
+            }
+
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
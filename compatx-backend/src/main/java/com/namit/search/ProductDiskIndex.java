@@ -0,0 +1,476 @@
+package com.namit.search;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.store.AlreadyClosedException;
+import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.QueryBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.namit.events.ProductChangedEvent;
+import com.namit.events.ProductDeletedEvent;
+import com.namit.models.Product;
+import com.namit.repositories.ProductRepository;
+import com.namit.search.ProductFilterIndex.IdPage;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * On-disk Lucene index over product name, brand and description that serves
+ * ranked-search when app.search.disk-index.enabled is set (ProductRankIndex
+ * then stays empty).
+ *
+ * Segments live in app.search.disk-index.path and are read through an
+ * MMapDirectory, so opening at startup only maps the last commit instead of
+ * loading the catalog. Product writes go straight to the IndexWriter;
+ * a reopen thread makes them searchable within a second (near real time),
+ * merges run on Lucene's background merge threads, and changes are committed
+ * every app.search.disk-index.commit-ms and on shutdown.
+ *
+ * Every commit records the latest product updatedAt written, and the ids of
+ * products whose last write or delete failed. Failed ids are retried from the
+ * table before each commit and stay in the commit data until a retry goes
+ * through. Once the application is ready the index is checked against the
+ * products table: failed ids are retried, products updated since the
+ * high-water mark are re-indexed, and if the count or id sum still differ
+ * (deletes or raw inserts the index missed) the ids are reconciled one by one.
+ * An index without a commit is built from scratch.
+ */
+@Component
+@Slf4j
+public class ProductDiskIndex {
+
+    // updates and deletes by term, doc values for the tie break and the id sum
+    private static final String ID = "id";
+    private static final String ID_VALUE = "idValue";
+    private static final String NAME = "name";
+    private static final String BRAND = "brand";
+    private static final String DESCRIPTION = "description";
+
+    private static final String HIGH_WATER_MARK = "updatedAtHighWaterMark";
+    private static final String FAILED_IDS = "failedIds";
+
+    // best score first, ties by id
+    private static final Sort RELEVANCE = new Sort(SortField.FIELD_SCORE, new SortField(ID_VALUE, SortField.Type.LONG));
+
+    private static final double MAX_STALE_SEC = 1.0;
+    private static final double MIN_STALE_SEC = 0.025;
+
+    private final ProductRepository productRepository;
+    private final boolean enabled;
+    private final Path path;
+    private final Map<String, Float> boosts;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+
+    // latest updatedAt handed to the writer, stored with the next commit
+    private final AtomicReference<Instant> highWaterMark = new AtomicReference<>();
+
+    // products whose last index / remove failed; the mark may pass them, these ids are committed with it
+    private final Set<Long> failedIds = ConcurrentHashMap.newKeySet();
+    private Set<Long> committedFailedIds = Set.of();
+
+    private MMapDirectory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private ControlledRealTimeReopenThread<IndexSearcher> reopenThread;
+
+    public ProductDiskIndex(ProductRepository productRepository,
+                            @Value("${app.search.disk-index.enabled:false}") boolean enabled,
+                            @Value("${app.search.disk-index.path:data/search-index}") String path,
+                            @Value("${app.search.ranking.name-boost:3.0}") float nameBoost,
+                            @Value("${app.search.ranking.brand-boost:2.0}") float brandBoost,
+                            @Value("${app.search.ranking.description-boost:1.0}") float descriptionBoost) {
+        this.productRepository = productRepository;
+        this.enabled = enabled;
+        this.path = Path.of(path);
+        this.boosts = Map.of(NAME, nameBoost, BRAND, brandBoost, DESCRIPTION, descriptionBoost);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // LIFECYCLE
+
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        if (!enabled || writer != null) {
+            return;
+        }
+
+        Files.createDirectories(path);
+        directory = new MMapDirectory(path);
+
+        IndexWriterConfig config = new IndexWriterConfig(analyzer);
+        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        writer = new IndexWriter(directory, config);
+
+        highWaterMark.set(committedHighWaterMark());
+        committedFailedIds = committedFailedIds();
+        failedIds.addAll(committedFailedIds);
+        searcherManager = new SearcherManager(writer, null);
+        reopenThread = new ControlledRealTimeReopenThread<>(writer, searcherManager, MAX_STALE_SEC, MIN_STALE_SEC);
+        reopenThread.setName("product-index-reopen");
+        reopenThread.setDaemon(true);
+        reopenThread.start();
+
+        log.info("Product disk index opened at {} with {} products, high-water mark {}",
+                path.toAbsolutePath(), writer.getDocStats().numDocs, highWaterMark.get());
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (writer == null) {
+            return;
+        }
+
+        reopenThread.close();
+        commit();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+        writer = null;
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.disk-index.commit-ms:10000}")
+    public synchronized void commit() {
+        if (writer == null) {
+            return;
+        }
+
+        retryFailed();
+        Set<Long> failed = Set.copyOf(failedIds);
+        if (!writer.hasUncommittedChanges() && failed.equals(committedFailedIds)) {
+            return;
+        }
+
+        try {
+            Map<String, String> data = new HashMap<>();
+            Instant mark = highWaterMark.get();
+            if (mark != null) {
+                data.put(HIGH_WATER_MARK, mark.toString());
+            }
+            if (!failed.isEmpty()) {
+                data.put(FAILED_IDS, failed.stream().map(String::valueOf).collect(Collectors.joining(",")));
+            }
+            writer.setLiveCommitData(data.entrySet());
+            writer.commit();
+            committedFailedIds = failed;
+        } catch (IOException | AlreadyClosedException e) {
+            log.error("Product disk index commit failed", e);
+        }
+    }
+
+    // VERIFY / CATCH UP (products table is the source of truth)
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verify() throws IOException {
+        if (!enabled) {
+            return;
+        }
+
+        retryFailed();
+        ProductIndexState table = productRepository.indexState();
+        ProductIndexState index = state();
+        if (failedIds.isEmpty() && sameProducts(index, table) && !isAfter(table.updatedAt(), index.updatedAt())) {
+            log.info("Product disk index up to date with {} products", index.count());
+            return;
+        }
+
+        Instant since = highWaterMark.get();
+        if (since == null) {
+            writer.deleteAll();
+            productRepository.findAll().forEach(this::index);
+        } else {
+            productRepository.findByUpdatedAtGreaterThanEqual(since).forEach(this::index);
+        }
+
+        if (!sameProducts(state(), table)) {
+            reconcileIds();
+        }
+
+        commit();
+        log.info("Product disk index caught up: was {}, products table {}, now {}", index, table, state());
+    }
+
+    // WRITE PATH (product events after save / delete)
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        index(event.product());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductDeleted(ProductDeletedEvent event) {
+        remove(event.productId());
+    }
+
+    public void index(Product product) {
+        if (writer == null || product == null || product.getId() == null) {
+            return;
+        }
+
+        try {
+            writer.updateDocument(new Term(ID, product.getId().toString()), document(product));
+            failedIds.remove(product.getId());
+            if (product.getUpdatedAt() != null) {
+                highWaterMark.accumulateAndGet(product.getUpdatedAt(),
+                        (current, updated) -> current == null || updated.isAfter(current) ? updated : current);
+            }
+        } catch (IOException | AlreadyClosedException e) {
+            // retried before the next commit, see retryFailed
+            failedIds.add(product.getId());
+            log.error("Product disk index update failed for product {}", product.getId(), e);
+        }
+    }
+
+    public void remove(Long productId) {
+        if (writer == null) {
+            return;
+        }
+
+        try {
+            writer.deleteDocuments(new Term(ID, productId.toString()));
+            failedIds.remove(productId);
+        } catch (IOException | AlreadyClosedException e) {
+            failedIds.add(productId);
+            log.error("Product disk index delete failed for product {}", productId, e);
+        }
+    }
+
+    // makes every write so far searchable now instead of within MAX_STALE_SEC
+    public void refresh() throws IOException {
+        searcherManager.maybeRefreshBlocking();
+    }
+
+    // READ PATH
+
+    /**
+     * Same contract as ProductRankIndex.search: ids of products with at least
+     * one word of the keyword in name, brand or description, best BM25 score
+     * first and ties by id, and the total number of matches.
+     */
+    public IdPage search(String keyword, long offset, int limit) {
+        Query query = query(keyword);
+        if (query == null) {
+            return new IdPage(List.of(), 0);
+        }
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                int total = searcher.count(query);
+                if (offset >= total || limit <= 0) {
+                    return new IdPage(List.of(), total);
+                }
+
+                int wanted = (int) Math.min(total, offset + limit);
+                TopFieldDocs top = searcher.search(query, wanted, RELEVANCE);
+
+                List<Long> ids = new ArrayList<>();
+                ScoreDoc[] hits = top.scoreDocs;
+                for (int i = (int) offset; i < hits.length; i++) {
+                    ids.add((Long) ((FieldDoc) hits[i]).fields[1]);
+                }
+                return new IdPage(ids, total);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // HELPERS
+
+    private Query query(String keyword) {
+        if (keyword == null || keyword.isBlank()) {
+            return null;
+        }
+
+        QueryBuilder builder = new QueryBuilder(analyzer);
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        boolean any = false;
+        for (String field : List.of(NAME, BRAND, DESCRIPTION)) {
+            Query words = builder.createBooleanQuery(field, keyword);
+            if (words != null && boosts.get(field) > 0) {
+                query.add(new BoostQuery(words, boosts.get(field)), BooleanClause.Occur.SHOULD);
+                any = true;
+            }
+        }
+        return any ? query.build() : null;
+    }
+
+    private static Document document(Product product) {
+        Document document = new Document();
+        document.add(new StringField(ID, product.getId().toString(), Field.Store.NO));
+        document.add(new NumericDocValuesField(ID_VALUE, product.getId()));
+        document.add(new TextField(NAME, text(product.getProductName()), Field.Store.NO));
+        document.add(new TextField(BRAND, text(product.getBrand()), Field.Store.NO));
+        document.add(new TextField(DESCRIPTION, text(product.getDescription()), Field.Store.NO));
+        return document;
+    }
+
+    // count, id sum and high-water mark of what is searchable after a refresh
+    private ProductIndexState state() throws IOException {
+        refresh();
+
+        long count = 0;
+        long idSum = 0;
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            for (LeafReaderContext leaf : searcher.getIndexReader().leaves()) {
+                NumericDocValues ids = leaf.reader().getNumericDocValues(ID_VALUE);
+                Bits liveDocs = leaf.reader().getLiveDocs();
+                if (ids == null) {
+                    continue;
+                }
+                for (int doc = ids.nextDoc(); doc != NumericDocValues.NO_MORE_DOCS; doc = ids.nextDoc()) {
+                    if (liveDocs == null || liveDocs.get(doc)) {
+                        count++;
+                        idSum += ids.longValue();
+                    }
+                }
+            }
+        } finally {
+            searcherManager.release(searcher);
+        }
+
+        return new ProductIndexState(count, count == 0 ? null : idSum, highWaterMark.get());
+    }
+
+    // deletes what the table no longer has, indexes what the index never got
+    private void reconcileIds() throws IOException {
+        Set<Long> tableIds = new HashSet<>(productRepository.findAllIds());
+        Set<Long> indexIds = new HashSet<>();
+
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            for (LeafReaderContext leaf : searcher.getIndexReader().leaves()) {
+                NumericDocValues ids = leaf.reader().getNumericDocValues(ID_VALUE);
+                Bits liveDocs = leaf.reader().getLiveDocs();
+                if (ids == null) {
+                    continue;
+                }
+                for (int doc = ids.nextDoc(); doc != NumericDocValues.NO_MORE_DOCS; doc = ids.nextDoc()) {
+                    if (liveDocs == null || liveDocs.get(doc)) {
+                        indexIds.add(ids.longValue());
+                    }
+                }
+            }
+        } finally {
+            searcherManager.release(searcher);
+        }
+
+        for (Long id : indexIds) {
+            if (!tableIds.contains(id)) {
+                remove(id);
+            }
+        }
+
+        tableIds.removeAll(indexIds);
+        productRepository.findAllById(tableIds).forEach(this::index);
+        refresh();
+    }
+
+    // writes the current row of every failed id, or deletes it when the row is gone
+    private void retryFailed() {
+        if (failedIds.isEmpty()) {
+            return;
+        }
+
+        Set<Long> ids = new HashSet<>(failedIds);
+        try {
+            Map<Long, Product> rows = productRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Product::getId, product -> product));
+            for (Long id : ids) {
+                Product product = rows.get(id);
+                if (product == null) {
+                    remove(id);
+                } else {
+                    index(product);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Product disk index retry of {} failed products failed", ids.size(), e);
+        }
+    }
+
+    private Set<Long> committedFailedIds() {
+        for (Map.Entry<String, String> entry : writer.getLiveCommitData()) {
+            if (FAILED_IDS.equals(entry.getKey())) {
+                return Arrays.stream(entry.getValue().split(",")).map(Long::valueOf).collect(Collectors.toSet());
+            }
+        }
+        return Set.of();
+    }
+
+    private Instant committedHighWaterMark() {
+        for (Map.Entry<String, String> entry : writer.getLiveCommitData()) {
+            if (HIGH_WATER_MARK.equals(entry.getKey())) {
+                return Instant.parse(entry.getValue());
+            }
+        }
+        return null;
+    }
+
+    private static boolean sameProducts(ProductIndexState a, ProductIndexState b) {
+        return a.count().equals(b.count()) && Objects.equals(a.idSum(), b.idSum());
+    }
+
+    private static boolean isAfter(Instant a, Instant b) {
+        return a != null && (b == null || a.isAfter(b));
+    }
+
+    private static String text(String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -0,0 +1,26 @@
+package com.namit.search;
+
+import java.util.List;
+
+/**
+ * Facet counts for a customer product filter. Each facet is counted with every
+ * other filter applied but not its own, so the storefront can show how many
+ * products the alternatives would return.
+ */
+public record ProductFacets(
+        long total,
+        List<BrandCount> brands,
+        List<CategoryCount> categories,
+        List<PriceRangeCount> priceRanges
+) {
+
+    public record BrandCount(String brand, long count) {
+    }
+
+    public record CategoryCount(Long categoryId, String categoryName, long count) {
+    }
+
+    // min inclusive, max exclusive, null max = no upper bound
+    public record PriceRangeCount(double min, Double max, long count) {
+    }
+}
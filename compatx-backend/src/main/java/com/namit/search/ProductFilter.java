@@ -0,0 +1,26 @@
+package com.namit.search;
+
+/**
+ * The predicates customerFilterProducts and adminFilterProducts build with
+ * ProductSpecification, in the form ProductFilterIndex evaluates them. Null
+ * (or blank) fields are not applied, like the specifications.
+ *
+ * keyword: name OR brand contains, categoryId: exact, brand: contains,
+ * price and stock: inclusive ranges, ownerId: products of one admin.
+ */
+public record ProductFilter(
+        String keyword,
+        Long categoryId,
+        String brand,
+        Double minPrice,
+        Double maxPrice,
+        Integer minStock,
+        Integer maxStock,
+        Long ownerId
+) {
+
+    public static ProductFilter customer(String keyword, Long categoryId, String brand,
+                                         Double minPrice, Double maxPrice) {
+        return new ProductFilter(keyword, categoryId, brand, minPrice, maxPrice, null, null, null);
+    }
+}
@@ -0,0 +1,708 @@
+package com.namit.search;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntToDoubleFunction;
+
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.namit.events.ProductChangedEvent;
+import com.namit.events.ProductDeletedEvent;
+import com.namit.models.Category;
+import com.namit.models.Product;
+import com.namit.repositories.ProductRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Columnar in-memory copy of the catalog that evaluates the product filter
+ * APIs (ProductFilter) and their facet counts without scanning the table.
+ *
+ * Every product gets a dense ordinal. Brand, category, owner, price, stock and
+ * createdAt are kept in primitive columns indexed by ordinal; every brand,
+ * category and owner keeps a compressed bitmap of its ordinals, plus one
+ * bitmap of the products in stock. Price and stock ranges, and the result
+ * order, come from ordinal arrays sorted by (value, id) that are rebuilt
+ * lazily on the first read after a write. A filter is an AND / OR of bitmaps
+ * (keyword matches come from ProductSearchIndex) that yields an ordered page
+ * of ids; only that page is loaded from the database.
+ *
+ * Every product write re-indexes it (ProductChangedEvent) and the inventory
+ * paths report stock deltas once their transaction commits. The old ordinal
+ * of a re-indexed product is just cleared from the bitmaps; once dead
+ * ordinals outnumber live ones the columns are compacted.
+ */
+@Component
+@Slf4j
+public class ProductFilterIndex {
+
+    private static final int NO_VALUE = -1;
+    private static final int MIN_DEAD_BEFORE_COMPACT = 1024;
+
+    // below 1 / SORT_IN_PLACE_RATIO of the catalog, sort the matches instead of walking a sorted column
+    private static final int SORT_IN_PLACE_RATIO = 8;
+
+    private final ProductRepository productRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final double[] priceBuckets;
+    private final int maxBrands;
+    private final boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // COLUMNS (by ordinal, the first `size` slots are in use)
+    private long[] ids = new long[16];
+    private int[] brandColumn = new int[16];
+    private int[] categoryColumn = new int[16];
+    private long[] ownerColumn = new long[16];
+    private double[] priceColumn = new double[16];
+    private int[] stockColumn = new int[16];
+    private long[] createdColumn = new long[16];
+    private int size;
+
+    private final RoaringBitmap live = new RoaringBitmap();
+    private final RoaringBitmap inStock = new RoaringBitmap();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+
+    // DICTIONARIES (brands are grouped ignoring case and shown as first spelled)
+    private final Map<String, Integer> brandOrdinals = new HashMap<>();
+    private final List<String> brandLabels = new ArrayList<>();
+    private final List<RoaringBitmap> brandDocs = new ArrayList<>();
+
+    private final Map<Long, Integer> categoryOrdinals = new HashMap<>();
+    private final List<Category> categories = new ArrayList<>();
+    private final List<RoaringBitmap> categoryDocs = new ArrayList<>();
+
+    private final Map<Long, RoaringBitmap> ownerDocs = new HashMap<>();
+
+    // SORT ORDERS (live ordinals by value, ties by id)
+    private final SortedColumn byId = new SortedColumn(Comparator.comparingLong(o -> ids[o]));
+    private final SortedColumn byPrice = new SortedColumn(Comparator.comparingDouble(o -> priceColumn[o]));
+    private final SortedColumn byStock = new SortedColumn(Comparator.comparingInt(o -> stockColumn[o]));
+    private final SortedColumn byCreatedAt = new SortedColumn(Comparator.comparingLong(o -> createdColumn[o]));
+
+    private final Map<String, SortedColumn> sortable = Map.of(
+            "price", byPrice,
+            "stock", byStock,
+            "createdAt", byCreatedAt);
+
+    /** Ids of one page in filter order, and how many products matched in total. */
+    public record IdPage(List<Long> ids, long total) {
+    }
+
+    public ProductFilterIndex(ProductRepository productRepository,
+                              ProductSearchIndex productSearchIndex,
+                              @Value("${app.search.facets.price-buckets:0,1000,5000,10000,25000,50000,100000}") double[] priceBuckets,
+                              @Value("${app.search.facets.max-brands:20}") int maxBrands,
+                              @Value("${app.search.filter-index.enabled:true}") boolean enabled) {
+        this.productRepository = productRepository;
+        this.productSearchIndex = productSearchIndex;
+        this.priceBuckets = priceBuckets.clone();
+        this.maxBrands = maxBrands;
+        this.enabled = enabled;
+        Arrays.sort(this.priceBuckets);
+    }
+
+    // LOAD
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Product> all = productRepository.findAll();
+
+        lock.writeLock().lock();
+        try {
+            size = 0;
+            live.clear();
+            inStock.clear();
+            ordinals.clear();
+            brandOrdinals.clear();
+            brandLabels.clear();
+            brandDocs.clear();
+            categoryOrdinals.clear();
+            categories.clear();
+            categoryDocs.clear();
+            ownerDocs.clear();
+            for (Product product : all) {
+                add(product);
+            }
+            markSortOrdersStale();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Product filter index built with {} products", all.size());
+    }
+
+    // WRITE PATH (product events after save / delete, inventory after stock changes)
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        index(event.product());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductDeleted(ProductDeletedEvent event) {
+        remove(event.productId());
+    }
+
+    public void index(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(product.getId());
+            add(product);
+            markSortOrdersStale();
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(productId);
+            markSortOrdersStale();
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // mirrors a relative stock UPDATE, only once the surrounding transaction commits
+    public void adjustStockAfterCommit(Long productId, int delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            adjustStock(productId, delta);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                adjustStock(productId, delta);
+            }
+        });
+    }
+
+    public void adjustStock(Long productId, int delta) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(productId);
+            if (ordinal == null) {
+                return;
+            }
+
+            stockColumn[ordinal] += delta;
+            if (stockColumn[ordinal] > 0) {
+                inStock.add(ordinal);
+            } else {
+                inStock.remove(ordinal);
+            }
+            byStock.stale = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // READ PATH
+
+    // false sends the filter APIs back to the ProductSpecification queries
+    public boolean canServe(String sortField) {
+        return enabled && (sortField == null || sortField.isBlank() || sortable.containsKey(sortField));
+    }
+
+    /**
+     * One page of matching ids, ordered by sortField (price, stock, createdAt,
+     * or by id when blank) with ties broken by id in the same direction.
+     * Callers check canServe first.
+     */
+    public IdPage page(ProductFilter filter, String sortField, boolean descending, long offset, int limit) {
+        Set<Long> keywordIds = keywordIds(filter.keyword());
+
+        SortedColumn order = sortField == null || sortField.isBlank() ? byId : sortable.get(sortField);
+        if (order == null) {
+            throw new IllegalArgumentException("Unsupported sort field " + sortField);
+        }
+
+        lockForRead(order, filter.minPrice() != null || filter.maxPrice() != null ? byPrice : null,
+                filter.minStock() != null || filter.maxStock() != null ? byStock : null);
+        try {
+            RoaringBitmap matches = base(filter, keywordIds);
+            and(matches, inCategory(filter.categoryId()));
+            and(matches, ofBrand(filter.brand()));
+            and(matches, priceRange(filter.minPrice(), filter.maxPrice()));
+
+            long total = matches.getLongCardinality();
+            if (offset >= total || limit <= 0) {
+                return new IdPage(List.of(), total);
+            }
+
+            int wanted = (int) Math.min(limit, total - offset);
+            return new IdPage(ordered(matches, order, descending, offset, wanted), total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Facet counts for a filter. Keyword, owner and stock narrow everything;
+     * brand, category and price are each counted with the other filters
+     * applied but not their own.
+     */
+    public ProductFacets facets(ProductFilter filter) {
+        Set<Long> keywordIds = keywordIds(filter.keyword());
+
+        lockForRead(filter.minStock() != null || filter.maxStock() != null ? byStock : null);
+        try {
+            RoaringBitmap base = base(filter, keywordIds);
+            RoaringBitmap inCategory = inCategory(filter.categoryId());
+            RoaringBitmap ofBrand = ofBrand(filter.brand());
+            double min = filter.minPrice() == null ? Double.NEGATIVE_INFINITY : filter.minPrice();
+            double max = filter.maxPrice() == null ? Double.POSITIVE_INFINITY : filter.maxPrice();
+
+            long[] brandCounts = new long[brandLabels.size()];
+            for (int ordinal : and(base.clone(), inCategory)) {
+                if (inRange(priceColumn[ordinal], min, max)) {
+                    brandCounts[brandColumn[ordinal]]++;
+                }
+            }
+
+            long[] categoryCounts = new long[categories.size()];
+            for (int ordinal : and(base.clone(), ofBrand)) {
+                if (categoryColumn[ordinal] != NO_VALUE && inRange(priceColumn[ordinal], min, max)) {
+                    categoryCounts[categoryColumn[ordinal]]++;
+                }
+            }
+
+            long[] priceCounts = new long[priceBuckets.length];
+            long total = 0;
+            for (int ordinal : and(and(base, inCategory), ofBrand)) {
+                double price = priceColumn[ordinal];
+                int bucket = bucketOf(price);
+                if (bucket >= 0) {
+                    priceCounts[bucket]++;
+                }
+                if (inRange(price, min, max)) {
+                    total++;
+                }
+            }
+
+            return new ProductFacets(total, brandCounts(brandCounts), categoryCounts(categoryCounts),
+                    priceRangeCounts(priceCounts));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // HELPERS (callers hold the lock)
+
+    // resolved before taking our lock, the search index has its own
+    private Set<Long> keywordIds(String keyword) {
+        return keyword == null || keyword.isBlank() ? null : productSearchIndex.containing(keyword);
+    }
+
+    // read lock, after bringing the sort orders the caller needs up to date
+    private void lockForRead(SortedColumn... needed) {
+        lock.readLock().lock();
+        if (Arrays.stream(needed).noneMatch(column -> column != null && column.stale)) {
+            return;
+        }
+
+        lock.readLock().unlock();
+        lock.writeLock().lock();
+        try {
+            for (SortedColumn column : needed) {
+                if (column != null && column.stale) {
+                    column.rebuild();
+                }
+            }
+            // downgrade
+            lock.readLock().lock();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // live products matching keyword, owner and stock
+    private RoaringBitmap base(ProductFilter filter, Set<Long> keywordIds) {
+        RoaringBitmap base = live.clone();
+
+        if (keywordIds != null) {
+            RoaringBitmap matched = new RoaringBitmap();
+            for (Long id : keywordIds) {
+                Integer ordinal = ordinals.get(id);
+                if (ordinal != null) {
+                    matched.add(ordinal);
+                }
+            }
+            base.and(matched);
+        }
+
+        if (filter.ownerId() != null) {
+            base.and(ownerDocs.getOrDefault(filter.ownerId(), new RoaringBitmap()));
+        }
+
+        Integer minStock = filter.minStock();
+        Integer maxStock = filter.maxStock();
+        if (maxStock == null && minStock != null && minStock == 1) {
+            base.and(inStock);
+        } else if (minStock == null && maxStock != null && maxStock == 0) {
+            base.andNot(inStock);
+        } else if (minStock != null || maxStock != null) {
+            base.and(range(byStock, o -> stockColumn[o],
+                    minStock == null ? Double.NEGATIVE_INFINITY : minStock,
+                    maxStock == null ? Double.POSITIVE_INFINITY : maxStock));
+        }
+
+        return base;
+    }
+
+    private RoaringBitmap inCategory(Long categoryId) {
+        if (categoryId == null) {
+            return null;
+        }
+        Integer category = categoryOrdinals.get(categoryId);
+        return category == null ? new RoaringBitmap() : categoryDocs.get(category);
+    }
+
+    // union of every brand whose name contains the text, like brandContains
+    private RoaringBitmap ofBrand(String brand) {
+        if (brand == null || brand.isBlank()) {
+            return null;
+        }
+
+        String text = brand.toLowerCase();
+        RoaringBitmap union = new RoaringBitmap();
+        for (Map.Entry<String, Integer> entry : brandOrdinals.entrySet()) {
+            if (entry.getKey().contains(text)) {
+                union.or(brandDocs.get(entry.getValue()));
+            }
+        }
+        return union;
+    }
+
+    private RoaringBitmap priceRange(Double minPrice, Double maxPrice) {
+        if (minPrice == null && maxPrice == null) {
+            return null;
+        }
+        return range(byPrice, o -> priceColumn[o],
+                minPrice == null ? Double.NEGATIVE_INFINITY : minPrice,
+                maxPrice == null ? Double.POSITIVE_INFINITY : maxPrice);
+    }
+
+    // ordinals with min <= value <= max, two binary searches over the sorted column
+    private static RoaringBitmap range(SortedColumn column, IntToDoubleFunction value, double min, double max) {
+        int[] order = column.order;
+        int from = firstAtLeast(order, value, min, false);
+        int to = firstAtLeast(order, value, max, true);
+
+        RoaringBitmap range = new RoaringBitmap();
+        if (from < to) {
+            range.addN(order, from, to - from);
+        }
+        return range;
+    }
+
+    // first position whose value is >= bound (or > bound when exclusive)
+    private static int firstAtLeast(int[] order, IntToDoubleFunction value, double bound, boolean exclusive) {
+        int low = 0;
+        int high = order.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            double v = value.applyAsDouble(order[mid]);
+            if (v < bound || (exclusive && v == bound)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private List<Long> ordered(RoaringBitmap matches, SortedColumn order, boolean descending, long offset, int wanted) {
+        List<Long> page = new ArrayList<>(wanted);
+
+        // few matches: sort just those
+        if (matches.getLongCardinality() * SORT_IN_PLACE_RATIO < order.order.length) {
+            Integer[] candidates = new Integer[matches.getCardinality()];
+            IntIterator it = matches.getIntIterator();
+            for (int i = 0; it.hasNext(); i++) {
+                candidates[i] = it.next();
+            }
+            Arrays.sort(candidates, descending ? order.comparator.reversed() : order.comparator);
+
+            for (int i = (int) offset; i < offset + wanted; i++) {
+                page.add(ids[candidates[i]]);
+            }
+            return page;
+        }
+
+        // many matches: walk the presorted column, skipping non-matches
+        int[] sorted = order.order;
+        long skipped = 0;
+        for (int i = 0; i < sorted.length && page.size() < wanted; i++) {
+            int ordinal = sorted[descending ? sorted.length - 1 - i : i];
+            if (!matches.contains(ordinal)) {
+                continue;
+            }
+            if (skipped < offset) {
+                skipped++;
+                continue;
+            }
+            page.add(ids[ordinal]);
+        }
+        return page;
+    }
+
+    private static RoaringBitmap and(RoaringBitmap bitmap, RoaringBitmap filter) {
+        if (filter != null) {
+            bitmap.and(filter);
+        }
+        return bitmap;
+    }
+
+    private static boolean inRange(double price, double min, double max) {
+        return price >= min && price <= max;
+    }
+
+    // bucket i covers [priceBuckets[i], priceBuckets[i + 1]), the last one is open
+    private int bucketOf(double price) {
+        int found = Arrays.binarySearch(priceBuckets, price);
+        return found >= 0 ? found : -found - 2;
+    }
+
+    private List<ProductFacets.BrandCount> brandCounts(long[] counts) {
+        List<ProductFacets.BrandCount> result = new ArrayList<>();
+        for (int brand = 0; brand < counts.length; brand++) {
+            if (counts[brand] > 0) {
+                result.add(new ProductFacets.BrandCount(brandLabels.get(brand), counts[brand]));
+            }
+        }
+        result.sort(Comparator.comparingLong(ProductFacets.BrandCount::count).reversed()
+                .thenComparing(ProductFacets.BrandCount::brand));
+        return result.size() > maxBrands ? List.copyOf(result.subList(0, maxBrands)) : result;
+    }
+
+    private List<ProductFacets.CategoryCount> categoryCounts(long[] counts) {
+        List<ProductFacets.CategoryCount> result = new ArrayList<>();
+        for (int category = 0; category < counts.length; category++) {
+            if (counts[category] > 0) {
+                Category value = categories.get(category);
+                result.add(new ProductFacets.CategoryCount(value.getCategoryId(), value.getCategoryName(),
+                        counts[category]));
+            }
+        }
+        result.sort(Comparator.comparingLong(ProductFacets.CategoryCount::count).reversed()
+                .thenComparing(ProductFacets.CategoryCount::categoryId));
+        return result;
+    }
+
+    private List<ProductFacets.PriceRangeCount> priceRangeCounts(long[] counts) {
+        List<ProductFacets.PriceRangeCount> result = new ArrayList<>(counts.length);
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            Double upper = bucket + 1 < priceBuckets.length ? priceBuckets[bucket + 1] : null;
+            result.add(new ProductFacets.PriceRangeCount(priceBuckets[bucket], upper, counts[bucket]));
+        }
+        return result;
+    }
+
+    private void add(Product product) {
+        if (size == ids.length) {
+            grow(size * 2);
+        }
+
+        int ordinal = size++;
+        int brand = brandOrdinal(product.getBrand());
+        int category = categoryOrdinal(product.getCategory());
+        long owner = product.getUser() == null || product.getUser().getUserId() == null
+                ? NO_VALUE
+                : product.getUser().getUserId();
+        int stock = product.getStock() == null ? 0 : product.getStock();
+
+        ids[ordinal] = product.getId();
+        brandColumn[ordinal] = brand;
+        categoryColumn[ordinal] = category;
+        ownerColumn[ordinal] = owner;
+        priceColumn[ordinal] = product.getPrice() == null ? 0 : product.getPrice();
+        stockColumn[ordinal] = stock;
+        createdColumn[ordinal] = micros(product.getCreatedAt());
+
+        live.add(ordinal);
+        ordinals.put(product.getId(), ordinal);
+        if (stock > 0) {
+            inStock.add(ordinal);
+        }
+        addToDocs(ordinal);
+    }
+
+    private void addToDocs(int ordinal) {
+        brandDocs.get(brandColumn[ordinal]).add(ordinal);
+        if (categoryColumn[ordinal] != NO_VALUE) {
+            categoryDocs.get(categoryColumn[ordinal]).add(ordinal);
+        }
+        if (ownerColumn[ordinal] != NO_VALUE) {
+            ownerDocs.computeIfAbsent(ownerColumn[ordinal], o -> new RoaringBitmap()).add(ordinal);
+        }
+    }
+
+    private void removeInternal(Long productId) {
+        Integer ordinal = ordinals.remove(productId);
+        if (ordinal == null) {
+            return;
+        }
+
+        live.remove(ordinal);
+        inStock.remove(ordinal);
+        brandDocs.get(brandColumn[ordinal]).remove(ordinal);
+        if (categoryColumn[ordinal] != NO_VALUE) {
+            categoryDocs.get(categoryColumn[ordinal]).remove(ordinal);
+        }
+        if (ownerColumn[ordinal] != NO_VALUE) {
+            ownerDocs.get(ownerColumn[ordinal]).remove(ordinal);
+        }
+    }
+
+    private void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        brandColumn = Arrays.copyOf(brandColumn, capacity);
+        categoryColumn = Arrays.copyOf(categoryColumn, capacity);
+        ownerColumn = Arrays.copyOf(ownerColumn, capacity);
+        priceColumn = Arrays.copyOf(priceColumn, capacity);
+        stockColumn = Arrays.copyOf(stockColumn, capacity);
+        createdColumn = Arrays.copyOf(createdColumn, capacity);
+    }
+
+    private int brandOrdinal(String brand) {
+        String label = brand == null ? "" : brand;
+        return brandOrdinals.computeIfAbsent(label.toLowerCase(), key -> {
+            brandLabels.add(label);
+            brandDocs.add(new RoaringBitmap());
+            return brandLabels.size() - 1;
+        });
+    }
+
+    private int categoryOrdinal(Category category) {
+        if (category == null || category.getCategoryId() == null) {
+            return NO_VALUE;
+        }
+
+        Integer existing = categoryOrdinals.get(category.getCategoryId());
+        if (existing != null) {
+            // keep the latest name for renamed categories
+            categories.set(existing, category);
+            return existing;
+        }
+
+        categories.add(category);
+        categoryDocs.add(new RoaringBitmap());
+        categoryOrdinals.put(category.getCategoryId(), categories.size() - 1);
+        return categories.size() - 1;
+    }
+
+    private static long micros(Instant instant) {
+        return instant == null ? Long.MIN_VALUE : instant.getEpochSecond() * 1_000_000 + instant.getNano() / 1_000;
+    }
+
+    private void markSortOrdersStale() {
+        byId.stale = true;
+        byPrice.stale = true;
+        byStock.stale = true;
+        byCreatedAt.stale = true;
+    }
+
+    // renumbers live products 0..n-1 in place (live ordinals only move down), dictionaries are kept
+    private void compactIfSparse() {
+        int alive = live.getCardinality();
+        if (size - alive <= Math.max(MIN_DEAD_BEFORE_COMPACT, alive)) {
+            return;
+        }
+
+        brandDocs.forEach(RoaringBitmap::clear);
+        categoryDocs.forEach(RoaringBitmap::clear);
+        ownerDocs.clear();
+        ordinals.clear();
+
+        RoaringBitmap stocked = new RoaringBitmap();
+        int next = 0;
+        for (int ordinal : live) {
+            ids[next] = ids[ordinal];
+            brandColumn[next] = brandColumn[ordinal];
+            categoryColumn[next] = categoryColumn[ordinal];
+            ownerColumn[next] = ownerColumn[ordinal];
+            priceColumn[next] = priceColumn[ordinal];
+            stockColumn[next] = stockColumn[ordinal];
+            createdColumn[next] = createdColumn[ordinal];
+
+            ordinals.put(ids[next], next);
+            if (stockColumn[next] > 0) {
+                stocked.add(next);
+            }
+            addToDocs(next);
+            next++;
+        }
+
+        size = next;
+        grow(Math.max(16, next));
+        live.clear();
+        live.add(0L, (long) next);
+        inStock.clear();
+        inStock.or(stocked);
+        markSortOrdersStale();
+    }
+
+    private final class SortedColumn {
+
+        private final Comparator<Integer> comparator;
+        private int[] order = new int[0];
+        private boolean stale = true;
+
+        private SortedColumn(Comparator<Integer> byValue) {
+            this.comparator = byValue.thenComparingLong(o -> ids[o]);
+        }
+
+        // caller holds the write lock
+        private void rebuild() {
+            Integer[] boxed = new Integer[live.getCardinality()];
+            IntIterator it = live.getIntIterator();
+            for (int i = 0; it.hasNext(); i++) {
+                boxed[i] = it.next();
+            }
+            Arrays.sort(boxed, comparator);
+
+            int[] sorted = new int[boxed.length];
+            for (int i = 0; i < boxed.length; i++) {
+                sorted[i] = boxed[i];
+            }
+            order = sorted;
+            stale = false;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.namit.search;
+
+import java.time.Instant;
+
+/**
+ * What ProductDiskIndex compares against the products table: how many
+ * products there are, the sum of their ids (changes when a product is added
+ * or removed without the count moving) and the latest updatedAt seen. Sum and
+ * updatedAt are null for an empty table or index.
+ */
+public record ProductIndexState(Long count, Long idSum, Instant updatedAt) {
+}
@@ -0,0 +1,542 @@
+package com.namit.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.namit.events.ProductChangedEvent;
+import com.namit.events.ProductDeletedEvent;
+import com.namit.models.Product;
+import com.namit.repositories.ProductRepository;
+import com.namit.search.ProductFilterIndex.IdPage;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory BM25 index over product name, brand and description.
+ *
+ * Every product gets a dense ordinal and every distinct word a term id. Each
+ * field keeps, per term, a posting list of ordinals (ascending) and term
+ * frequencies in growable int arrays, plus the token count of every ordinal.
+ * A query walks the posting lists of its words in ordinal order (document at
+ * a time), sums boost * idf * saturated tf over the fields, and keeps only
+ * the best offset + limit products in a bounded heap, so matches are never
+ * sorted as a whole. Only the requested page is loaded from the database.
+ *
+ * Every product write re-indexes it (ProductChangedEvent). The old ordinal is
+ * only cleared from the live bitmap and the term statistics; its postings are
+ * skipped until dead ordinals outnumber live ones and the index is compacted.
+ *
+ * With app.search.disk-index.enabled, ProductDiskIndex serves ranked-search
+ * instead and this index is never loaded or written.
+ */
+@Component
+@Slf4j
+public class ProductRankIndex {
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MIN_DEAD_BEFORE_COMPACT = 1024;
+
+    // BM25 term frequency saturation and document length normalisation
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final ProductRepository productRepository;
+    private final boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // name, brand, description
+    private final Field[] fields;
+
+    // word -> term id, shared by the fields
+    private final Map<String, Integer> termIds = new HashMap<>();
+
+    // DOCUMENTS (by ordinal, the first `size` slots are in use)
+    private long[] ids = new long[16];
+    private int size;
+    private final RoaringBitmap live = new RoaringBitmap();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+
+    public ProductRankIndex(ProductRepository productRepository,
+                            @Value("${app.search.ranking.name-boost:3.0}") double nameBoost,
+                            @Value("${app.search.ranking.brand-boost:2.0}") double brandBoost,
+                            @Value("${app.search.ranking.description-boost:1.0}") double descriptionBoost,
+                            @Value("${app.search.disk-index.enabled:false}") boolean diskIndexEnabled) {
+        this.productRepository = productRepository;
+        this.enabled = !diskIndexEnabled;
+        this.fields = new Field[] { new Field(nameBoost), new Field(brandBoost), new Field(descriptionBoost) };
+    }
+
+    // LOAD
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        List<Product> all = productRepository.findAll();
+
+        lock.writeLock().lock();
+        try {
+            size = 0;
+            live.clear();
+            ordinals.clear();
+            termIds.clear();
+            for (Field field : fields) {
+                field.clear();
+            }
+            for (Product product : all) {
+                add(product);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Product rank index built with {} products and {} terms", all.size(), termIds.size());
+    }
+
+    // WRITE PATH (product events after save / delete)
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        index(event.product());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductDeleted(ProductDeletedEvent event) {
+        remove(event.productId());
+    }
+
+    public void index(Product product) {
+        if (!enabled || product == null || product.getId() == null) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(product.getId());
+            add(product);
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        if (!enabled) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(productId);
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // READ PATH
+
+    /**
+     * One page of the ids of products with at least one word of the keyword
+     * in their name, brand or description, best BM25 score first and ties by
+     * id, and how many products matched in total.
+     */
+    public IdPage search(String keyword, long offset, int limit) {
+        Set<String> words = new LinkedHashSet<>();
+        collectWords(keyword == null ? "" : keyword.toLowerCase(), words);
+
+        lock.readLock().lock();
+        try {
+            int documents = live.getCardinality();
+            List<Cursor> cursors = new ArrayList<>();
+            for (String word : words) {
+                Integer termId = termIds.get(word);
+                if (termId == null) {
+                    continue;
+                }
+                for (Field field : fields) {
+                    Cursor cursor = field.cursor(termId, documents);
+                    if (cursor != null) {
+                        cursors.add(cursor);
+                    }
+                }
+            }
+
+            if (cursors.isEmpty()) {
+                return new IdPage(List.of(), 0);
+            }
+
+            TopK top = new TopK((int) Math.min(documents, Math.max(0, Math.min(Integer.MAX_VALUE, offset + limit))));
+            long total = 0;
+
+            while (true) {
+                int ordinal = Integer.MAX_VALUE;
+                for (Cursor cursor : cursors) {
+                    if (cursor.position < cursor.count) {
+                        ordinal = Math.min(ordinal, cursor.docs[cursor.position]);
+                    }
+                }
+                if (ordinal == Integer.MAX_VALUE) {
+                    break;
+                }
+
+                double score = 0;
+                for (Cursor cursor : cursors) {
+                    if (cursor.position < cursor.count && cursor.docs[cursor.position] == ordinal) {
+                        score += cursor.score(ordinal);
+                        cursor.position++;
+                    }
+                }
+
+                if (live.contains(ordinal)) {
+                    total++;
+                    top.offer(score, ordinal);
+                }
+            }
+
+            return new IdPage(top.drain(offset), total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // HELPERS (callers hold the lock)
+
+    private void add(Product product) {
+        if (size == ids.length) {
+            grow(size * 2);
+        }
+
+        int ordinal = size++;
+        ids[ordinal] = product.getId();
+        live.add(ordinal);
+        ordinals.put(product.getId(), ordinal);
+
+        String[] texts = { product.getProductName(), product.getBrand(), product.getDescription() };
+        for (int f = 0; f < fields.length; f++) {
+            Map<Integer, Integer> frequencies = new HashMap<>();
+            int length = 0;
+            if (texts[f] != null) {
+                for (String word : WORD_SEPARATOR.split(texts[f].toLowerCase())) {
+                    if (!word.isEmpty()) {
+                        frequencies.merge(termIds.computeIfAbsent(word, w -> termIds.size()), 1, Integer::sum);
+                        length++;
+                    }
+                }
+            }
+            fields[f].add(ordinal, length, frequencies);
+        }
+    }
+
+    private void removeInternal(Long productId) {
+        Integer ordinal = ordinals.remove(productId);
+        if (ordinal == null) {
+            return;
+        }
+
+        live.remove(ordinal);
+        for (Field field : fields) {
+            field.remove(ordinal);
+        }
+    }
+
+    private void compactIfSparse() {
+        int alive = live.getCardinality();
+        if (size - alive <= Math.max(MIN_DEAD_BEFORE_COMPACT, alive)) {
+            return;
+        }
+
+        // live ordinals keep their relative order, so posting lists stay sorted
+        int[] remap = new int[size];
+        Arrays.fill(remap, -1);
+        ordinals.clear();
+
+        int next = 0;
+        for (int ordinal : live) {
+            remap[ordinal] = next;
+            ids[next] = ids[ordinal];
+            ordinals.put(ids[next], next);
+            next++;
+        }
+
+        for (Field field : fields) {
+            field.compact(remap, size, next);
+        }
+
+        size = next;
+        grow(Math.max(16, next));
+        live.clear();
+        live.add(0L, (long) next);
+    }
+
+    private void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        for (Field field : fields) {
+            field.growDocuments(capacity);
+        }
+    }
+
+    private static void collectWords(String text, Set<String> words) {
+        for (String word : WORD_SEPARATOR.split(text)) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+    }
+
+    /** Postings and length statistics of one field. */
+    private static final class Field {
+
+        private final double boost;
+
+        // BY TERM ID: ordinals (ascending) and frequencies, live documents with the term
+        private int[][] docs = new int[16][];
+        private int[][] freqs = new int[16][];
+        private int[] postingCounts = new int[16];
+        private int[] documentFrequency = new int[16];
+
+        // BY ORDINAL: token count and distinct term ids
+        private int[] lengths = new int[16];
+        private int[][] terms = new int[16][];
+        private long liveLength;
+
+        private Field(double boost) {
+            this.boost = boost;
+        }
+
+        private void clear() {
+            docs = new int[16][];
+            freqs = new int[16][];
+            postingCounts = new int[16];
+            documentFrequency = new int[16];
+            lengths = new int[16];
+            terms = new int[16][];
+            liveLength = 0;
+        }
+
+        private void add(int ordinal, int length, Map<Integer, Integer> frequencies) {
+            lengths[ordinal] = length;
+            liveLength += length;
+
+            int[] termsOfDocument = new int[frequencies.size()];
+            int t = 0;
+            for (Map.Entry<Integer, Integer> entry : frequencies.entrySet()) {
+                int termId = entry.getKey();
+                termsOfDocument[t++] = termId;
+                growTerms(termId + 1);
+
+                int count = postingCounts[termId];
+                if (docs[termId] == null) {
+                    docs[termId] = new int[4];
+                    freqs[termId] = new int[4];
+                } else if (count == docs[termId].length) {
+                    docs[termId] = Arrays.copyOf(docs[termId], count * 2);
+                    freqs[termId] = Arrays.copyOf(freqs[termId], count * 2);
+                }
+
+                docs[termId][count] = ordinal;
+                freqs[termId][count] = entry.getValue();
+                postingCounts[termId] = count + 1;
+                documentFrequency[termId]++;
+            }
+            terms[ordinal] = termsOfDocument;
+        }
+
+        private void remove(int ordinal) {
+            liveLength -= lengths[ordinal];
+            for (int termId : terms[ordinal]) {
+                documentFrequency[termId]--;
+            }
+        }
+
+        private Cursor cursor(int termId, int documents) {
+            if (boost <= 0 || termId >= documentFrequency.length || documentFrequency[termId] == 0) {
+                return null;
+            }
+
+            double df = documentFrequency[termId];
+            double idf = Math.log(1 + (documents - df + 0.5) / (df + 0.5));
+            double averageLength = (double) liveLength / documents;
+            return new Cursor(docs[termId], freqs[termId], postingCounts[termId], boost * idf, averageLength, lengths);
+        }
+
+        private void compact(int[] remap, int oldSize, int newSize) {
+            for (int termId = 0; termId < postingCounts.length; termId++) {
+                int kept = 0;
+                for (int p = 0; p < postingCounts[termId]; p++) {
+                    int ordinal = remap[docs[termId][p]];
+                    if (ordinal >= 0) {
+                        docs[termId][kept] = ordinal;
+                        freqs[termId][kept] = freqs[termId][p];
+                        kept++;
+                    }
+                }
+                postingCounts[termId] = kept;
+            }
+
+            for (int ordinal = 0; ordinal < oldSize; ordinal++) {
+                if (remap[ordinal] >= 0) {
+                    lengths[remap[ordinal]] = lengths[ordinal];
+                    terms[remap[ordinal]] = terms[ordinal];
+                }
+            }
+            Arrays.fill(terms, newSize, oldSize, null);
+        }
+
+        private void growTerms(int needed) {
+            if (needed <= postingCounts.length) {
+                return;
+            }
+            int capacity = Math.max(needed, postingCounts.length * 2);
+            docs = Arrays.copyOf(docs, capacity);
+            freqs = Arrays.copyOf(freqs, capacity);
+            postingCounts = Arrays.copyOf(postingCounts, capacity);
+            documentFrequency = Arrays.copyOf(documentFrequency, capacity);
+        }
+
+        private void growDocuments(int capacity) {
+            lengths = Arrays.copyOf(lengths, capacity);
+            terms = Arrays.copyOf(terms, capacity);
+        }
+    }
+
+    /** Position in one posting list of one query word in one field. */
+    private static final class Cursor {
+
+        private final int[] docs;
+        private final int[] freqs;
+        private final int count;
+        private final double weight;
+        private final double averageLength;
+        private final int[] lengths;
+        private int position;
+
+        private Cursor(int[] docs, int[] freqs, int count, double weight, double averageLength, int[] lengths) {
+            this.docs = docs;
+            this.freqs = freqs;
+            this.count = count;
+            this.weight = weight;
+            this.averageLength = averageLength;
+            this.lengths = lengths;
+        }
+
+        private double score(int ordinal) {
+            double tf = freqs[position];
+            double norm = 1 - B + B * lengths[ordinal] / averageLength;
+            return weight * tf * (K1 + 1) / (tf + K1 * norm);
+        }
+    }
+
+    /** Bounded min-heap of the best (score, ordinal) pairs; the root is the worst kept. */
+    private final class TopK {
+
+        private final double[] scores;
+        private final int[] docs;
+        private int count;
+
+        private TopK(int capacity) {
+            this.scores = new double[capacity];
+            this.docs = new int[capacity];
+        }
+
+        private void offer(double score, int ordinal) {
+            if (count < scores.length) {
+                scores[count] = score;
+                docs[count] = ordinal;
+                siftUp(count++);
+            } else if (count > 0 && better(score, ordinal, scores[0], docs[0])) {
+                scores[0] = score;
+                docs[0] = ordinal;
+                siftDown(0);
+            }
+        }
+
+        // product ids best first, skipping the first `offset`
+        private List<Long> drain(long offset) {
+            long[] ordered = new long[count];
+            for (int i = count - 1; i >= 0; i--) {
+                ordered[i] = ids[docs[0]];
+                count--;
+                scores[0] = scores[count];
+                docs[0] = docs[count];
+                siftDown(0);
+            }
+
+            List<Long> page = new ArrayList<>();
+            for (long i = offset; i < ordered.length; i++) {
+                page.add(ordered[(int) i]);
+            }
+            return page;
+        }
+
+        private boolean better(double score, int ordinal, double otherScore, int otherOrdinal) {
+            return score > otherScore || (score == otherScore && ids[ordinal] < ids[otherOrdinal]);
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (!better(scores[parent], docs[parent], scores[i], docs[i])) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int worst = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < count && better(scores[worst], docs[worst], scores[left], docs[left])) {
+                    worst = left;
+                }
+                if (right < count && better(scores[worst], docs[worst], scores[right], docs[right])) {
+                    worst = right;
+                }
+                if (worst == i) {
+                    return;
+                }
+                swap(i, worst);
+                i = worst;
+            }
+        }
+
+        private void swap(int a, int b) {
+            double score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+            int ordinal = docs[a];
+            docs[a] = docs[b];
+            docs[b] = ordinal;
+        }
+    }
+}
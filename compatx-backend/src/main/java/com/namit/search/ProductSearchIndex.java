@@ -0,0 +1,467 @@
+package com.namit.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.namit.events.ProductChangedEvent;
+import com.namit.events.ProductDeletedEvent;
+import com.namit.models.Product;
+import com.namit.repositories.ProductRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory inverted index over product name and brand.
+ *
+ * Every 1, 2 and 3 character gram of the lowercased name and brand is posted
+ * against the product id. Short tokens are answered straight from their posting
+ * list, longer tokens intersect the postings of their trigrams and then verify
+ * the candidates with a plain contains check, so results match the old
+ * "name or brand contains token" scan without touching the database.
+ *
+ * Matches come back as detached snapshots. Product saves re-index the
+ * snapshot, and stock moves that never save the entity (reservations,
+ * cancellations, flash-sale folds) are applied through adjustStock, the same
+ * hooks ProductFilterIndex gets, so stock stays current without a read.
+ *
+ * The words of every name and brand also go into a BK-tree, so a token that
+ * matches nothing can be swapped for the indexed words within a few edits
+ * (searchFuzzy, didYouMean). Tokens up to 2 characters are never corrected,
+ * up to 5 characters by one edit, longer ones by app.search.fuzzy.max-edits.
+ */
+@Component
+@Slf4j
+public class ProductSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // a misspelt token is expanded to at most this many of its closest words
+    private static final int MAX_EXPANSIONS = 16;
+    private static final int MIN_DEAD_BEFORE_REBUILD = 1024;
+
+    private final ProductRepository productRepository;
+    private final int maxEdits;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // product id -> snapshot, lowercased name / brand and what they were posted under
+    private final Map<Long, IndexedProduct> products = new HashMap<>();
+
+    // gram -> ids of products whose name or brand contains it
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+
+    // word -> number of products whose name or brand has it, words at 0 are dead in the tree
+    private final Map<String, Integer> vocabulary = new HashMap<>();
+    private BkTree words = new BkTree();
+    private int deadWords;
+
+    private record IndexedProduct(Product product, String name, String brand, Set<String> grams, Set<String> words) {
+    }
+
+    /** Matches of a typo tolerant search, and the corrected query when a token had to be replaced. */
+    public record Result(List<Product> products, String didYouMean) {
+    }
+
+    private record Correction(String word, int distance, int products) {
+    }
+
+    private static final Comparator<Correction> CLOSEST_FIRST = Comparator
+            .comparingInt(Correction::distance)
+            .thenComparing(Comparator.comparingInt(Correction::products).reversed())
+            .thenComparing(Correction::word);
+
+    public ProductSearchIndex(ProductRepository productRepository,
+                              @Value("${app.search.fuzzy.max-edits:2}") int maxEdits) {
+        this.productRepository = productRepository;
+        this.maxEdits = maxEdits;
+    }
+
+    // LOAD
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Product> all = productRepository.findAll();
+
+        lock.writeLock().lock();
+        try {
+            products.clear();
+            postings.clear();
+            vocabulary.clear();
+            words = new BkTree();
+            deadWords = 0;
+            for (Product product : all) {
+                add(product);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Product search index built with {} products", all.size());
+    }
+
+    // WRITE PATH (product events after save / delete)
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        index(event.product());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductDeleted(ProductDeletedEvent event) {
+        remove(event.productId());
+    }
+
+    public void index(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(product.getId());
+            add(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // stock moved by a relative UPDATE, applied once the caller's transaction commits
+    public void adjustStockAfterCommit(Long productId, int delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            adjustStock(productId, delta);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                adjustStock(productId, delta);
+            }
+        });
+    }
+
+    public void adjustStock(Long productId, int delta) {
+        lock.writeLock().lock();
+        try {
+            IndexedProduct existing = products.get(productId);
+            if (existing == null) {
+                return;
+            }
+
+            // snapshots already handed to readers are never mutated
+            Product product = snapshot(existing.product());
+            product.setStock(product.getStock() == null ? delta : product.getStock() + delta);
+            products.put(productId, new IndexedProduct(product, existing.name(), existing.brand(),
+                    existing.grams(), existing.words()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // READ PATH
+
+    /**
+     * Every whitespace separated token must be contained in the product name OR
+     * brand (ignore case), results ordered by product id. A token that no
+     * product contains is replaced by the indexed words within the allowed
+     * edits ("samsng" matches the products containing "samsung"). didYouMean
+     * spells the query with the closest word for each replaced token, or is
+     * null when every token matched as typed.
+     */
+    public Result searchFuzzy(String keyword) {
+        String[] tokens = keyword.toLowerCase().split("\\s+");
+        String[] spelled = tokens.clone();
+        boolean corrected = false;
+
+        lock.readLock().lock();
+        try {
+            Set<Long> matches = null;
+
+            for (int i = 0; i < tokens.length; i++) {
+                if (tokens[i].isEmpty()) {
+                    continue;
+                }
+
+                Set<Long> tokenMatches = match(tokens[i]);
+                if (tokenMatches.isEmpty()) {
+                    List<Correction> corrections = corrections(tokens[i]);
+                    if (!corrections.isEmpty()) {
+                        tokenMatches = new HashSet<>();
+                        for (Correction correction : corrections) {
+                            tokenMatches.addAll(match(correction.word()));
+                        }
+                        spelled[i] = corrections.get(0).word();
+                        corrected = true;
+                    }
+                }
+
+                matches = matches == null ? tokenMatches : intersect(matches, tokenMatches);
+
+                if (matches.isEmpty()) {
+                    return new Result(List.of(), null);
+                }
+            }
+
+            return new Result(
+                    products(matches == null ? products.keySet() : matches),
+                    corrected ? String.join(" ", spelled).trim() : null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The keyword with every token that no product contains replaced by its
+     * closest indexed word, or null when nothing needed (or could get) a fix.
+     */
+    public String didYouMean(String keyword) {
+        String[] tokens = keyword.toLowerCase().trim().split("\\s+");
+        boolean corrected = false;
+
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < tokens.length; i++) {
+                if (tokens[i].isEmpty() || !match(tokens[i]).isEmpty()) {
+                    continue;
+                }
+
+                List<Correction> corrections = corrections(tokens[i]);
+                if (!corrections.isEmpty()) {
+                    tokens[i] = corrections.get(0).word();
+                    corrected = true;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return corrected ? String.join(" ", tokens) : null;
+    }
+
+    /**
+     * Ids of products whose name OR brand contains the whole text (ignore
+     * case), the in-memory equivalent of ProductSpecification.keywordContains.
+     */
+    public Set<Long> containing(String text) {
+        lock.readLock().lock();
+        try {
+            return new HashSet<>(match(text.toLowerCase()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return products.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // HELPERS (callers hold the lock)
+
+    private Set<Long> match(String token) {
+
+        // every substring up to GRAM chars is posted, so the posting list is exact
+        if (token.length() <= GRAM) {
+            return postings.getOrDefault(token, Set.of());
+        }
+
+        Set<Long> candidates = null;
+        for (int i = 0; i + GRAM <= token.length(); i++) {
+            Set<Long> posting = postings.get(token.substring(i, i + GRAM));
+            if (posting == null) {
+                return Set.of();
+            }
+
+            candidates = candidates == null ? posting : intersect(candidates, posting);
+            if (candidates.isEmpty()) {
+                return Set.of();
+            }
+        }
+
+        // trigrams can co-occur without the full token, verify the survivors
+        Set<Long> verified = new HashSet<>();
+        for (Long id : candidates) {
+            IndexedProduct indexed = products.get(id);
+            if (indexed.name().contains(token) || indexed.brand().contains(token)) {
+                verified.add(id);
+            }
+        }
+        return verified;
+    }
+
+    // indexed words within the edits allowed for the token's length, closest and most used first
+    private List<Correction> corrections(String token) {
+        int edits = Math.min(maxEdits, token.length() <= 2 ? 0 : token.length() <= 5 ? 1 : 2);
+        if (edits <= 0) {
+            return List.of();
+        }
+
+        List<Correction> found = new ArrayList<>();
+        words.within(token, edits, (word, distance) -> {
+            int count = vocabulary.getOrDefault(word, 0);
+            if (count > 0) {
+                found.add(new Correction(word, distance, count));
+            }
+        });
+
+        found.sort(CLOSEST_FIRST);
+        return found.size() > MAX_EXPANSIONS ? found.subList(0, MAX_EXPANSIONS) : found;
+    }
+
+    // snapshots in id order
+    private List<Product> products(Set<Long> matches) {
+        List<Long> ids = new ArrayList<>(matches);
+        Collections.sort(ids);
+
+        List<Product> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            result.add(products.get(id).product());
+        }
+        return result;
+    }
+
+    private static Set<Long> intersect(Set<Long> a, Set<Long> b) {
+        Set<Long> smaller = a.size() <= b.size() ? a : b;
+        Set<Long> larger = smaller == a ? b : a;
+
+        Set<Long> result = new HashSet<>();
+        for (Long id : smaller) {
+            if (larger.contains(id)) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    private void add(Product product) {
+        String name = lower(product.getProductName());
+        String brand = lower(product.getBrand());
+
+        Set<String> grams = new HashSet<>();
+        collectGrams(name, grams);
+        collectGrams(brand, grams);
+
+        Set<String> productWords = new HashSet<>();
+        collectWords(name, productWords);
+        collectWords(brand, productWords);
+
+        products.put(product.getId(), new IndexedProduct(snapshot(product), name, brand, grams, productWords));
+        for (String gram : grams) {
+            postings.computeIfAbsent(gram, g -> new HashSet<>()).add(product.getId());
+        }
+        for (String word : productWords) {
+            Integer count = vocabulary.get(word);
+            if (count == null) {
+                words.add(word);
+            } else if (count == 0) {
+                deadWords--;
+            }
+            vocabulary.put(word, count == null ? 1 : count + 1);
+        }
+    }
+
+    private void removeInternal(Long productId) {
+        IndexedProduct existing = products.remove(productId);
+        if (existing == null) {
+            return;
+        }
+
+        for (String gram : existing.grams()) {
+            Set<Long> posting = postings.get(gram);
+            if (posting != null) {
+                posting.remove(productId);
+                if (posting.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+
+        // unused words stay in the tree at 0 until they outnumber the live ones
+        for (String word : existing.words()) {
+            if (vocabulary.merge(word, -1, Integer::sum) == 0) {
+                deadWords++;
+            }
+        }
+        rebuildWordsIfSparse();
+    }
+
+    private void rebuildWordsIfSparse() {
+        if (deadWords < MIN_DEAD_BEFORE_REBUILD || deadWords < vocabulary.size() - deadWords) {
+            return;
+        }
+
+        vocabulary.values().removeIf(count -> count == 0);
+        deadWords = 0;
+        words = new BkTree();
+        for (String word : vocabulary.keySet()) {
+            words.add(word);
+        }
+    }
+
+    private static void collectGrams(String text, Set<String> grams) {
+        for (int i = 0; i < text.length(); i++) {
+            for (int n = 1; n <= GRAM && i + n <= text.length(); n++) {
+                grams.add(text.substring(i, i + n));
+            }
+        }
+    }
+
+    private static void collectWords(String text, Set<String> words) {
+        for (String word : WORD_SEPARATOR.split(text)) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+    }
+
+    private static String lower(String value) {
+        return value == null ? "" : value.toLowerCase();
+    }
+
+    // detached copy so later changes to a managed entity never leak into the index
+    private static Product snapshot(Product p) {
+        Product copy = new Product();
+        copy.setId(p.getId());
+        copy.setProductName(p.getProductName());
+        copy.setBrand(p.getBrand());
+        copy.setDescription(p.getDescription());
+        copy.setPrice(p.getPrice());
+        copy.setStock(p.getStock());
+        copy.setImageUrl(p.getImageUrl());
+        copy.setCreatedAt(p.getCreatedAt());
+        copy.setUpdatedAt(p.getUpdatedAt());
+        copy.setCategory(p.getCategory());
+        return copy;
+    }
+}
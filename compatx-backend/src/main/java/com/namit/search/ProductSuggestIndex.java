@@ -0,0 +1,547 @@
+package com.namit.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.namit.events.ProductChangedEvent;
+import com.namit.events.ProductDeletedEvent;
+import com.namit.enums.OrderStatus;
+import com.namit.models.Product;
+import com.namit.repositories.OrderItemRepository;
+import com.namit.repositories.ProductRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory autocomplete over product names and brands.
+ *
+ * Every distinct name and brand (ignoring case and repeated spaces) is a term.
+ * A term is reachable from its full text and from every later word, so "rtx"
+ * completes "Nvidia GeForce RTX 4090". The keys live in a compressed prefix
+ * trie (one node per branching point, edges carry whole substrings) and every
+ * node keeps the best maxResults terms of its subtree, so a lookup is a walk
+ * down the prefix plus a copy of that list.
+ *
+ * Terms are ranked by popularity: each product counts one plus the units sold
+ * in orders that are not cancelled, a term weighs the sum over its products.
+ * Every product write re-indexes it (ProductChangedEvent) and the inventory
+ * paths report sales once their transaction commits; only the trie nodes on
+ * the paths of the touched terms are re-ranked.
+ */
+@Component
+@Slf4j
+public class ProductSuggestIndex {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Term[] NO_TERMS = new Term[0];
+
+    private static final Comparator<Term> BY_POPULARITY = Comparator
+            .comparingLong((Term t) -> t.weight).reversed()
+            .thenComparing(t -> t.key)
+            .thenComparing(t -> t.kind);
+
+    private final ProductRepository productRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final int maxResults;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Node root = new Node("");
+    private final Map<String, Term> names = new HashMap<>();
+    private final Map<String, Term> brands = new HashMap<>();
+
+    // product id -> the name and brand terms it belongs to
+    private final Map<Long, Entry> products = new HashMap<>();
+
+    // product id -> units sold
+    private final Map<Long, Long> sold = new HashMap<>();
+
+    public enum Kind {
+        PRODUCT,
+        BRAND
+    }
+
+    /** One completion; productId is set when the name belongs to a single product. */
+    public record Suggestion(String text, Kind kind, Long productId) {
+    }
+
+    private record Entry(String name, String brand) {
+    }
+
+    public ProductSuggestIndex(ProductRepository productRepository,
+                               OrderItemRepository orderItemRepository,
+                               @Value("${app.search.suggest.max-results:10}") int maxResults) {
+        this.productRepository = productRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.maxResults = Math.max(1, maxResults);
+    }
+
+    // LOAD
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Product> all = productRepository.findAll();
+        List<Object[]> sales = orderItemRepository.sumQuantitySoldByProduct(OrderStatus.CANCELLED);
+
+        lock.writeLock().lock();
+        try {
+            root.clear();
+            names.clear();
+            brands.clear();
+            products.clear();
+            sold.clear();
+            for (Object[] row : sales) {
+                long units = ((Number) row[1]).longValue();
+                if (units > 0) {
+                    sold.put((Long) row[0], units);
+                }
+            }
+
+            // rank every node once at the end instead of after each insert
+            for (Product product : all) {
+                add(product, false);
+            }
+            rankSubtree(root);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Product suggest index built with {} names and {} brands", names.size(), brands.size());
+    }
+
+    // WRITE PATH (product events after save / delete, inventory after orders)
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        index(event.product());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductDeleted(ProductDeletedEvent event) {
+        remove(event.productId());
+    }
+
+    public void index(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            Entry existing = products.get(product.getId());
+            if (existing != null
+                    && existing.name().equals(normalize(product.getProductName()))
+                    && existing.brand().equals(normalize(product.getBrand()))) {
+                return;
+            }
+
+            removeInternal(product.getId());
+            add(product, true);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(productId);
+            sold.remove(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // counts units sold (negative when an order is cancelled), only once the surrounding transaction commits
+    public void addSalesAfterCommit(Long productId, int quantity) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            addSales(productId, quantity);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                addSales(productId, quantity);
+            }
+        });
+    }
+
+    public void addSales(Long productId, int quantity) {
+        lock.writeLock().lock();
+        try {
+            long before = sold.getOrDefault(productId, 0L);
+            long after = Math.max(0, before + quantity);
+            if (after == before) {
+                return;
+            }
+
+            if (after == 0) {
+                sold.remove(productId);
+            } else {
+                sold.put(productId, after);
+            }
+
+            Entry entry = products.get(productId);
+            if (entry != null) {
+                reweigh(names.get(entry.name()), after - before);
+                reweigh(brands.get(entry.brand()), after - before);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // READ PATH
+
+    /**
+     * The most popular names and brands that have a word starting with the
+     * prefix (ignore case), best first. Blank prefixes suggest nothing.
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = normalizeQuery(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = subtree(key);
+            if (node == null) {
+                return List.of();
+            }
+
+            int count = Math.min(node.top.length, Math.max(1, Math.min(limit, maxResults)));
+            List<Suggestion> result = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Term term = node.top[i];
+                Long productId = term.kind == Kind.PRODUCT && term.products.size() == 1
+                        ? term.products.iterator().next()
+                        : null;
+                result.add(new Suggestion(term.label, term.kind, productId));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int maxResults() {
+        return maxResults;
+    }
+
+    // TERMS (callers hold the write lock)
+
+    private void add(Product product, boolean rank) {
+        String name = normalize(product.getProductName());
+        String brand = normalize(product.getBrand());
+        long weight = 1 + sold.getOrDefault(product.getId(), 0L);
+
+        products.put(product.getId(), new Entry(name, brand));
+        join(names, Kind.PRODUCT, name, product.getProductName(), product.getId(), weight, rank);
+        join(brands, Kind.BRAND, brand, product.getBrand(), product.getId(), weight, rank);
+    }
+
+    private void removeInternal(Long productId) {
+        Entry existing = products.remove(productId);
+        if (existing == null) {
+            return;
+        }
+
+        long weight = 1 + sold.getOrDefault(productId, 0L);
+        leave(names, existing.name(), productId, weight);
+        leave(brands, existing.brand(), productId, weight);
+    }
+
+    private void join(Map<String, Term> terms, Kind kind, String key, String label,
+                      Long productId, long weight, boolean rank) {
+        if (key.isEmpty()) {
+            return;
+        }
+
+        Term term = terms.get(key);
+        if (term == null) {
+            term = new Term(kind, key, label.trim());
+            terms.put(key, term);
+            term.products.add(productId);
+            term.weight = weight;
+            for (String k : term.keys) {
+                insert(k, term, rank);
+            }
+            return;
+        }
+
+        term.products.add(productId);
+        if (rank) {
+            reweigh(term, weight);
+        } else {
+            term.weight += weight;
+        }
+    }
+
+    private void leave(Map<String, Term> terms, String key, Long productId, long weight) {
+        Term term = terms.get(key);
+        if (term == null || !term.products.remove(productId)) {
+            return;
+        }
+
+        if (term.products.isEmpty()) {
+            terms.remove(key);
+            for (String k : term.keys) {
+                delete(k, term);
+            }
+            return;
+        }
+
+        reweigh(term, -weight);
+    }
+
+    private void reweigh(Term term, long delta) {
+        if (term == null) {
+            return;
+        }
+
+        term.weight += delta;
+        for (String key : term.keys) {
+            List<Node> path = path(key);
+            if (path != null) {
+                rankPath(path);
+            }
+        }
+    }
+
+    // TRIE (callers hold the write lock)
+
+    private void insert(String key, Term term, boolean rank) {
+        List<Node> path = new ArrayList<>();
+        path.add(root);
+        Node node = root;
+        int i = 0;
+
+        while (i < key.length()) {
+            Node child = node.child(key.charAt(i));
+            if (child == null) {
+                child = new Node(key.substring(i));
+                node.put(child);
+                node = child;
+                path.add(node);
+                break;
+            }
+
+            int common = commonPrefix(child.label, key, i);
+            if (common < child.label.length()) {
+                // split the edge, the old child hangs below the shared part
+                Node middle = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.put(child);
+                node.put(middle);
+                child = middle;
+            }
+
+            node = child;
+            path.add(node);
+            i += common;
+        }
+
+        node.terms.add(term);
+        if (rank) {
+            rankPath(path);
+        }
+    }
+
+    private void delete(String key, Term term) {
+        List<Node> path = path(key);
+        if (path == null) {
+            return;
+        }
+
+        path.get(path.size() - 1).terms.remove(term);
+
+        // drop empty leaves and merge pass-through nodes into their only child
+        for (int p = path.size() - 1; p > 0; p--) {
+            Node node = path.get(p);
+            if (!node.terms.isEmpty()) {
+                continue;
+            }
+
+            Node parent = path.get(p - 1);
+            if (node.children.isEmpty()) {
+                parent.children.remove(node.label.charAt(0));
+                path.remove(p);
+            } else if (node.children.size() == 1) {
+                Node only = node.children.values().iterator().next();
+                only.label = node.label + only.label;
+                parent.put(only);
+                path.set(p, only);
+            }
+        }
+
+        rankPath(path);
+    }
+
+    // nodes from the root down to the node that holds exactly this key
+    private List<Node> path(String key) {
+        List<Node> path = new ArrayList<>();
+        path.add(root);
+        Node node = root;
+        int i = 0;
+
+        while (i < key.length()) {
+            Node child = node.child(key.charAt(i));
+            if (child == null || !key.startsWith(child.label, i)) {
+                return null;
+            }
+            node = child;
+            path.add(node);
+            i += child.label.length();
+        }
+        return path;
+    }
+
+    // the highest node whose subtree holds every key starting with the prefix
+    private Node subtree(String prefix) {
+        Node node = root;
+        int i = 0;
+
+        while (i < prefix.length()) {
+            Node child = node.child(prefix.charAt(i));
+            if (child == null) {
+                return null;
+            }
+
+            int common = commonPrefix(child.label, prefix, i);
+            if (i + common == prefix.length()) {
+                return child;
+            }
+            if (common < child.label.length()) {
+                return null;
+            }
+            node = child;
+            i += common;
+        }
+        return node;
+    }
+
+    private void rankPath(List<Node> path) {
+        for (int p = path.size() - 1; p >= 0; p--) {
+            path.get(p).rank(maxResults);
+        }
+    }
+
+    private void rankSubtree(Node node) {
+        for (Node child : node.children.values()) {
+            rankSubtree(child);
+        }
+        node.rank(maxResults);
+    }
+
+    private static int commonPrefix(String label, String key, int from) {
+        int n = 0;
+        while (n < label.length() && from + n < key.length() && label.charAt(n) == key.charAt(from + n)) {
+            n++;
+        }
+        return n;
+    }
+
+    // HELPERS
+
+    private static String normalize(String value) {
+        return value == null ? "" : WHITESPACE.matcher(value.trim().toLowerCase()).replaceAll(" ");
+    }
+
+    // a trailing space is kept, "rtx " only completes terms with a word after "rtx"
+    private static String normalizeQuery(String value) {
+        return value == null || value.isBlank()
+                ? ""
+                : WHITESPACE.matcher(value.toLowerCase()).replaceAll(" ").stripLeading();
+    }
+
+    private static final class Term {
+
+        private final Kind kind;
+        private final String key;
+        private final String label;
+        private final String[] keys;
+        private final Set<Long> products = new HashSet<>();
+        private long weight;
+
+        private Term(Kind kind, String key, String label) {
+            this.kind = kind;
+            this.key = key;
+            this.label = label;
+
+            // the full text and every suffix that starts a word
+            Set<String> suffixes = new LinkedHashSet<>();
+            suffixes.add(key);
+            for (int i = key.indexOf(' '); i >= 0; i = key.indexOf(' ', i + 1)) {
+                suffixes.add(key.substring(i + 1));
+            }
+            this.keys = suffixes.toArray(new String[0]);
+        }
+    }
+
+    private static final class Node {
+
+        private String label;
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private final List<Term> terms = new ArrayList<>(1);
+        private Term[] top = NO_TERMS;
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        private Node child(char first) {
+            return children.get(first);
+        }
+
+        private void put(Node child) {
+            children.put(child.label.charAt(0), child);
+        }
+
+        private void clear() {
+            children.clear();
+            terms.clear();
+            top = NO_TERMS;
+        }
+
+        // best `limit` terms of this subtree, every child already ranked
+        private void rank(int limit) {
+            List<Term> candidates = new ArrayList<>(terms);
+            for (Node child : children.values()) {
+                Collections.addAll(candidates, child.top);
+            }
+            candidates.sort(BY_POPULARITY);
+
+            // a term with several keys in the subtree shows up once
+            List<Term> best = new ArrayList<>(Math.min(limit, candidates.size()));
+            for (Term term : candidates) {
+                if (best.size() == limit) {
+                    break;
+                }
+                if (!best.contains(term)) {
+                    best.add(term);
+                }
+            }
+            top = best.toArray(NO_TERMS);
+        }
+    }
+}
@@ -1,16 +1,25 @@
 package com.namit.security.config;
 
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationManagers;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
 
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 
@@ -30,7 +39,8 @@ public class SecurityConfig {
     private final PasswordEncoder passwordEncoder;
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http,
+            @Value("${app.metrics.scrape-allowed-ips:}") List<String> scrapeAllowedIps) throws Exception {
 
         http
                 .csrf(csrf -> csrf.disable())
@@ -67,6 +77,14 @@ public class SecurityConfig {
                                 "/api/v1/payments/key")
                         .permitAll()
 
+                        // Health check
+                        .requestMatchers("/actuator/health").permitAll()
+
+                        // Prometheus scrape from the configured addresses, or by an admin
+                        .requestMatchers("/actuator/prometheus").access(AuthorizationManagers.anyOf(
+                                fromAddresses(scrapeAllowedIps),
+                                AuthorityAuthorizationManager.hasRole("ADMIN")))
+
                         // Admin endpoints
                         .requestMatchers("/api/v1/admin/**").hasRole("ADMIN")
 
@@ -83,6 +101,18 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // grants requests whose client address is in one of the ranges, nothing when there are none
+    private static AuthorizationManager<RequestAuthorizationContext> fromAddresses(List<String> addresses) {
+        List<IpAddressMatcher> matchers = addresses.stream()
+                .map(String::trim)
+                .filter(address -> !address.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+
+        return (authentication, context) -> new AuthorizationDecision(
+                matchers.stream().anyMatch(matcher -> matcher.matches(context.getRequest())));
+    }
+
     @Bean
     public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userDetailsService);
@@ -7,36 +7,59 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import com.namit.enums.Role;
 import com.namit.models.AppUser;
 
-
-import lombok.RequiredArgsConstructor;
-
-@RequiredArgsConstructor
-
+/**
+ * Authenticated user. Built from the AppUser row at login and from the signed
+ * access token claims (no password) on every other request.
+ */
 public class CustomUserDetails implements UserDetails {
 	
 	
 	private static final long serialVersionUID = 1L;
-	private final AppUser user;
-	
+
+	private final Long userId;
+	private final String userName;
+	private final String password;
+	private final Role role;
+	private final boolean active;
+	private final List<GrantedAuthority> authorities;
+
+	public CustomUserDetails(AppUser user) {
+		this(user.getUserId(), user.getUserName(), user.getPassword(), user.getRole(), user.getIsActive());
+	}
+
+	// from access token claims
+	public CustomUserDetails(Long userId, String userName, Role role, boolean active) {
+		this(userId, userName, null, role, active);
+	}
+
+	private CustomUserDetails(Long userId, String userName, String password, Role role, boolean active) {
+		this.userId = userId;
+		this.userName = userName;
+		this.password = password;
+		this.role = role;
+		this.active = active;
+		this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+	}
 
 	@Override
 	public Collection<? extends GrantedAuthority> getAuthorities() {
 		
-		return List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
+		return authorities;
 	}
 
 	@Override
 	public String getPassword() {
 		
-		return user.getPassword();
+		return password;
 	}
 
 	@Override
 	public String getUsername() {
 		
-		return user.getUserName();
+		return userName;
 		
 	}
 	
@@ -44,11 +67,15 @@ public class CustomUserDetails implements UserDetails {
 
     @Override
     public boolean isEnabled() {
-        return user.getIsActive();  
+        return active;  
     }
 
     public Long getUserId() {
-        return user.getUserId();
+        return userId;
+    }
+
+    public Role getRole() {
+        return role;
     }
 	
     
@@ -1,15 +1,16 @@
 package com.namit.security.jwt;
 
 import java.io.IOException;
+import java.util.Optional;
 
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.namit.security.details.CustomUserDetails;
 import com.namit.security.details.CustomUserDetailsService;
 
 import jakarta.servlet.FilterChain;
@@ -24,6 +25,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
+    private final TokenRevocationList revocationList;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -40,17 +42,33 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String token = header.substring(7);
 
-        if (!jwtUtil.validateToken(token)) {
+        // one signature check and claims parse (or a cache hit) per request
+        Optional<JwtUtil.TokenClaims> claims = jwtUtil.verify(token);
+
+        if (claims.isEmpty()) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        String username = jwtUtil.extractUsername(token);
-
         // If user is not already authenticated
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+
+            // Principal from the signed claims, no user lookup
+            CustomUserDetails userDetails = claims.get().toUserDetails();
+
+            if (userDetails == null) {
+                // token issued before the userId/active claims existed, the row is current
+                userDetails = (CustomUserDetails) userDetailsService.loadUserByUsername(claims.get().username());
+            } else if (revocationList.isRevoked(userDetails.getUserId(), claims.get().tokenVersion())) {
+                // role or active flag changed since the token was issued
+                filterChain.doFilter(request, response);
+                return;
+            }
+
+            if (!userDetails.isEnabled()) {
+                filterChain.doFilter(request, response);
+                return;
+            }
 
             UsernamePasswordAuthenticationToken authToken =
                     new UsernamePasswordAuthenticationToken(
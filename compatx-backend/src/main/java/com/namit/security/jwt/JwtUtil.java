@@ -1,97 +1,208 @@
 package com.namit.security.jwt;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.namit.enums.Role;
+import com.namit.models.AppUser;
+import com.namit.security.details.CustomUserDetails;
+
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
 
 @Component
+@Slf4j
 public class JwtUtil {
 
-    // importing variables from application properties
-
-    @Value("${app.jwt.secret}")
-    private String jwtSecret;
-
-    @Value("${app.jwt.expiration}")
-    private long jwtExpirationInMs;
-
-    // setting up the signing key
-    private Key getSigningKey() {
-
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
-
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLE_CLAIM = "role";
+    private static final String ACTIVE_CLAIM = "active";
+    private static final String TOKEN_VERSION_CLAIM = "ver";
+
+    // signing key and parser are immutable and thread-safe, built once
+    private final Key signingKey;
+    private final JwtParser parser;
+
+    private final long jwtExpirationInMs;
+
+    // SHA-256 of recently verified tokens -> their claims, until the token expires
+    private final int verifiedCacheSize;
+    private final Map<ByteBuffer, TokenClaims> verified = new ConcurrentHashMap<>();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+
+    /**
+     * Everything the filter needs from a verified access token. userId and
+     * active are null for tokens issued before those claims were added,
+     * tokenVersion is 0.
+     */
+    public record TokenClaims(String username, Long userId, Role role, Boolean active, long tokenVersion,
+            Instant expiresAt) {
+
+        // principal without a user lookup, null for old tokens
+        public CustomUserDetails toUserDetails() {
+            if (userId == null || role == null || active == null) {
+                return null;
+            }
+            return new CustomUserDetails(userId, username, role, active);
+        }
     }
 
-    public String extractRole(String token) {
-        return getClaims(token).get("role", String.class);
+    // importing variables from application properties
+
+    public JwtUtil(@Value("${app.jwt.secret}") String jwtSecret,
+                   @Value("${app.jwt.expiration}") long jwtExpirationInMs,
+                   @Value("${app.jwt.verified-cache-size:10000}") int verifiedCacheSize) {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.jwtExpirationInMs = jwtExpirationInMs;
+        this.verifiedCacheSize = verifiedCacheSize;
     }
 
     // Generating keys
 
-    public String generateToken(String username, String role) {
-
+    public String generateToken(AppUser user) {
         Date now = new Date();
         Date expiry = new Date(now.getTime() + jwtExpirationInMs);
 
+        // userId, role and active flag let the filter authenticate without a user lookup,
+        // the version lets TokenRevocationList reject it once they change
         return Jwts.builder()
-                .setSubject(username)
-                .claim("role", role)
+                .setSubject(user.getUserName())
+                .claim(USER_ID_CLAIM, user.getUserId())
+                .claim(ROLE_CLAIM, user.getRole().name())
+                .claim(ACTIVE_CLAIM, user.getIsActive())
+                .claim(TOKEN_VERSION_CLAIM, user.getTokenVersion())
                 .setIssuedAt(now)
                 .setExpiration(expiry)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
-
     }
 
-    // Overloaded method for custom expiration (used for Remember Me)
-    public String generateToken(String username, String role, long customExpirationMs) {
-        Date now = new Date();
-        Date expiry = new Date(now.getTime() + customExpirationMs);
+    // Verifying (one parse per token, then served from the cache until expiry)
 
-        return Jwts.builder()
-                .setSubject(username)
-                .claim("role", role)
-                .setIssuedAt(now)
-                .setExpiration(expiry)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
-                .compact();
+    public Optional<TokenClaims> verify(String token) {
+        if (verifiedCacheSize <= 0) {
+            return parse(token);
+        }
+
+        ByteBuffer digest = digest(token);
+        TokenClaims cached = verified.get(digest);
+        if (cached != null) {
+            if (cached.expiresAt().isAfter(Instant.now())) {
+                cacheHits.increment();
+                return Optional.of(cached);
+            }
+            verified.remove(digest, cached);
+            log.debug("JWT expired");
+            return Optional.empty();
+        }
+
+        cacheMisses.increment();
+        Optional<TokenClaims> claims = parse(token);
+        claims.ifPresent(value -> remember(digest, value));
+        return claims;
     }
 
-    private Claims getClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public boolean validateToken(String token) {
+        return verify(token).isPresent();
     }
 
     // Getting username
 
     public String extractUsername(String token) {
-        return getClaims(token).getSubject();
+        return verify(token).map(TokenClaims::username).orElse(null);
     }
 
-    public boolean validateToken(String token) {
+    public String extractRole(String token) {
+        return verify(token).map(claims -> claims.role() == null ? null : claims.role().name()).orElse(null);
+    }
+
+    public int verifiedCacheSize() {
+        return verified.size();
+    }
+
+    public long verifiedCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public long verifiedCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    // HELPERS
+
+    private Optional<TokenClaims> parse(String token) {
         try {
-            getClaims(token);
-            return true;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+
+            Number userId = claims.get(USER_ID_CLAIM, Number.class);
+            String role = claims.get(ROLE_CLAIM, String.class);
+            Number tokenVersion = claims.get(TOKEN_VERSION_CLAIM, Number.class);
+
+            return Optional.of(new TokenClaims(
+                    claims.getSubject(),
+                    userId == null ? null : userId.longValue(),
+                    role == null ? null : Role.valueOf(role),
+                    claims.get(ACTIVE_CLAIM, Boolean.class),
+                    tokenVersion == null ? 0 : tokenVersion.longValue(),
+                    claims.getExpiration().toInstant()));
+
         } catch (ExpiredJwtException ex) {
-            System.out.println("JWT expired");
+            log.debug("JWT expired");
         } catch (MalformedJwtException ex) {
-            System.out.println("Invalid JWT");
+            log.debug("Invalid JWT");
         } catch (Exception ex) {
-            System.out.println("JWT validation error");
+            log.debug("JWT validation error: {}", ex.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    private void remember(ByteBuffer digest, TokenClaims claims) {
+        if (verified.size() >= verifiedCacheSize) {
+            evict();
+        }
+        verified.put(digest, claims);
+    }
+
+    // drop expired tokens, then arbitrary ones until a tenth of the room is free
+    private void evict() {
+        Instant now = Instant.now();
+        verified.values().removeIf(claims -> !claims.expiresAt().isAfter(now));
+
+        Iterator<ByteBuffer> keys = verified.keySet().iterator();
+        while (verified.size() > verifiedCacheSize * 9 / 10 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
-        return false;
     }
 
 }
@@ -0,0 +1,73 @@
+package com.namit.security.jwt;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.namit.repositories.AppUserRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Users whose access tokens were revoked recently, as userId -> current
+ * AppUser.tokenVersion.
+ *
+ * The admin role and deactivate endpoints (AppUserService) bump tokenVersion
+ * and set tokensRevokedAt in the same UPDATE that changes the access, and
+ * saving an AppUser entity with a new role or active flag does the same in
+ * AppUser.revokeTokensOnAccessChange. A change written any other way, such as
+ * SQL run by hand, revokes nothing unless it bumps token_version and
+ * tokens_revoked_at itself.
+ *
+ * The revocations live in app_user, so they survive restarts. Every instance
+ * reloads the users revoked within the last app.jwt.expiration every
+ * app.jwt.revocation-refresh-ms: a token carrying an older version is rejected
+ * on all nodes at most that long after the change commits. Requests
+ * themselves only read the in-memory copy.
+ */
+@Component
+@Slf4j
+public class TokenRevocationList {
+
+    private final AppUserRepository appUserRepository;
+    private final long ttlMs;
+
+    private volatile Map<Long, Long> versions = Map.of();
+
+    public TokenRevocationList(AppUserRepository appUserRepository,
+                               @Value("${app.jwt.expiration}") long ttlMs) {
+        this.appUserRepository = appUserRepository;
+        this.ttlMs = ttlMs;
+    }
+
+    // older revocations only concern tokens that have expired anyway
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.jwt.revocation-refresh-ms:5000}",
+            fixedDelayString = "${app.jwt.revocation-refresh-ms:5000}")
+    public void reload() {
+        try {
+            Map<Long, Long> loaded = new HashMap<>();
+            for (Object[] row : appUserRepository.findTokenVersionsRevokedAfter(Instant.now().minusMillis(ttlMs))) {
+                loaded.put((Long) row[0], (Long) row[1]);
+            }
+            versions = Map.copyOf(loaded);
+        } catch (RuntimeException e) {
+            log.error("Token revocation reload failed, keeping the previous list", e);
+        }
+    }
+
+    public boolean isRevoked(Long userId, long tokenVersion) {
+        Long current = versions.get(userId);
+        return current != null && tokenVersion < current;
+    }
+
+    public int size() {
+        return versions.size();
+    }
+}
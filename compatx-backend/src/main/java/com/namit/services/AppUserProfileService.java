@@ -30,7 +30,6 @@ public class AppUserProfileService {
 
     private final AppUserRepository userRepository;
     private final AppUserProfileRepository profileRepository;
-    private final MyResponseWrapper responseWrapper;
     private final ProfileMapper profileMapper;
 
     // ============ USER ENDPOINTS ============
@@ -40,7 +39,7 @@ public class AppUserProfileService {
         Optional<AppUserProfile> profileOpt = profileRepository.findByUserUserId(userId);
 
         if (!profileOpt.isPresent()) {
-            return responseWrapper.universalResponse(
+            return MyResponseWrapper.universalResponse(
                 "Profile not found. Please create your profile first.",
                 null,
                 HttpStatus.NOT_FOUND
@@ -48,7 +47,7 @@ public class AppUserProfileService {
         }
 
         ProfileResponseDTO responseDTO = profileMapper.toResponseDTO(profileOpt.get());
-        return responseWrapper.universalResponse(
+        return MyResponseWrapper.universalResponse(
             "Profile retrieved successfully",
             responseDTO,
             HttpStatus.OK
@@ -59,7 +58,7 @@ public class AppUserProfileService {
     public ResponseEntity<?> createOrUpdateMyProfile(Long userId, ProfileUpdateDTO profileDTO) {
         Optional<AppUser> userOpt = userRepository.findById(userId);
         if (!userOpt.isPresent()) {
-            return responseWrapper.universalResponse(
+            return MyResponseWrapper.universalResponse(
                 "User not found",
                 null,
                 HttpStatus.NOT_FOUND
@@ -86,7 +85,7 @@ public class AppUserProfileService {
         AppUserProfile savedProfile = profileRepository.save(profile);
         ProfileResponseDTO responseDTO = profileMapper.toResponseDTO(savedProfile);
 
-        return responseWrapper.universalResponse(
+        return MyResponseWrapper.universalResponse(
             message,
             responseDTO,
             HttpStatus.OK
@@ -98,7 +97,7 @@ public class AppUserProfileService {
         Optional<AppUserProfile> profileOpt = profileRepository.findByUserUserId(userId);
 
         if (!profileOpt.isPresent()) {
-            return responseWrapper.universalResponse(
+            return MyResponseWrapper.universalResponse(
                 "Profile not found",
                 null,
                 HttpStatus.NOT_FOUND
@@ -106,7 +105,7 @@ public class AppUserProfileService {
         }
 
         profileRepository.delete(profileOpt.get());
-        return responseWrapper.universalResponse(
+        return MyResponseWrapper.universalResponse(
             "Profile deleted successfully",
             null,
             HttpStatus.OK
@@ -125,7 +124,7 @@ public class AppUserProfileService {
                 .map(profileMapper::toResponseDTO)
                 .collect(Collectors.toList());
 
-        return responseWrapper.universalResponse(
+        return MyResponseWrapper.universalResponse(
             "Profiles retrieved successfully",
             responseDTOs,
             HttpStatus.OK
@@ -137,7 +136,7 @@ public class AppUserProfileService {
         Optional<AppUserProfile> profileOpt = profileRepository.findByUserUserId(userId);
 
         if (!profileOpt.isPresent()) {
-            return responseWrapper.universalResponse(
+            return MyResponseWrapper.universalResponse(
                 "Profile not found for user ID: " + userId,
                 null,
                 HttpStatus.NOT_FOUND
@@ -145,7 +144,7 @@ public class AppUserProfileService {
         }
 
         ProfileResponseDTO responseDTO = profileMapper.toResponseDTO(profileOpt.get());
-        return responseWrapper.universalResponse(
+        return MyResponseWrapper.universalResponse(
             "Profile retrieved successfully",
             responseDTO,
             HttpStatus.OK
@@ -170,7 +169,7 @@ public class AppUserProfileService {
                 .map(profileMapper::toResponseDTO)
                 .collect(Collectors.toList());
 
-        return responseWrapper.universalResponse(
+        return MyResponseWrapper.universalResponse(
             "Search completed. Found " + responseDTOs.size() + " profiles",
             responseDTOs,
             HttpStatus.OK
@@ -181,7 +180,7 @@ public class AppUserProfileService {
     public ResponseEntity<?> adminUpdateProfile(Long userId, ProfileUpdateDTO profileDTO) {
         Optional<AppUser> userOpt = userRepository.findById(userId);
         if (!userOpt.isPresent()) {
-            return responseWrapper.universalResponse(
+            return MyResponseWrapper.universalResponse(
                 "User not found",
                 null,
                 HttpStatus.NOT_FOUND
@@ -190,7 +189,7 @@ public class AppUserProfileService {
 
         Optional<AppUserProfile> profileOpt = profileRepository.findByUserUserId(userId);
         if (!profileOpt.isPresent()) {
-            return responseWrapper.universalResponse(
+            return MyResponseWrapper.universalResponse(
                 "Profile not found for this user",
                 null,
                 HttpStatus.NOT_FOUND
@@ -202,7 +201,7 @@ public class AppUserProfileService {
         AppUserProfile updatedProfile = profileRepository.save(profile);
 
         ProfileResponseDTO responseDTO = profileMapper.toResponseDTO(updatedProfile);
-        return responseWrapper.universalResponse(
+        return MyResponseWrapper.universalResponse(
             "Profile updated successfully by admin",
             responseDTO,
             HttpStatus.OK
@@ -214,7 +213,7 @@ public class AppUserProfileService {
         Optional<AppUserProfile> profileOpt = profileRepository.findByUserUserId(userId);
 
         if (!profileOpt.isPresent()) {
-            return responseWrapper.universalResponse(
+            return MyResponseWrapper.universalResponse(
                 "Profile not found for user ID: " + userId,
                 null,
                 HttpStatus.NOT_FOUND
@@ -222,7 +221,7 @@ public class AppUserProfileService {
         }
 
         profileRepository.delete(profileOpt.get());
-        return responseWrapper.universalResponse(
+        return MyResponseWrapper.universalResponse(
             "Profile deleted successfully by admin",
             null,
             HttpStatus.OK
@@ -241,7 +240,7 @@ public class AppUserProfileService {
         stats.put("usersWithoutProfile", usersWithoutProfile);
         stats.put("profileCompletionRate", totalUsers > 0 ? (totalProfiles * 100.0 / totalUsers) : 0);
 
-        return responseWrapper.universalResponse(
+        return MyResponseWrapper.universalResponse(
             "Profile statistics retrieved successfully",
             stats,
             HttpStatus.OK
@@ -1,12 +1,15 @@
 package com.namit.services;
 
+import java.time.Instant;
 import java.util.Optional;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.namit.enums.Role;
 import com.namit.models.AppUser;
 import com.namit.repositories.AppUserRepository;
 import com.namit.responsewrapper.MyResponseWrapper;
@@ -21,27 +24,55 @@ public class AppUserService {
 
 	private final AppUserRepository userRepository;
 
-	private final MyResponseWrapper responseWrapper;
 
 	public ResponseEntity<?> register(AppUser appUser) {
 
 		Optional<AppUser> userExist = userRepository.findByUserName(appUser.getUserName());
 		if (userExist.isPresent()) {
 
-			return responseWrapper.universalResponse("User already exits ", null, HttpStatus.CONFLICT);
+			return MyResponseWrapper.universalResponse("User already exits ", null, HttpStatus.CONFLICT);
 
 		}
 
 		// Check if email already exists
 		if (userRepository.existsByEmail(appUser.getEmail())) {
-			return responseWrapper.universalResponse("Email already exists", null, HttpStatus.CONFLICT);
+			return MyResponseWrapper.universalResponse("Email already exists", null, HttpStatus.CONFLICT);
 		}
 
 		appUser.setPassword(passwordEncoder.encode(appUser.getPassword()));
 
 		AppUser savedUser = userRepository.save(appUser);
-		return responseWrapper.universalResponse("User registered successfully", savedUser, HttpStatus.CREATED);
+		return MyResponseWrapper.universalResponse("User registered successfully", savedUser, HttpStatus.CREATED);
 
 	}
 
+	// ADMIN: role and active changes revoke the user's existing tokens (see TokenRevocationList)
+
+	@Transactional
+	public ResponseEntity<?> adminChangeRole(Long userId, Role role) {
+
+		if (!userRepository.existsById(userId)) {
+			return MyResponseWrapper.universalResponse("User not found", null, HttpStatus.NOT_FOUND);
+		}
+
+		if (userRepository.changeRole(userId, role, Instant.now()) == 0) {
+			return MyResponseWrapper.universalResponse("User already has role " + role, null, HttpStatus.OK);
+		}
+		return MyResponseWrapper.universalResponse("Role changed, existing tokens revoked", null, HttpStatus.OK);
+	}
+
+	@Transactional
+	public ResponseEntity<?> adminSetActive(Long userId, boolean active) {
+
+		if (!userRepository.existsById(userId)) {
+			return MyResponseWrapper.universalResponse("User not found", null, HttpStatus.NOT_FOUND);
+		}
+
+		String state = active ? "active" : "deactivated";
+		if (userRepository.changeActive(userId, active, Instant.now()) == 0) {
+			return MyResponseWrapper.universalResponse("User already " + state, null, HttpStatus.OK);
+		}
+		return MyResponseWrapper.universalResponse("User " + state + ", existing tokens revoked", null, HttpStatus.OK);
+	}
+
 }
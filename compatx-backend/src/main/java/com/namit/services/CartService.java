@@ -9,11 +9,15 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.namit.cache.ProductCache;
+import com.namit.dtos.auth.CustomerProductDTO;
 import com.namit.dtos.cart.AddToCartDTO;
 import com.namit.dtos.cart.CartItemResponseDTO;
 import com.namit.dtos.cart.CartResponseDTO;
 import com.namit.dtos.cart.ProductInCartDTO;
 import com.namit.dtos.cart.UpdateCartItemDTO;
+import com.namit.inventory.FlashSaleInventory;
+import com.namit.mappers.CustomerProductMapper;
 import com.namit.models.AppUser;
 import com.namit.models.Cart;
 import com.namit.models.CartItem;
@@ -24,18 +28,21 @@ import com.namit.repositories.CartRepository;
 import com.namit.repositories.ProductRepository;
 import com.namit.responsewrapper.MyResponseWrapper;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
+@Timed("compatx.service")
 public class CartService {
 
     private final CartRepository cartRepository;
     private final CartItemRepository cartItemRepository;
     private final ProductRepository productRepository;
     private final AppUserRepository userRepository;
-    private final MyResponseWrapper responseWrapper;
+    private final ProductCache productCache;
+    private final FlashSaleInventory flashSaleInventory;
 
     // GET CART — PURE READ
     @Transactional(readOnly = true)
@@ -51,26 +58,28 @@ public class CartService {
                 .updatedAt(null)
                 .build();
 
-            return responseWrapper.universalResponse("Cart retrieved", empty, HttpStatus.OK);
+            return MyResponseWrapper.universalResponse("Cart retrieved", empty, HttpStatus.OK);
         }
 
         CartResponseDTO response = mapToCartResponse(cartOpt.get());
-        return responseWrapper.universalResponse("Cart retrieved", response, HttpStatus.OK);
+        return MyResponseWrapper.universalResponse("Cart retrieved", response, HttpStatus.OK);
     }
 
     // ADD TO CART — CREATES CART IF MISSING
     public ResponseEntity<?> addToCart(Long userId, AddToCartDTO request) {
 
-        Optional<Product> productOpt = productRepository.findById(request.getProductId());
+        // stock check against the cached snapshot, placeOrder re-checks against the row
+        Optional<CustomerProductDTO> productOpt = productCache.get(request.getProductId());
         if (!productOpt.isPresent()) {
-            return responseWrapper.universalResponse("Product not found", null, HttpStatus.NOT_FOUND);
+            return MyResponseWrapper.universalResponse("Product not found", null, HttpStatus.NOT_FOUND);
         }
 
-        Product product = productOpt.get();
+        CustomerProductDTO product = productOpt.get();
+        long stock = availableStock(product.getId(), product.getStock());
 
-        if (product.getStock() < request.getQuantity()) {
-            return responseWrapper.universalResponse(
-                "Insufficient stock. Available: " + product.getStock(),
+        if (stock < request.getQuantity()) {
+            return MyResponseWrapper.universalResponse(
+                "Insufficient stock. Available: " + stock,
                 null,
                 HttpStatus.BAD_REQUEST
             );
@@ -85,9 +94,9 @@ public class CartService {
             CartItem item = existingItem.get();
             int newQty = item.getQuantity() + request.getQuantity();
 
-            if (product.getStock() < newQty) {
-                return responseWrapper.universalResponse(
-                    "Cannot add more. Available stock: " + product.getStock(),
+            if (stock < newQty) {
+                return MyResponseWrapper.universalResponse(
+                    "Cannot add more. Available stock: " + stock,
                     null,
                     HttpStatus.BAD_REQUEST
                 );
@@ -98,7 +107,7 @@ public class CartService {
         } else {
             CartItem cartItem = new CartItem();
             cartItem.setCart(cart);
-            cartItem.setProduct(product);
+            cartItem.setProduct(productRepository.getReferenceById(product.getId())); // no SELECT, FK only
             cartItem.setQuantity(request.getQuantity());
             cartItem.setPriceAtAdd(product.getPrice());
 
@@ -107,7 +116,7 @@ public class CartService {
         }
 
         cartRepository.save(cart);
-        return responseWrapper.universalResponse("Item added to cart", 
+        return MyResponseWrapper.universalResponse("Item added to cart", 
                 mapToCartResponse(cart), HttpStatus.OK);
     }
 
@@ -117,15 +126,16 @@ public class CartService {
         Optional<CartItem> cartItemOpt = cartItemRepository.findByIdAndUserId(cartItemId, userId);
 
         if (!cartItemOpt.isPresent()) {
-            return responseWrapper.universalResponse("Cart item not found", null, HttpStatus.NOT_FOUND);
+            return MyResponseWrapper.universalResponse("Cart item not found", null, HttpStatus.NOT_FOUND);
         }
 
         CartItem cartItem = cartItemOpt.get();
         Product product = cartItem.getProduct();
+        long stock = availableStock(product.getId(), product.getStock());
 
-        if (product.getStock() < request.getQuantity()) {
-            return responseWrapper.universalResponse(
-                "Insufficient stock. Available: " + product.getStock(),
+        if (stock < request.getQuantity()) {
+            return MyResponseWrapper.universalResponse(
+                "Insufficient stock. Available: " + stock,
                 null,
                 HttpStatus.BAD_REQUEST
             );
@@ -134,7 +144,7 @@ public class CartService {
         cartItem.setQuantity(request.getQuantity());
         cartItemRepository.save(cartItem);
 
-        return responseWrapper.universalResponse("Cart item updated", 
+        return MyResponseWrapper.universalResponse("Cart item updated", 
                 mapToCartResponse(cartItem.getCart()), HttpStatus.OK);
     }
 
@@ -144,7 +154,7 @@ public class CartService {
         Optional<CartItem> cartItemOpt = cartItemRepository.findByIdAndUserId(cartItemId, userId);
 
         if (!cartItemOpt.isPresent()) {
-            return responseWrapper.universalResponse("Cart item not found", null, HttpStatus.NOT_FOUND);
+            return MyResponseWrapper.universalResponse("Cart item not found", null, HttpStatus.NOT_FOUND);
         }
 
         CartItem item = cartItemOpt.get();
@@ -153,7 +163,7 @@ public class CartService {
         cart.removeItem(item);
         cartItemRepository.delete(item);
 
-        return responseWrapper.universalResponse("Item removed", 
+        return MyResponseWrapper.universalResponse("Item removed", 
                 mapToCartResponse(cart), HttpStatus.OK);
     }
 
@@ -163,7 +173,7 @@ public class CartService {
         Optional<Cart> cartOpt = cartRepository.findByUser_UserId(userId);
 
         if (!cartOpt.isPresent()) {
-            return responseWrapper.universalResponse("Cart not found", null, HttpStatus.NOT_FOUND);
+            return MyResponseWrapper.universalResponse("Cart not found", null, HttpStatus.NOT_FOUND);
         }
 
         Cart cart = cartOpt.get();
@@ -171,7 +181,7 @@ public class CartService {
         cartItemRepository.deleteByCart_CartId(cart.getCartId());
         cartRepository.save(cart);
 
-        return responseWrapper.universalResponse("Cart cleared", null, HttpStatus.OK);
+        return MyResponseWrapper.universalResponse("Cart cleared", null, HttpStatus.OK);
     }
 
     // COUNT ITEMS PURE READ
@@ -181,11 +191,11 @@ public class CartService {
         Optional<Cart> cartOpt = cartRepository.findByUser_UserId(userId);
 
         if (!cartOpt.isPresent()) {
-            return responseWrapper.universalResponse("Cart count retrieved", 0, HttpStatus.OK);
+            return MyResponseWrapper.universalResponse("Cart count retrieved", 0, HttpStatus.OK);
         }
 
         Integer count = cartItemRepository.getTotalQuantityByCartId(cartOpt.get().getCartId());
-        return responseWrapper.universalResponse("Cart count retrieved", count, HttpStatus.OK);
+        return MyResponseWrapper.universalResponse("Cart count retrieved", count, HttpStatus.OK);
     }
 
     // HELPERS
@@ -205,6 +215,10 @@ public class CartService {
         return cartRepository.save(newCart);
     }
 
+    // flash-sale products are counted in their sharded counters, not the row
+    private long availableStock(Long productId, Integer rowStock) {
+        return flashSaleInventory.available(productId).orElse(rowStock);
+    }
 
     private CartResponseDTO mapToCartResponse(Cart cart) {
         List<CartItemResponseDTO> itemDTOs = cart.getItems().stream()
@@ -221,14 +235,16 @@ public class CartService {
     }
 
     private CartItemResponseDTO mapToCartItemResponse(CartItem item) {
-        Product product = item.getProduct();
+        // product fields come from the cache, the item only needs the FK
+        CustomerProductDTO product = productCache.get(item.getProduct().getId())
+            .orElseGet(() -> CustomerProductMapper.toDTO(item.getProduct()));
 
         ProductInCartDTO productDTO = ProductInCartDTO.builder()
             .productId(product.getId())
             .productName(product.getProductName())
             .brand(product.getBrand())
             .imageUrl(product.getImageUrl())
-            .availableStock(product.getStock())
+            .availableStock((int) availableStock(product.getId(), product.getStock()))
             .currentPrice(product.getPrice())
             .build();
 
@@ -19,7 +19,6 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
     
-    private final MyResponseWrapper responseWrapper;
     
 
     
@@ -31,13 +30,13 @@ public class CategoryService {
         
         if (categoryExists.isPresent()) {
             
-            return responseWrapper.universalResponse("The category already Exists", null, HttpStatus.CONFLICT);
+            return MyResponseWrapper.universalResponse("The category already Exists", null, HttpStatus.CONFLICT);
             
         } else {
             
             Category savedCategory =  categoryRepository.save(category);
             
-            return responseWrapper.universalResponse("The category created Successfully !", savedCategory, HttpStatus.CREATED);
+            return MyResponseWrapper.universalResponse("The category created Successfully !", savedCategory, HttpStatus.CREATED);
         }
     }
     
@@ -49,11 +48,11 @@ public class CategoryService {
         List<Category> categories = categoryRepository.findAll();
         
         if (categories.size() == 0) {
-            return responseWrapper.universalResponse(" currently There are no categories ", null, HttpStatus.OK);
+            return MyResponseWrapper.universalResponse(" currently There are no categories ", null, HttpStatus.OK);
             
         } else {
             
-            return responseWrapper.universalResponse("Categories Found ", categories, HttpStatus.OK);
+            return MyResponseWrapper.universalResponse("Categories Found ", categories, HttpStatus.OK);
 
         }
     }
@@ -66,7 +65,7 @@ public class CategoryService {
         Optional<Category> categoryExist = categoryRepository.findById(categoryId);
         
         if (!categoryExist.isPresent()) {
-            return responseWrapper.universalResponse(
+            return MyResponseWrapper.universalResponse(
                     "The Category with id " + categoryId + " does not exist",
                     null,
                     HttpStatus.NOT_FOUND
@@ -80,7 +79,7 @@ public class CategoryService {
             
             Category savedCategory = categoryRepository.save(existingCategory);
             
-            return responseWrapper.universalResponse(
+            return MyResponseWrapper.universalResponse(
                     "Category updated successfully",
                     savedCategory,
                     HttpStatus.OK
@@ -97,12 +96,12 @@ public class CategoryService {
         
             if (!category.isPresent()) {
                 
-                return responseWrapper.universalResponse("The Category does Not exists ", null, HttpStatus.NOT_FOUND);
+                return MyResponseWrapper.universalResponse("The Category does Not exists ", null, HttpStatus.NOT_FOUND);
                 
             } else {
                 
                 categoryRepository.deleteById(categoryId);
-                    return responseWrapper.universalResponse("Category Deleted successfully", null, HttpStatus.OK);
+                    return MyResponseWrapper.universalResponse("Category Deleted successfully", null, HttpStatus.OK);
             }
             
     }
@@ -111,7 +110,7 @@ public class CategoryService {
     public ResponseEntity<?> getAllCustomerCategories() {
         List<Category> categories = categoryRepository.findAll();
 
-        return responseWrapper.universalResponse(
+        return MyResponseWrapper.universalResponse(
                 "All categories",
                 categories,
                 HttpStatus.OK
@@ -0,0 +1,223 @@
+package com.namit.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.namit.enums.EmailStatus;
+import com.namit.models.EmailOutbox;
+import com.namit.repositories.EmailOutboxRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Delivers queued emails from the outbox.
+ *
+ * Each run takes at most app.email.outbox.max-batches batches of
+ * app.email.outbox.batch-size due emails and sends every batch through one
+ * SMTP connection (JavaMailSender.send(SimpleMailMessage...)). Failed emails
+ * are retried with exponential backoff and marked FAILED after
+ * app.email.outbox.max-attempts.
+ *
+ * A batch is claimed (claimed_by = a fresh id, claimed_until = now +
+ * app.email.outbox.claim-ms) in its own transaction before anything is sent,
+ * so several instances can dispatch without sending the same email twice.
+ * Results are written only to rows the claim still holds. Delivery is at least
+ * once: a claim left behind by a dead process lapses and its emails are sent
+ * again.
+ */
+@Service
+@Slf4j
+public class EmailOutboxDispatcher {
+
+        private static final int MAX_ERROR_LENGTH = 1000;
+
+        private final EmailOutboxRepository emailOutboxRepository;
+        private final JavaMailSender mailSender;
+        private final TransactionTemplate transactionTemplate;
+
+        private final String fromEmail;
+        private final int batchSize;
+        private final int maxBatches;
+        private final int maxAttempts;
+        private final Duration initialBackoff;
+        private final Duration maxBackoff;
+        private final Duration claimDuration;
+
+        private final Counter sentCounter;
+        private final Counter retryCounter;
+        private final Counter failedCounter;
+
+        public EmailOutboxDispatcher(EmailOutboxRepository emailOutboxRepository,
+                        JavaMailSender mailSender,
+                        TransactionTemplate transactionTemplate,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.email.from}") String fromEmail,
+                        @Value("${app.email.outbox.batch-size:50}") int batchSize,
+                        @Value("${app.email.outbox.max-batches:10}") int maxBatches,
+                        @Value("${app.email.outbox.max-attempts:6}") int maxAttempts,
+                        @Value("${app.email.outbox.initial-backoff-ms:30000}") long initialBackoffMs,
+                        @Value("${app.email.outbox.max-backoff-ms:3600000}") long maxBackoffMs,
+                        @Value("${app.email.outbox.claim-ms:300000}") long claimMs) {
+                this.emailOutboxRepository = emailOutboxRepository;
+                this.mailSender = mailSender;
+                this.transactionTemplate = transactionTemplate;
+                this.fromEmail = fromEmail;
+                this.batchSize = batchSize;
+                this.maxBatches = maxBatches;
+                this.maxAttempts = maxAttempts;
+                this.initialBackoff = Duration.ofMillis(initialBackoffMs);
+                this.maxBackoff = Duration.ofMillis(maxBackoffMs);
+                this.claimDuration = Duration.ofMillis(claimMs);
+
+                this.sentCounter = meterRegistry.counter("compatx.email.sends", "outcome", "sent");
+                this.retryCounter = meterRegistry.counter("compatx.email.sends", "outcome", "retry");
+                this.failedCounter = meterRegistry.counter("compatx.email.sends", "outcome", "failed");
+        }
+
+        // returns the number of emails sent
+        @Scheduled(initialDelayString = "${app.email.outbox.poll-ms:1000}", fixedDelayString = "${app.email.outbox.poll-ms:1000}")
+        public int dispatch() {
+                int sent = 0;
+
+                for (int batch = 0; batch < maxBatches; batch++) {
+                        String claim = UUID.randomUUID().toString();
+                        List<EmailOutbox> due = claimDue(claim);
+                        if (due.isEmpty()) {
+                                break;
+                        }
+
+                        Map<Long, String> failures = send(due);
+                        sent += record(claim, failures);
+
+                        if (due.size() < batchSize) {
+                                break;
+                        }
+                }
+
+                return sent;
+        }
+
+        // HELPERS
+
+        // up to batchSize due rows, claimed and committed before the SMTP send
+        private List<EmailOutbox> claimDue(String claim) {
+                return transactionTemplate.execute(tx -> {
+                        Instant now = Instant.now();
+                        List<Long> ids = emailOutboxRepository.findDueIds(now, PageRequest.of(0, batchSize));
+                        if (ids.isEmpty() || emailOutboxRepository.claim(ids, claim, now, now.plus(claimDuration)) == 0) {
+                                return List.of();
+                        }
+                        return emailOutboxRepository.findClaimed(claim);
+                });
+        }
+
+        // one connection for the whole batch, failures reported per email
+        private Map<Long, String> send(List<EmailOutbox> batch) {
+                SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+                for (int i = 0; i < batch.size(); i++) {
+                        messages[i] = toMessage(batch.get(i));
+                }
+
+                Map<Long, String> failures = new HashMap<>();
+                try {
+                        mailSender.send(messages);
+                } catch (MailSendException e) {
+                        if (e.getFailedMessages().isEmpty()) {
+                                batch.forEach(email -> failures.put(email.getId(), describe(e)));
+                        } else {
+                                for (int i = 0; i < messages.length; i++) {
+                                        Exception cause = failedCause(e, messages[i]);
+                                        if (cause != null) {
+                                                failures.put(batch.get(i).getId(), describe(cause));
+                                        }
+                                }
+                        }
+                } catch (MailException e) {
+                        batch.forEach(email -> failures.put(email.getId(), describe(e)));
+                }
+                return failures;
+        }
+
+        // returns the number recorded as sent; rows whose claim lapsed and was taken over are skipped
+        private int record(String claim, Map<Long, String> failures) {
+                return transactionTemplate.execute(tx -> {
+                        Instant now = Instant.now();
+                        List<EmailOutbox> claimed = emailOutboxRepository.findClaimed(claim);
+                        int sent = 0;
+
+                        for (EmailOutbox email : claimed) {
+                                String error = failures.get(email.getId());
+                                email.setAttempts(email.getAttempts() + 1);
+                                email.setClaimedBy(null);
+                                email.setClaimedUntil(null);
+
+                                if (error == null) {
+                                        email.setStatus(EmailStatus.SENT);
+                                        email.setSentAt(now);
+                                        email.setLastError(null);
+                                        sentCounter.increment();
+                                        sent++;
+                                } else if (email.getAttempts() >= maxAttempts) {
+                                        email.setStatus(EmailStatus.FAILED);
+                                        email.setLastError(error);
+                                        failedCounter.increment();
+                                        log.error("Email {} to {} failed permanently: {}", email.getId(), email.getRecipient(), error);
+                                } else {
+                                        email.setNextAttemptAt(now.plus(backoff(email.getAttempts())));
+                                        email.setLastError(error);
+                                        retryCounter.increment();
+                                        log.warn("Email {} attempt {} failed, retrying: {}", email.getId(), email.getAttempts(), error);
+                                }
+                        }
+
+                        emailOutboxRepository.saveAll(claimed);
+                        return sent;
+                });
+        }
+
+        // initialBackoff * 2^(attempts - 1), capped
+        private Duration backoff(int attempts) {
+                Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+                return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+        }
+
+        private SimpleMailMessage toMessage(EmailOutbox email) {
+                SimpleMailMessage message = new SimpleMailMessage();
+                message.setFrom(fromEmail);
+                message.setTo(email.getRecipient());
+                message.setSubject(email.getSubject());
+                message.setText(email.getBody());
+                return message;
+        }
+
+        private static Exception failedCause(MailSendException e, SimpleMailMessage message) {
+                for (Map.Entry<Object, Exception> failed : e.getFailedMessages().entrySet()) {
+                        if (failed.getKey() == message) {
+                                return failed.getValue();
+                        }
+                }
+                return null;
+        }
+
+        private static String describe(Exception e) {
+                String text = e.getClass().getSimpleName() + ": " + e.getMessage();
+                return text.length() > MAX_ERROR_LENGTH ? text.substring(0, MAX_ERROR_LENGTH) : text;
+        }
+}
@@ -1,33 +1,36 @@
 package com.namit.services;
 
+import java.time.Instant;
+
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.namit.models.EmailOutbox;
+import com.namit.models.Order;
+import com.namit.models.OrderItem;
+import com.namit.repositories.EmailOutboxRepository;
+
 import lombok.RequiredArgsConstructor;
 
+/**
+ * Renders emails and queues them in the outbox, inside the caller's
+ * transaction. Delivery happens in EmailOutboxDispatcher.
+ */
 @Service
 @RequiredArgsConstructor
+@Transactional
 public class EmailService {
 
-        private final JavaMailSender mailSender;
-
-        @Value("${app.email.from}")
-        private String fromEmail;
+        private final EmailOutboxRepository emailOutboxRepository;
 
         @Value("${app.frontend.url}")
         private String frontendUrl;
 
-        @Async
-        public void sendPasswordResetEmail(String toEmail, String token) {
+        public void queuePasswordResetEmail(String toEmail, String token) {
                 String resetLink = frontendUrl + "/reset-password?token=" + token;
 
-                SimpleMailMessage message = new SimpleMailMessage();
-                message.setFrom(fromEmail);
-                message.setTo(toEmail);
-                message.setSubject("CompatX - Password Reset Request");
-                message.setText(
+                queue(toEmail, "CompatX - Password Reset Request",
                                 "Hello,\n\n" +
                                                 "You requested to reset your password. Click the link below to reset it:\n\n"
                                                 +
@@ -36,33 +39,16 @@ public class EmailService {
                                                 "If you didn't request this, please ignore this email.\n\n" +
                                                 "Best regards,\n" +
                                                 "CompatX Team");
-
-                mailSender.send(message);
         }
 
-        @Async
-        public void sendOrderConfirmationEmail(
-                        String toEmail,
-                        String customerName,
-                        Long orderId,
-                        String deliveryOtp,
-                        Double totalAmount,
-                        String paymentMethod,
-                        String shippingAddress,
-                        String shippingCity,
-                        String shippingState,
-                        String shippingPincode,
-                        int itemCount,
-                        java.util.List<com.namit.models.OrderItem> orderItems) {
+        // rendered here, while the order items and products are still attached
+        public void queueOrderConfirmationEmail(String toEmail, Order order) {
 
-                SimpleMailMessage message = new SimpleMailMessage();
-                message.setFrom(fromEmail);
-                message.setTo(toEmail);
-                message.setSubject("Your Order #" + orderId + " has been confirmed!");
+                Long orderId = order.getOrderId();
 
                 // Build items list
                 StringBuilder itemsList = new StringBuilder();
-                for (com.namit.models.OrderItem item : orderItems) {
+                for (OrderItem item : order.getOrderItems()) {
                         itemsList.append(String.format("  • %s x%d - ₹%.2f\n",
                                         item.getProduct().getProductName(),
                                         item.getQuantity(),
@@ -105,23 +91,33 @@ public class EmailService {
                                                 "- The CompatX Team\n\n" +
                                                 "────────────────────────────────────────────────────────\n" +
                                                 "This is an automated message. Please do not reply directly.\n",
-                                customerName,
+                                order.getShippingFullName(),
                                 orderId,
                                 java.time.LocalDateTime.now().format(
                                                 java.time.format.DateTimeFormatter.ofPattern("MMM dd, yyyy hh:mm a")),
-                                paymentMethod.equals("CASH_ON_DELIVERY") ? "Cash on Delivery" : "Online Payment (Paid)",
-                                itemCount,
+                                order.getPaymentMethod() == com.namit.enums.PaymentMethod.CASH_ON_DELIVERY
+                                                ? "Cash on Delivery" : "Online Payment (Paid)",
+                                order.getTotalItems(),
                                 itemsList.toString(),
-                                totalAmount,
-                                shippingAddress,
-                                shippingCity,
-                                shippingState,
-                                shippingPincode,
-                                deliveryOtp,
+                                order.getTotalAmount(),
+                                order.getShippingAddress(),
+                                order.getShippingCity(),
+                                order.getShippingState(),
+                                order.getShippingPincode(),
+                                order.getDeliveryOtp(),
                                 frontendUrl,
                                 orderId);
 
-                message.setText(emailBody);
-                mailSender.send(message);
+                queue(toEmail, "Your Order #" + orderId + " has been confirmed!", emailBody);
+        }
+
+        private void queue(String toEmail, String subject, String body) {
+                EmailOutbox email = new EmailOutbox();
+                email.setRecipient(toEmail);
+                email.setSubject(subject);
+                email.setBody(body);
+                email.setCreatedAt(Instant.now());
+                email.setNextAttemptAt(email.getCreatedAt());
+                emailOutboxRepository.save(email);
         }
 }
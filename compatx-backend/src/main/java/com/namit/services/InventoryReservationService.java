@@ -0,0 +1,108 @@
+package com.namit.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.namit.cache.ProductCache;
+import com.namit.inventory.FlashSaleInventory;
+import com.namit.inventory.FlashSaleInventory.Claim;
+import com.namit.repositories.ProductRepository;
+import com.namit.search.ProductFilterIndex;
+import com.namit.search.ProductSearchIndex;
+import com.namit.search.ProductSuggestIndex;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Reserves and releases product stock.
+ *
+ * Each line is one conditional UPDATE (stock = stock - qty WHERE stock >= qty),
+ * so concurrent checkouts can never oversell and only hold the row lock for
+ * the duration of that statement. Lines are applied in product id order to
+ * avoid lock-order deadlocks between multi-line orders. Products in flash-sale
+ * mode are claimed from their sharded counters and never touch the row here.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class InventoryReservationService {
+
+        private final ProductRepository productRepository;
+        private final ProductCache productCache;
+        private final ProductFilterIndex productFilterIndex;
+        private final ProductSearchIndex productSearchIndex;
+        private final ProductSuggestIndex productSuggestIndex;
+        private final FlashSaleInventory flashSaleInventory;
+
+        public record Result(List<Long> reserved, List<Long> failed) {
+
+                public boolean isSuccess() {
+                        return failed.isEmpty();
+                }
+        }
+
+        /**
+         * Reserve all lines (productId -> quantity) or none. Lines already taken
+         * are given back when another line fails, and the failing ids are returned.
+         */
+        public Result reserve(Map<Long, Integer> quantities) {
+                List<Long> reserved = new ArrayList<>();
+                List<Long> failed = new ArrayList<>();
+
+                for (Map.Entry<Long, Integer> line : new TreeMap<>(quantities).entrySet()) {
+                        if (take(line.getKey(), line.getValue())) {
+                                reserved.add(line.getKey());
+                        } else {
+                                failed.add(line.getKey());
+                        }
+                }
+
+                if (!failed.isEmpty()) {
+                        for (Long productId : reserved) {
+                                giveBack(productId, quantities.get(productId));
+                        }
+                        return new Result(List.of(), failed);
+                }
+
+                for (Long productId : reserved) {
+                        productCache.evictAfterCommit(productId);
+                        productSuggestIndex.addSalesAfterCommit(productId, quantities.get(productId));
+                }
+                return new Result(reserved, failed);
+        }
+
+        // give stock back (order cancelled)
+        public void release(Map<Long, Integer> quantities) {
+                for (Map.Entry<Long, Integer> line : new TreeMap<>(quantities).entrySet()) {
+                        giveBack(line.getKey(), line.getValue());
+                        productCache.evictAfterCommit(line.getKey());
+                        productSuggestIndex.addSalesAfterCommit(line.getKey(), -line.getValue());
+                }
+        }
+
+        private boolean take(Long productId, int qty) {
+                Claim claim = flashSaleInventory.claim(productId, qty);
+                if (claim != Claim.NOT_ON_SALE) {
+                        return claim == Claim.CLAIMED;
+                }
+                if (productRepository.decrementStock(productId, qty) == 1) {
+                        productFilterIndex.adjustStockAfterCommit(productId, -qty);
+                        productSearchIndex.adjustStockAfterCommit(productId, -qty);
+                        return true;
+                }
+                return false;
+        }
+
+        private void giveBack(Long productId, int qty) {
+                if (!flashSaleInventory.release(productId, qty)) {
+                        productRepository.incrementStock(productId, qty);
+                        productFilterIndex.adjustStockAfterCommit(productId, qty);
+                        productSearchIndex.adjustStockAfterCommit(productId, qty);
+                }
+        }
+}
@@ -0,0 +1,106 @@
+package com.namit.services;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.namit.enums.OrderStatus;
+import com.namit.models.Order;
+import com.namit.models.OrderItem;
+import com.namit.models.OrderSeller;
+import com.namit.repositories.OrderRepository;
+import com.namit.repositories.OrderSellerRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maintains the order_sellers link table used by the admin order queries.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+@Slf4j
+public class OrderSellerService {
+
+        private final OrderSellerRepository orderSellerRepository;
+        private final OrderRepository orderRepository;
+        private final TransactionTemplate transactionTemplate;
+
+        // one link per distinct product owner, written with the order
+        public void recordPlaced(Order order) {
+                Set<Long> sellerIds = new LinkedHashSet<>();
+                for (OrderItem item : order.getOrderItems()) {
+                        sellerIds.add(item.getProduct().getUser().getUserId());
+                }
+
+                for (Long sellerId : sellerIds) {
+                        OrderSeller link = new OrderSeller();
+                        link.setOrder(order);
+                        link.setSellerId(sellerId);
+                        link.setStatus(order.getStatus());
+                        link.setCreatedAt(order.getCreatedAt());
+                        orderSellerRepository.save(link);
+                }
+        }
+
+        public void recordStatus(Order order) {
+                orderSellerRepository.updateStatus(order.getOrderId(), order.getStatus());
+        }
+
+        public boolean isSellerOf(Long sellerId, Long orderId) {
+                return orderSellerRepository.existsByOrder_OrderIdAndSellerId(orderId, sellerId);
+        }
+
+        /**
+         * Links every (order, seller) pair that has none yet, e.g. orders placed
+         * before the link table existed. Runs on every start and only inserts
+         * what is missing, so orders placed meanwhile keep their own links. The
+         * unique (order_id, seller_id) key settles two instances racing: the
+         * loser rolls back and looks again.
+         */
+        @EventListener(ApplicationReadyEvent.class)
+        @Transactional(propagation = Propagation.NOT_SUPPORTED)
+        public void backfillMissing() {
+                for (int attempt = 1; ; attempt++) {
+                        try {
+                                int linked = transactionTemplate.execute(tx -> linkMissing());
+                                if (linked > 0) {
+                                        log.info("Order seller links backfilled: {}", linked);
+                                }
+                                return;
+                        } catch (DataIntegrityViolationException e) {
+                                if (attempt == 2) {
+                                        log.warn("Order seller link backfill raced another instance twice, giving up", e);
+                                        return;
+                                }
+                        }
+                }
+        }
+
+        private int linkMissing() {
+                List<OrderSeller> links = new ArrayList<>();
+                for (Object[] row : orderRepository.findMissingOrderSellerRows()) {
+                        OrderSeller link = new OrderSeller();
+                        link.setOrder(orderRepository.getReferenceById((Long) row[0]));
+                        link.setSellerId((Long) row[1]);
+                        link.setStatus((OrderStatus) row[2]);
+                        link.setCreatedAt((Instant) row[3]);
+                        links.add(link);
+                }
+
+                orderSellerRepository.saveAll(links);
+                orderSellerRepository.flush();
+                return links.size();
+        }
+}
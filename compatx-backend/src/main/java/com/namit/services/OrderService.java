@@ -1,7 +1,9 @@
 package com.namit.services;
 
 import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
@@ -12,18 +14,16 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.namit.dtos.order.AdminOrderResponseDTO;
 import com.namit.dtos.order.CancelOrderRequest;
 import com.namit.dtos.order.OrderItemResponseDTO;
 import com.namit.dtos.order.OrderResponseDTO;
-import com.namit.dtos.order.OrderStatsDTO;
-import com.namit.dtos.order.OrderSummaryDTO;
 import com.namit.dtos.order.PlaceOrderRequest;
-import com.namit.dtos.order.ShippingAddressDTO;
 import com.namit.dtos.order.UpdateOrderStatusRequest;
 import com.namit.enums.OrderStatus;
 import com.namit.enums.PaymentStatus;
 import com.namit.globalexceptions.CartEmptyException;
+import com.namit.globalexceptions.InsufficientStockException;
+import com.namit.mappers.OrderMapper;
 import com.namit.models.AppUser;
 import com.namit.models.AppUserProfile;
 import com.namit.models.Cart;
@@ -33,24 +33,33 @@ import com.namit.models.OrderItem;
 import com.namit.models.Product;
 import com.namit.repositories.AppUserProfileRepository;
 import com.namit.repositories.AppUserRepository;
+import com.namit.repositories.CartItemRepository;
 import com.namit.repositories.CartRepository;
 
 import com.namit.repositories.OrderRepository;
+import com.namit.repositories.OrderSellerRepository;
 import com.namit.specifications.OrderSpecifications;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
+@Timed("compatx.service")
 public class OrderService {
 
         private final OrderRepository orderRepository;
+        private final OrderSellerRepository orderSellerRepository;
         // private final OrderItemRepository orderItemRepository;
         private final CartRepository cartRepository;
+        private final CartItemRepository cartItemRepository;
         private final AppUserRepository userRepository;
         private final AppUserProfileRepository profileRepository;
         private final EmailService emailService;
+        private final InventoryReservationService inventoryReservationService;
+        private final OrderStatsService orderStatsService;
+        private final OrderSellerService orderSellerService;
 
         // USER
 
@@ -65,7 +74,7 @@ public class OrderService {
 
                 // Map Cart items to OrderItemResponseDTOs
                 List<OrderItemResponseDTO> items = cart.getItems().stream()
-                                .map(this::mapCartItemToResponse)
+                                .map(OrderMapper::toPreviewItem)
                                 .collect(Collectors.toList());
 
                 // Calculate tax and shipping for preview
@@ -88,27 +97,19 @@ public class OrderService {
                                                 .build());
         }
 
-        private OrderItemResponseDTO mapCartItemToResponse(CartItem cartItem) {
-                Product product = cartItem.getProduct();
-                return OrderItemResponseDTO.builder()
-                                .orderItemId(null) // No order item ID yet
-                                .quantity(cartItem.getQuantity())
-                                .priceAtOrder(cartItem.getPriceAtAdd()) // Using current price/add price
-                                .subtotal(cartItem.getPriceAtAdd() * cartItem.getQuantity())
-                                .product(com.namit.dtos.order.ProductInOrderDTO.builder()
-                                                .productId(product.getId()) // Fixed: getId() instead of getProductId()
-                                                .productName(product.getProductName())
-                                                .imageUrl(product.getImageUrl())
-                                                .build())
-                                .build();
-        }
-
+        /**
+         * Builds the complete order state (items, payment, delivery OTP) before
+         * writing anything, then writes it in one flush: batched order, item and
+         * seller-link inserts, one bulk delete of the cart items and the stats
+         * counters. Stock is reserved last so product row locks are held only
+         * until commit.
+         */
         public ResponseEntity<?> placeOrder(Long userId, PlaceOrderRequest request) {
 
                 AppUser user = userRepository.findById(userId)
                                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-                Cart cart = cartRepository.findByUser_UserId(userId)
+                Cart cart = cartRepository.findForCheckout(userId)
                                 .orElseThrow(() -> new RuntimeException("Cart not found"));
 
                 if (cart.getItems().isEmpty()) {
@@ -153,69 +154,59 @@ public class OrderService {
                         order.setAlternatePhone(request.getAlternatePhone());
                 }
 
+                // AUTO-CONFIRM STRIPE ORDERS (TEST MODE SIMULATION)
+                // In production, this would be done via webhook after actual payment
+                if (order.getPaymentMethod() == com.namit.enums.PaymentMethod.STRIPE) {
+                        order.setStatus(OrderStatus.CONFIRMED);
+                        order.setPaymentStatus(PaymentStatus.COMPLETED);
+                        order.setConfirmedAt(Instant.now());
+                        order.setTransactionId("stripe_test_" + System.currentTimeMillis());
+                }
+
+                // DELIVERY OTP
+                String deliveryOtp = generateDeliveryOTP();
+                order.setDeliveryOtp(deliveryOtp);
+                order.setOtpGeneratedAt(Instant.now());
+                order.setOtpExpiresAt(Instant.now().plus(7, java.time.temporal.ChronoUnit.DAYS));
+                order.setOtpVerified(false);
+
                 // ORDER ITEMS
+                Map<Long, Integer> quantities = new LinkedHashMap<>();
+                Map<Long, String> names = new LinkedHashMap<>();
                 for (CartItem cartItem : cart.getItems()) {
 
                         Product product = cartItem.getProduct();
 
-                        if (product.getStock() < cartItem.getQuantity()) {
-                                throw new RuntimeException(
-                                                "Insufficient stock for product: " + product.getProductName());
-                        }
-
-                        product.setStock(product.getStock() - cartItem.getQuantity());
-
                         OrderItem orderItem = new OrderItem();
                         orderItem.setProduct(product);
                         orderItem.setQuantity(cartItem.getQuantity());
                         orderItem.setPriceAtOrder(cartItem.getPriceAtAdd());
 
                         order.addOrderItem(orderItem);
-                }
-
-                Order savedOrder = orderRepository.save(order);
-                cart.clearItems();
 
-                // AUTO-CONFIRM STRIPE ORDERS (TEST MODE SIMULATION)
-                // In production, this would be done via webhook after actual payment
-                if (savedOrder.getPaymentMethod() == com.namit.enums.PaymentMethod.STRIPE) {
-                        savedOrder.setStatus(OrderStatus.CONFIRMED);
-                        savedOrder.setPaymentStatus(PaymentStatus.COMPLETED);
-                        savedOrder.setConfirmedAt(Instant.now());
-                        savedOrder.setTransactionId("stripe_test_" + System.currentTimeMillis());
-                        orderRepository.save(savedOrder);
+                        quantities.merge(product.getId(), cartItem.getQuantity(), Integer::sum);
+                        names.put(product.getId(), product.getProductName());
                 }
 
-                // Generate delivery OTP and send confirmation email
-                try {
-                        // Generate 6-digit OTP
-                        String deliveryOtp = generateDeliveryOTP();
-                        savedOrder.setDeliveryOtp(deliveryOtp);
-                        savedOrder.setOtpGeneratedAt(Instant.now());
-                        savedOrder.setOtpExpiresAt(Instant.now().plus(7, java.time.temporal.ChronoUnit.DAYS));
-                        savedOrder.setOtpVerified(false);
-                        orderRepository.save(savedOrder);
-
-                        // Send order confirmation email
-                        emailService.sendOrderConfirmationEmail(
-                                        user.getEmail(),
-                                        savedOrder.getShippingFullName(),
-                                        savedOrder.getOrderId(),
-                                        deliveryOtp,
-                                        savedOrder.getTotalAmount(),
-                                        savedOrder.getPaymentMethod().toString(),
-                                        savedOrder.getShippingAddress(),
-                                        savedOrder.getShippingCity(),
-                                        savedOrder.getShippingState(),
-                                        savedOrder.getShippingPincode(),
-                                        savedOrder.getTotalItems(),
-                                        savedOrder.getOrderItems());
-                } catch (Exception e) {
-                        // Log error but don't fail the order
-                        System.err.println("Failed to send order confirmation email: " + e.getMessage());
+                // WRITE (single flush, before any product row is locked)
+                Order savedOrder = orderRepository.save(order);
+                orderSellerService.recordPlaced(savedOrder);
+                cartItemRepository.deleteAllByCartId(cart.getCartId());
+                orderStatsService.recordPlaced(savedOrder);
+                emailService.queueOrderConfirmationEmail(user.getEmail(), savedOrder);
+                orderRepository.flush();
+
+                // RESERVE STOCK (conditional UPDATE per line, reports every short SKU)
+                InventoryReservationService.Result reservation = inventoryReservationService.reserve(quantities);
+                if (!reservation.isSuccess()) {
+                        throw new InsufficientStockException(
+                                        "Insufficient stock for product: " + reservation.failed().stream()
+                                                        .map(names::get)
+                                                        .collect(Collectors.joining(", ")),
+                                        reservation.failed());
                 }
 
-                return ResponseEntity.ok(mapToOrderResponse(savedOrder));
+                return ResponseEntity.ok(OrderMapper.toOrderResponse(savedOrder));
         }
 
         public ResponseEntity<?> getUserOrders(Long userId, Integer page, Integer size) {
@@ -225,7 +216,7 @@ public class OrderService {
                                 PageRequest.of(page, size));
 
                 return ResponseEntity.ok(
-                                orders.map(this::mapToSummaryDTO));
+                                orders.map(OrderMapper::toSummaryDTO));
         }
 
         public ResponseEntity<?> getOrderById(Long userId, Long orderId) {
@@ -233,7 +224,7 @@ public class OrderService {
                 Order order = orderRepository.findByOrderIdAndUser_UserId(orderId, userId)
                                 .orElseThrow(() -> new RuntimeException("Order not found"));
 
-                return ResponseEntity.ok(mapToOrderResponse(order));
+                return ResponseEntity.ok(OrderMapper.toOrderResponse(order));
         }
 
         public ResponseEntity<?> cancelOrder(Long userId, Long orderId, CancelOrderRequest request) {
@@ -245,15 +236,20 @@ public class OrderService {
                         throw new RuntimeException("Delivered order cannot be cancelled");
                 }
 
-                order.setStatus(OrderStatus.CANCELLED);
+                if (order.getStatus() == OrderStatus.CANCELLED) {
+                        throw new RuntimeException("Order already cancelled");
+                }
+
+                changeStatus(order, OrderStatus.CANCELLED);
                 order.setCancellationReason(request.getReason());
                 order.setCancelledAt(Instant.now());
 
                 // restore stock
+                Map<Long, Integer> quantities = new LinkedHashMap<>();
                 for (OrderItem item : order.getOrderItems()) {
-                        Product product = item.getProduct();
-                        product.setStock(product.getStock() + item.getQuantity());
+                        quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
                 }
+                inventoryReservationService.release(quantities);
 
                 return ResponseEntity.ok("Order cancelled successfully");
         }
@@ -275,7 +271,7 @@ public class OrderService {
                 order.setRazorpayPaymentId(razorpayPaymentId);
                 order.setPaymentSignature(paymentSignature);
                 order.setPaymentStatus(PaymentStatus.COMPLETED);
-                order.setStatus(OrderStatus.CONFIRMED);
+                changeStatus(order, OrderStatus.CONFIRMED);
                 order.setConfirmedAt(Instant.now());
 
                 orderRepository.save(order);
@@ -299,7 +295,7 @@ public class OrderService {
                 Page<Order> orders = orderRepository.findAll(spec, PageRequest.of(page, size, sort));
 
                 return ResponseEntity.ok(
-                                orders.map(this::mapToAdminResponse));
+                                orders.map(OrderMapper::toAdminResponse));
         }
 
         public ResponseEntity<?> getOrderByIdAdmin(Long orderId) {
@@ -307,7 +303,7 @@ public class OrderService {
                 Order order = orderRepository.findByIdWithItems(orderId)
                                 .orElseThrow(() -> new RuntimeException("Order not found"));
 
-                return ResponseEntity.ok(mapToAdminResponse(order));
+                return ResponseEntity.ok(OrderMapper.toAdminResponse(order));
         }
 
         public ResponseEntity<?> updateOrderStatus(Long orderId, UpdateOrderStatusRequest request) {
@@ -315,7 +311,7 @@ public class OrderService {
                 Order order = orderRepository.findById(orderId)
                                 .orElseThrow(() -> new RuntimeException("Order not found"));
 
-                order.setStatus(request.getStatus());
+                changeStatus(order, request.getStatus());
 
                 if (request.getStatus() == OrderStatus.CONFIRMED) {
                         order.setConfirmedAt(Instant.now());
@@ -333,15 +329,7 @@ public class OrderService {
 
         public ResponseEntity<?> getOrderStats() {
 
-                return ResponseEntity.ok(
-                                OrderStatsDTO.builder()
-                                                .totalOrders(orderRepository.count())
-                                                .pendingOrders(orderRepository.countByStatus(OrderStatus.PENDING))
-                                                .confirmedOrders(orderRepository.countByStatus(OrderStatus.CONFIRMED))
-                                                .shippedOrders(orderRepository.countByStatus(OrderStatus.SHIPPED))
-                                                .deliveredOrders(orderRepository.countByStatus(OrderStatus.DELIVERED))
-                                                .cancelledOrders(orderRepository.countByStatus(OrderStatus.CANCELLED))
-                                                .build());
+                return ResponseEntity.ok(orderStatsService.globalStats());
         }
 
         public ResponseEntity<?> getOrdersByStatus(OrderStatus status, Integer page, Integer size) {
@@ -350,60 +338,49 @@ public class OrderService {
                                 status, PageRequest.of(page, size));
 
                 return ResponseEntity.ok(
-                                orders.map(this::mapToSummaryDTO));
+                                orders.map(OrderMapper::toSummaryDTO));
         }
 
         // ADMIN - MULTI-TENANT FILTERED METHODS
 
         /**
          * Get all orders containing products owned by the admin
-         * Filters by product ownership using JOIN query
+         * Reads the order_sellers link table (seller, status, createdAt index)
          */
         public ResponseEntity<?> getOrdersForAdmin(Long userId, OrderStatus status, String keyword,
                         String sortField, String sortDirection, Integer page, Integer size) {
 
+                // createdAt lives on the link row (indexed), anything else is an order column
+                String property = sortField.equals("createdAt") ? sortField : "order." + sortField;
                 Sort sort = sortDirection.equalsIgnoreCase("desc")
-                                ? Sort.by(sortField).descending()
-                                : Sort.by(sortField).ascending();
+                                ? Sort.by(property).descending()
+                                : Sort.by(property).ascending();
 
                 Page<Order> orders;
 
                 if (status != null) {
                         // Filter by status
-                        orders = orderRepository.findOrdersForAdminByStatus(
+                        orders = orderSellerRepository.findOrdersBySellerAndStatus(
                                         userId, status, PageRequest.of(page, size, sort));
                 } else {
                         // All orders for this admin
-                        orders = orderRepository.findOrdersForAdmin(
+                        orders = orderSellerRepository.findOrdersBySeller(
                                         userId, PageRequest.of(page, size, sort));
                 }
 
                 // TODO: Add keyword search if needed (requires Specification with admin filter)
 
                 return ResponseEntity.ok(
-                                orders.map(this::mapToAdminResponse));
+                                orders.map(OrderMapper::toAdminResponse));
         }
 
         /**
          * Get order stats for admin's products only
+         * Single GROUP BY over the maintained per-seller/status counters
          */
         public ResponseEntity<?> getOrderStatsForAdmin(Long userId) {
 
-                return ResponseEntity.ok(
-                                OrderStatsDTO.builder()
-                                                .totalOrders(orderRepository.countOrdersForAdmin(userId))
-                                                .pendingOrders(orderRepository.countOrdersForAdminByStatus(userId,
-                                                                OrderStatus.PENDING))
-                                                .confirmedOrders(orderRepository.countOrdersForAdminByStatus(userId,
-                                                                OrderStatus.CONFIRMED))
-                                                .shippedOrders(orderRepository.countOrdersForAdminByStatus(userId,
-                                                                OrderStatus.SHIPPED))
-                                                .deliveredOrders(orderRepository.countOrdersForAdminByStatus(userId,
-                                                                OrderStatus.DELIVERED))
-                                                .cancelledOrders(orderRepository.countOrdersForAdminByStatus(userId,
-                                                                OrderStatus.CANCELLED))
-                                                .totalRevenue(orderRepository.getTotalRevenueForAdmin(userId))
-                                                .build());
+                return ResponseEntity.ok(orderStatsService.statsForSeller(userId));
         }
 
         /**
@@ -412,11 +389,11 @@ public class OrderService {
         public ResponseEntity<?> getOrdersByStatusForAdmin(Long userId, OrderStatus status, Integer page,
                         Integer size) {
 
-                Page<Order> orders = orderRepository.findOrdersForAdminByStatus(
-                                userId, status, PageRequest.of(page, size));
+                Page<Order> orders = orderSellerRepository.findOrdersBySellerAndStatus(
+                                userId, status, PageRequest.of(page, size, Sort.by("createdAt").descending()));
 
                 return ResponseEntity.ok(
-                                orders.map(this::mapToSummaryDTO));
+                                orders.map(OrderMapper::toSummaryDTO));
         }
 
         /**
@@ -430,18 +407,28 @@ public class OrderService {
                                 .orElseThrow(() -> new RuntimeException("Order not found"));
 
                 // Check if admin owns at least one product in this order
-                boolean ownsProduct = order.getOrderItems().stream()
-                                .anyMatch(item -> item.getProduct().getUser().getUserId().equals(userId));
+                boolean ownsProduct = orderSellerService.isSellerOf(userId, orderId);
 
                 if (!ownsProduct) {
                         throw new RuntimeException("Access denied: Order does not contain your products");
                 }
 
-                return ResponseEntity.ok(mapToAdminResponse(order));
+                return ResponseEntity.ok(OrderMapper.toAdminResponse(order));
         }
 
         // HELPER METHODS
 
+        /**
+         * Single place for status transitions : keeps the stats counters and the
+         * order_sellers link rows in step with the order
+         */
+        private void changeStatus(Order order, OrderStatus status) {
+                OrderStatus previousStatus = order.getStatus();
+                order.setStatus(status);
+                orderStatsService.recordTransition(order, previousStatus);
+                orderSellerService.recordStatus(order);
+        }
+
         /**
          * Generate a random 6-digit OTP for delivery verification
          */
@@ -461,8 +448,7 @@ public class OrderService {
                                 .orElseThrow(() -> new RuntimeException("Order not found"));
 
                 // Security check: Admin can only verify orders containing their products
-                boolean ownsProduct = order.getOrderItems().stream()
-                                .anyMatch(item -> item.getProduct().getUser().getUserId().equals(userId));
+                boolean ownsProduct = orderSellerService.isSellerOf(userId, orderId);
 
                 if (!ownsProduct) {
                         return ResponseEntity.badRequest().body("Access denied: Order does not contain your products");
@@ -485,7 +471,7 @@ public class OrderService {
 
                 // Mark as verified and delivered
                 order.setOtpVerified(true);
-                order.setStatus(OrderStatus.DELIVERED);
+                changeStatus(order, OrderStatus.DELIVERED);
                 order.setDeliveredAt(Instant.now());
 
                 // Mark payment as completed for COD orders
@@ -497,112 +483,4 @@ public class OrderService {
 
                 return ResponseEntity.ok("Delivery verified successfully. Order marked as DELIVERED.");
         }
-        // MAPPERS
-
-        private OrderSummaryDTO mapToSummaryDTO(Order order) {
-
-                List<OrderItemResponseDTO> items = order.getOrderItems().stream()
-                                .map(oi -> OrderItemResponseDTO.builder()
-                                                .orderItemId(oi.getOrderItemId())
-                                                .quantity(oi.getQuantity())
-                                                .priceAtOrder(oi.getPriceAtOrder())
-                                                .subtotal(oi.getSubtotal())
-                                                .product(com.namit.dtos.order.ProductInOrderDTO.builder()
-                                                                .productId(oi.getProduct().getId())
-                                                                .productName(oi.getProduct().getProductName())
-                                                                .imageUrl(oi.getProduct().getImageUrl())
-                                                                .build())
-                                                .build())
-                                .collect(Collectors.toList());
-
-                return OrderSummaryDTO.builder()
-                                .orderId(order.getOrderId())
-                                .status(order.getStatus())
-                                .paymentMethod(order.getPaymentMethod())
-                                .paymentStatus(order.getPaymentStatus())
-                                .totalItems(order.getTotalItems())
-                                .totalAmount(order.getTotalAmount())
-                                .createdAt(order.getCreatedAt())
-                                .updatedAt(order.getUpdatedAt())
-                                .orderItems(items)
-                                .build();
-        }
-
-        private OrderResponseDTO mapToOrderResponse(Order order) {
-
-                List<OrderItemResponseDTO> items = order.getOrderItems().stream()
-                                .map(oi -> OrderItemResponseDTO.builder()
-                                                .orderItemId(oi.getOrderItemId())
-                                                .quantity(oi.getQuantity())
-                                                .priceAtOrder(oi.getPriceAtOrder())
-                                                .subtotal(oi.getSubtotal())
-                                                .product(com.namit.dtos.order.ProductInOrderDTO.builder()
-                                                                .productId(oi.getProduct().getId())
-                                                                .productName(oi.getProduct().getProductName())
-                                                                .brand(oi.getProduct().getBrand())
-                                                                .imageUrl(oi.getProduct().getImageUrl())
-                                                                .build())
-                                                .build())
-                                .collect(Collectors.toList());
-
-                return OrderResponseDTO.builder()
-                                .orderId(order.getOrderId())
-                                .status(order.getStatus())
-                                .paymentMethod(order.getPaymentMethod())
-                                .paymentStatus(order.getPaymentStatus())
-                                .orderItems(items)
-                                .subtotal(order.getSubtotal())
-                                .taxAmount(order.getTaxAmount())
-                                .shippingCharges(order.getShippingCharges())
-                                .totalAmount(order.getTotalAmount())
-                                .totalItems(order.getTotalItems())
-                                .shippingAddress(ShippingAddressDTO.builder()
-                                                .fullName(order.getShippingFullName())
-                                                .address(order.getShippingAddress())
-                                                .city(order.getShippingCity())
-                                                .state(order.getShippingState())
-                                                .pincode(order.getShippingPincode())
-                                                .phone(order.getShippingPhone())
-                                                .landmark(order.getShippingLandmark())
-                                                .alternatePhone(order.getAlternatePhone())
-                                                .build())
-                                .orderNotes(order.getOrderNotes())
-                                .cancellationReason(order.getCancellationReason())
-                                .transactionId(order.getTransactionId())
-                                .createdAt(order.getCreatedAt())
-                                .updatedAt(order.getUpdatedAt())
-                                .confirmedAt(order.getConfirmedAt())
-                                .shippedAt(order.getShippedAt())
-                                .deliveredAt(order.getDeliveredAt())
-                                .cancelledAt(order.getCancelledAt())
-                                .build();
-        }
-
-        private AdminOrderResponseDTO mapToAdminResponse(Order order) {
-
-                return AdminOrderResponseDTO.builder()
-                                .orderId(order.getOrderId())
-                                .user(com.namit.dtos.order.UserInfoDTO.builder()
-                                                .userId(order.getUser().getUserId())
-                                                .userName(order.getUser().getEmail())
-                                                .email(order.getUser().getEmail())
-                                                .build())
-                                .status(order.getStatus())
-                                .paymentMethod(order.getPaymentMethod())
-                                .paymentStatus(order.getPaymentStatus())
-                                .totalItems(order.getTotalItems())
-                                .totalAmount(order.getTotalAmount())
-                                .shippingAddress(ShippingAddressDTO.builder()
-                                                .fullName(order.getShippingFullName())
-                                                .address(order.getShippingAddress())
-                                                .city(order.getShippingCity())
-                                                .state(order.getShippingState())
-                                                .pincode(order.getShippingPincode())
-                                                .phone(order.getShippingPhone())
-                                                .landmark(order.getShippingLandmark())
-                                                .alternatePhone(order.getAlternatePhone())
-                                                .build())
-                                .createdAt(order.getCreatedAt())
-                                .build();
-        }
 }
@@ -0,0 +1,142 @@
+package com.namit.services;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.namit.dtos.order.OrderStatsDTO;
+import com.namit.enums.OrderStatus;
+import com.namit.models.Order;
+import com.namit.models.OrderItem;
+import com.namit.models.OrderStatusCounter;
+import com.namit.repositories.OrderStatusCounterRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maintains the order_status_counters table and serves dashboard stats from it.
+ *
+ * Every status change moves the order's count and amount from the old status
+ * row to the new one, for each seller whose products are in the order and for
+ * the global row. Reads are one GROUP BY over at most one row per status.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+@Slf4j
+public class OrderStatsService {
+
+        private final OrderStatusCounterRepository counterRepository;
+
+        // WRITE PATH (same transaction as the order change)
+
+        public void recordPlaced(Order order) {
+                for (Long sellerId : scopesOf(order)) {
+                        counterRepository.increment(sellerId, order.getStatus().name(), 1, order.getTotalAmount());
+                }
+        }
+
+        public void recordTransition(Order order, OrderStatus from) {
+                if (from == order.getStatus()) {
+                        return;
+                }
+
+                for (Long sellerId : scopesOf(order)) {
+                        counterRepository.increment(sellerId, from.name(), -1, -order.getTotalAmount());
+                        counterRepository.increment(sellerId, order.getStatus().name(), 1, order.getTotalAmount());
+                }
+        }
+
+        // READ PATH
+
+        @Transactional(readOnly = true)
+        public OrderStatsDTO statsForSeller(Long sellerId) {
+                return toStats(counterRepository.aggregateBySeller(sellerId));
+        }
+
+        @Transactional(readOnly = true)
+        public OrderStatsDTO globalStats() {
+                return toStats(counterRepository.aggregateBySeller(OrderStatusCounter.ALL_SELLERS));
+        }
+
+        // RECOUNT (every start: picks up orders written before the counters existed)
+
+        /**
+         * Adds to each counter the difference between what the orders add up to
+         * and what the counter holds, so running it again changes nothing and
+         * orders placed while it runs are counted exactly once.
+         */
+        @EventListener(ApplicationReadyEvent.class)
+        public void recount() {
+                // the zero upsert holds the lock row until commit, a second instance waits here
+                counterRepository.increment(OrderStatusCounter.RECOUNT_LOCK, OrderStatus.PENDING.name(), 0, 0.0);
+
+                int corrected = 0;
+                for (Object[] row : counterRepository.differenceFromOrders()) {
+                        long count = ((Number) row[2]).longValue();
+                        double amount = row[3] == null ? 0.0 : ((Number) row[3]).doubleValue();
+
+                        // revenue sums drift in the last bits, only correct whole paise
+                        if (count != 0 || Math.abs(amount) >= 0.005) {
+                                counterRepository.increment(((Number) row[0]).longValue(), row[1].toString(), count, amount);
+                                corrected++;
+                        }
+                }
+
+                if (corrected > 0) {
+                        log.info("Order status counters recounted, {} rows corrected", corrected);
+                }
+        }
+
+        // HELPERS
+
+        // global row first, then every seller with a product in the order
+        private Set<Long> scopesOf(Order order) {
+                Set<Long> scopes = new LinkedHashSet<>();
+                scopes.add(OrderStatusCounter.ALL_SELLERS);
+                for (OrderItem item : order.getOrderItems()) {
+                        scopes.add(item.getProduct().getUser().getUserId());
+                }
+                return scopes;
+        }
+
+        private OrderStatsDTO toStats(List<Object[]> rows) {
+                long total = 0;
+                OrderStatsDTO stats = OrderStatsDTO.builder()
+                                .pendingOrders(0L)
+                                .confirmedOrders(0L)
+                                .shippedOrders(0L)
+                                .deliveredOrders(0L)
+                                .cancelledOrders(0L)
+                                .totalRevenue(0.0)
+                                .build();
+
+                for (Object[] row : rows) {
+                        OrderStatus status = (OrderStatus) row[0];
+                        long count = ((Number) row[1]).longValue();
+                        total += count;
+
+                        switch (status) {
+                                case PENDING -> stats.setPendingOrders(count);
+                                case CONFIRMED -> stats.setConfirmedOrders(count);
+                                case SHIPPED -> stats.setShippedOrders(count);
+                                case DELIVERED -> {
+                                        stats.setDeliveredOrders(count);
+                                        stats.setTotalRevenue(((Number) row[2]).doubleValue());
+                                }
+                                case CANCELLED -> stats.setCancelledOrders(count);
+                                default -> {
+                                }
+                        }
+                }
+
+                stats.setTotalOrders(total);
+                return stats;
+        }
+}
@@ -11,10 +11,12 @@ import com.namit.models.PasswordResetToken;
 import com.namit.repositories.AppUserRepository;
 import com.namit.repositories.PasswordResetTokenRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
+@Slf4j
 public class PasswordResetService {
 
     private final PasswordResetTokenRepository tokenRepository;
@@ -26,18 +28,12 @@ public class PasswordResetService {
     private long resetTokenExpirationMs;
 
     public void requestPasswordReset(String email) {
-        System.out.println("=== Password Reset Request Started ===");
-        System.out.println("Email: " + email);
-
         try {
             AppUser user = userRepository.findByEmail(email)
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
-            System.out.println("User found: " + user.getUserName());
-
             // Delete any existing tokens for this user
             tokenRepository.deleteByUser_UserId(user.getUserId());
-            System.out.println("Old tokens deleted");
 
             // Create new token
             PasswordResetToken resetToken = new PasswordResetToken();
@@ -47,17 +43,13 @@ public class PasswordResetService {
             resetToken.setUsed(false);
 
             tokenRepository.save(resetToken);
-            System.out.println("Token created: " + resetToken.getToken());
 
-            // Send email
-            System.out.println("Attempting to send email...");
-            emailService.sendPasswordResetEmail(user.getEmail(), resetToken.getToken());
-            System.out.println("Email sent successfully!");
-            System.out.println("=== Password Reset Request Completed ===");
+            // Queue email (sent by EmailOutboxDispatcher after commit)
+            emailService.queuePasswordResetEmail(user.getEmail(), resetToken.getToken());
+            log.info("Password reset requested for user {}", user.getUserId());
 
         } catch (Exception e) {
-            System.err.println("ERROR in requestPasswordReset: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Password reset request failed: {}", e.getMessage());
             throw new RuntimeException("Failed to process password reset request: " + e.getMessage(), e);
         }
     }
@@ -8,11 +8,13 @@ import org.springframework.stereotype.Service;
 
 import com.namit.dtos.payment.PaymentOrderResponse;
 import com.razorpay.RazorpayClient;
+import com.razorpay.RazorpayException;
 import com.stripe.Stripe;
 import com.stripe.exception.StripeException;
 import com.stripe.model.checkout.Session;
 import com.stripe.param.checkout.SessionCreateParams;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -43,6 +45,7 @@ public class PaymentService {
          * @param amount  Order amount in INR
          * @return Map with sessionId and url
          */
+        @Timed(value = "compatx.payment.provider.calls", extraTags = { "provider", "stripe" })
         public Map<String, String> createCheckoutSession(Long orderId, Double amount) throws StripeException {
                 log.info("Creating Stripe Checkout Session for Order ID: {}, Amount: ₹{}", orderId, amount);
 
@@ -106,6 +109,18 @@ public class PaymentService {
         @Value("${razorpay.key.secret}")
         private String razorpayKeySecret;
 
+        private volatile RazorpayClient razorpayClient;
+
+        // built on first use; a racing duplicate is harmless, the last one wins
+        private RazorpayClient razorpayClient() throws RazorpayException {
+                RazorpayClient client = razorpayClient;
+                if (client == null) {
+                        client = new RazorpayClient(razorpayKeyId, razorpayKeySecret);
+                        razorpayClient = client;
+                }
+                return client;
+        }
+
         /**
          * Create Razorpay Payment Order
          * Official implementation following Razorpay Java SDK docs
@@ -114,12 +129,13 @@ public class PaymentService {
          * @param amount  Order amount in INR
          * @return PaymentOrderResponse with razorpay_order_id and other details
          */
+        @Timed(value = "compatx.payment.provider.calls", extraTags = { "provider", "razorpay" })
         public PaymentOrderResponse createPaymentOrder(Long orderId, Double amount) throws Exception {
                 log.info("Creating Razorpay payment order for Order ID: {}, Amount: ₹{}", orderId, amount);
 
                 try {
-                        // Initialize Razorpay client with API credentials
-                        RazorpayClient razorpayClient = new RazorpayClient(razorpayKeyId, razorpayKeySecret);
+                        // shared client, keeps its HTTP connections alive between orders
+                        RazorpayClient razorpayClient = razorpayClient();
 
                         // Create order request with required parameters
                         org.json.JSONObject orderRequest = new org.json.JSONObject();
@@ -1,12 +1,15 @@
 package com.namit.services;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.OptionalLong;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -15,8 +18,12 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import com.namit.cache.ProductCache;
 import com.namit.dtos.auth.CustomerProductDTO;
 import com.namit.dtos.auth.ProductStatsDTO;
+import com.namit.events.ProductChangedEvent;
+import com.namit.events.ProductDeletedEvent;
+import com.namit.inventory.FlashSaleInventory;
 import com.namit.mappers.CustomerProductMapper;
 import com.namit.models.AppUser;
 import com.namit.models.Category;
@@ -25,18 +32,39 @@ import com.namit.repositories.AppUserRepository;
 import com.namit.repositories.CategoryRepository;
 import com.namit.repositories.ProductRepository;
 import com.namit.responsewrapper.MyResponseWrapper;
+import com.namit.search.ProductDiskIndex;
+import com.namit.search.ProductFacets;
+import com.namit.search.ProductFilter;
+import com.namit.search.ProductFilterIndex;
+import com.namit.search.ProductRankIndex;
+import com.namit.search.ProductSearchIndex;
+import com.namit.search.ProductSuggestIndex;
+import com.namit.specifications.ProductCursor;
 import com.namit.specifications.ProductSpecification;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
+@Timed("compatx.service")
 public class ProductService {
 
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final AppUserRepository userRepository;
-    private final MyResponseWrapper responseWrapper;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductFilterIndex productFilterIndex;
+    private final ProductSuggestIndex productSuggestIndex;
+    private final ProductRankIndex productRankIndex;
+    private final ProductDiskIndex productDiskIndex;
+    private final ProductCache productCache;
+    private final FlashSaleInventory flashSaleInventory;
+
+    // indexes and the product cache listen for ProductChangedEvent / ProductDeletedEvent
+    private final ApplicationEventPublisher eventPublisher;
 
 
 
@@ -46,13 +74,13 @@ public class ProductService {
         // category exists?
         Optional<Category> category = categoryRepository.findById(categoryId);
         if (!category.isPresent()) {
-            return responseWrapper.universalResponse("Category not Found !", null, HttpStatus.NOT_FOUND);
+            return MyResponseWrapper.universalResponse("Category not Found !", null, HttpStatus.NOT_FOUND);
         }
 
         // user exists?
         Optional<AppUser> user = userRepository.findById(userId);
         if (!user.isPresent()) {
-            return responseWrapper.universalResponse("User Not Found ", null, HttpStatus.NOT_FOUND);
+            return MyResponseWrapper.universalResponse("User Not Found ", null, HttpStatus.NOT_FOUND);
         }
 
         // set relations
@@ -60,13 +88,14 @@ public class ProductService {
         product.setUser(user.get());
 
         Product savedProduct = productRepository.save(product);
-        return responseWrapper.universalResponse("Product created SuccessFully ", savedProduct, HttpStatus.CREATED);
+        eventPublisher.publishEvent(new ProductChangedEvent(savedProduct));
+        return MyResponseWrapper.universalResponse("Product created SuccessFully ", savedProduct, HttpStatus.CREATED);
     }
 
     // GET ALL PRODUCTS
     public ResponseEntity<?> getAllProducts() {
         List<Product> product = productRepository.findAll();
-        return responseWrapper.universalResponse("Products fetched successfully ", product, HttpStatus.OK);
+        return MyResponseWrapper.universalResponse("Products fetched successfully ", product, HttpStatus.OK);
     }
 
     // GET PRODUCTS BY ID
@@ -75,9 +104,9 @@ public class ProductService {
         Optional<Product> product = productRepository.findById(productId);
 
         if (product.isPresent()) {
-            return responseWrapper.universalResponse("Product Found ", product.get(), HttpStatus.OK);
+            return MyResponseWrapper.universalResponse("Product Found ", product.get(), HttpStatus.OK);
         } else {
-            return responseWrapper.universalResponse("Product not found ", null, HttpStatus.NOT_FOUND);
+            return MyResponseWrapper.universalResponse("Product not found ", null, HttpStatus.NOT_FOUND);
         }
     }
 
@@ -87,9 +116,9 @@ public class ProductService {
         List<Product> products = productRepository.findByCategoryCategoryId(categoryId);
 
         if (products.isEmpty()) {
-            return responseWrapper.universalResponse("Sorry no product for this category ", products, HttpStatus.OK);
+            return MyResponseWrapper.universalResponse("Sorry no product for this category ", products, HttpStatus.OK);
         } else {
-            return responseWrapper.universalResponse("Products found for  following category ", products, HttpStatus.OK);
+            return MyResponseWrapper.universalResponse("Products found for  following category ", products, HttpStatus.OK);
         }
     }
 
@@ -98,51 +127,78 @@ public class ProductService {
         List<Product> products =
                 productRepository.findByProductNameContainingIgnoreCaseOrBrandContainingIgnoreCase(keyword, keyword);
 
+        // nothing found: retry once with the misspelt words corrected from the search index
+        String didYouMean = null;
+        if (products.isEmpty()) {
+            didYouMean = productSearchIndex.didYouMean(keyword);
+            if (didYouMean != null) {
+                products = productRepository.findByProductNameContainingIgnoreCaseOrBrandContainingIgnoreCase(
+                        didYouMean, didYouMean);
+            }
+        }
+
         if (products.isEmpty()) {
-            return responseWrapper.universalResponse(" No Search results", null, HttpStatus.NOT_FOUND);
+            return MyResponseWrapper.universalResponse(" No Search results", null, HttpStatus.NOT_FOUND);
+        } else if (didYouMean != null) {
+            return MyResponseWrapper.universalResponse(showingResultsFor(didYouMean), products, HttpStatus.OK);
         } else {
-            return responseWrapper.universalResponse("Search results", products, HttpStatus.OK);
+            return MyResponseWrapper.universalResponse("Search results", products, HttpStatus.OK);
         }
     }
 
-    // Advance Search
+    // Advance Search (served from the in-memory index, no DB access)
     public ResponseEntity<?> smartSearch(String keyword) {
 
-        List<Product> all = productRepository.findAll();
-        String[] tokens = keyword.toLowerCase().split("\\s+");  // split by spaces
-
-        List<Product> filtered = all.stream()
-            .filter(p -> {
-                String name = p.getProductName().toLowerCase();
-                String brand = p.getBrand().toLowerCase();
-
-                // every token must match productName OR brand
-                for (String token : tokens) {
-                    if (!(name.contains(token) || brand.contains(token))) {
-                        return false;
-                    }
-                }
-                return true;
-            })
-            .collect(Collectors.toList());
+        // every token must match productName OR brand, tokens nothing matches are spell corrected
+        ProductSearchIndex.Result result = productSearchIndex.searchFuzzy(keyword);
+        List<Product> filtered = result.products();
 
         if (filtered.isEmpty()) {
-            return responseWrapper.universalResponse("No smart search results found", filtered, HttpStatus.OK);
+            return MyResponseWrapper.universalResponse("No smart search results found", filtered, HttpStatus.OK);
+        } else if (result.didYouMean() != null) {
+            return MyResponseWrapper.universalResponse(showingResultsFor(result.didYouMean()), filtered, HttpStatus.OK);
         } else {
-            return responseWrapper.universalResponse("Smart Search results", filtered, HttpStatus.OK);
+            return MyResponseWrapper.universalResponse("Smart Search results", filtered, HttpStatus.OK);
         }
     }
 
+    // Ranked Search (BM25 over name, brand and description, only the page is loaded)
+    public ResponseEntity<?> rankedSearch(String keyword, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size);
+        ProductFilterIndex.IdPage ids = productDiskIndex.isEnabled()
+                ? productDiskIndex.search(keyword, pageable.getOffset(), pageable.getPageSize())
+                : productRankIndex.search(keyword, pageable.getOffset(), pageable.getPageSize());
+        Page<Product> resultPage = new PageImpl<>(hydrate(ids.ids()), pageable, ids.total());
+
+        return MyResponseWrapper.universalResponse("Ranked search results", pagePayload(resultPage), HttpStatus.OK);
+    }
+
+    private static String showingResultsFor(String didYouMean) {
+        return "Showing results for \"" + didYouMean + "\"";
+    }
+
+    // Autocomplete (served from the in-memory trie, no DB access)
+    public ResponseEntity<?> suggest(String prefix, Integer limit) {
+        int size = limit == null ? productSuggestIndex.maxResults() : limit;
+        List<ProductSuggestIndex.Suggestion> suggestions = productSuggestIndex.suggest(prefix, size);
+        return MyResponseWrapper.universalResponse("Suggestions", suggestions, HttpStatus.OK);
+    }
+
     // UPDATE PRODUCT
     public ResponseEntity<?> updateProduct(Long productId, Product productData, Long categoryId) {
 
         Optional<Product> existingProduct = productRepository.findById(productId);
         if (!existingProduct.isPresent()) {
-            return responseWrapper.universalResponse("Product not found ", null, HttpStatus.NOT_FOUND);
+            return MyResponseWrapper.universalResponse("Product not found ", null, HttpStatus.NOT_FOUND);
         }
 
         Product product = existingProduct.get();
 
+        // stock of a flash-sale product is owned by its counters until the sale ends
+        if (flashSaleInventory.isOnSale(productId) && !product.getStock().equals(productData.getStock())) {
+            return MyResponseWrapper.universalResponse("Stock cannot be changed during a flash sale", null, HttpStatus.CONFLICT);
+        }
+
         product.setProductName(productData.getProductName());
         product.setBrand(productData.getBrand());
         product.setDescription(productData.getDescription());
@@ -163,7 +219,8 @@ public class ProductService {
         }
 
         Product updatedProduct = productRepository.save(product);
-        return responseWrapper.universalResponse("Product updated successfully", updatedProduct, HttpStatus.OK);
+        eventPublisher.publishEvent(new ProductChangedEvent(updatedProduct));
+        return MyResponseWrapper.universalResponse("Product updated successfully", updatedProduct, HttpStatus.OK);
     }
 
     // DELETE PRODUCT
@@ -171,11 +228,13 @@ public class ProductService {
         Optional<Product> product = productRepository.findById(productId);
 
         if (!product.isPresent()) {
-            return responseWrapper.universalResponse("Product not found", null, HttpStatus.NOT_FOUND);
+            return MyResponseWrapper.universalResponse("Product not found", null, HttpStatus.NOT_FOUND);
         }
 
+        flashSaleInventory.end(productId);
         productRepository.deleteById(productId);
-        return responseWrapper.universalResponse("Product deleted successfully", null, HttpStatus.OK);
+        eventPublisher.publishEvent(new ProductDeletedEvent(productId));
+        return MyResponseWrapper.universalResponse("Product deleted successfully", null, HttpStatus.OK);
     }
 
     // PRODUCT STATS (GLOBAL)
@@ -191,15 +250,15 @@ public class ProductService {
                 totalBrands != null ? totalBrands : 0L
             );
 
-            return responseWrapper.universalResponse(
+            return MyResponseWrapper.universalResponse(
                 "Stats fetched successfully",
                 stats,
                 HttpStatus.OK
             );
         } catch (Exception e) {
 
-            e.printStackTrace();
-            return responseWrapper.universalResponse(
+            log.error("Failed to fetch product stats", e);
+            return MyResponseWrapper.universalResponse(
                 "Failed to fetch stats",
                 null,
                 HttpStatus.INTERNAL_SERVER_ERROR
@@ -245,10 +304,10 @@ public class ProductService {
             payload.put("totalElements", resultPage.getTotalElements());
             payload.put("totalPages", resultPage.getTotalPages());
 
-            return responseWrapper.universalResponse("Filtered products", payload, HttpStatus.OK);
+            return MyResponseWrapper.universalResponse("Filtered products", payload, HttpStatus.OK);
         } else {
             List<Product> items = productRepository.findAll(spec, Sort.unsorted());
-            return responseWrapper.universalResponse("Filtered products", items, HttpStatus.OK);
+            return MyResponseWrapper.universalResponse("Filtered products", items, HttpStatus.OK);
         }
     }
 
@@ -264,35 +323,39 @@ public class ProductService {
             String sortField,
             String sortDirection,
             Integer page,
-            Integer size
+            Integer size,
+            String cursor,
+            boolean facets
     ) {
         Specification<Product> spec = Specification.where(ProductSpecification.keywordContains(keyword))
                 .and(ProductSpecification.hasCategory(categoryId))
                 .and(ProductSpecification.brandContains(brand))
                 .and(ProductSpecification.priceBetween(minPrice, maxPrice));
 
-        Sort sort = Sort.unsorted();
-        if (sortField != null && !sortField.isBlank()) {
-            sort = sortDirection != null && sortDirection.equalsIgnoreCase("desc")
-                    ? Sort.by(sortField).descending()
-                    : Sort.by(sortField).ascending();
-        }
+        ProductFilter filter = ProductFilter.customer(keyword, categoryId, brand, minPrice, maxPrice);
 
-        Pageable pageable = PageRequest.of(page, size, sort);
-        Page<Product> resultPage = productRepository.findAll(spec, pageable);
+        // brand / category / price counts from the in-memory filter index, no GROUP BY
+        ProductFacets facetCounts = facets ? productFilterIndex.facets(filter) : null;
 
-        Map<String, Object> payload = new HashMap<>();
-        payload.put("items", resultPage.getContent());
-        payload.put("page", resultPage.getNumber());
-        payload.put("size", resultPage.getSize());
-        payload.put("totalElements", resultPage.getTotalElements());
-        payload.put("totalPages", resultPage.getTotalPages());
+        if (cursor != null) {
+            return seekProducts(spec, sortField, sortDirection, cursor, size, "Filtered products", facetCounts);
+        }
+
+        Map<String, Object> payload = filterPage(spec, filter, sortField, sortDirection, page, size);
+        if (facetCounts != null) {
+            payload.put("facets", facetCounts);
+        }
 
-        return responseWrapper.universalResponse("Filtered products", payload, HttpStatus.OK);
+        return MyResponseWrapper.universalResponse("Filtered products", payload, HttpStatus.OK);
     }
 
     // CUSTOMER GET ALL PRODUCTS
-    public ResponseEntity<?> customerGetAllProducts(int page, int size) {
+    public ResponseEntity<?> customerGetAllProducts(int page, int size, String cursor) {
+
+        if (cursor != null) {
+            return seekProducts(Specification.unrestricted(), "createdAt", "desc", cursor, size, "Customer products", null);
+        }
+
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
         Page<Product> result = productRepository.findAll(pageable);
 
@@ -303,23 +366,134 @@ public class ProductService {
         payload.put("totalElements", result.getTotalElements());
         payload.put("totalPages", result.getTotalPages());
 
-        return responseWrapper.universalResponse(
+        return MyResponseWrapper.universalResponse(
                 "Customer products",
                 payload,
                 HttpStatus.OK
         );
     }
 
+    // KEYSET PAGING (cursor mode) : seeks past the last (sortKey, id) instead of
+    // OFFSET scanning and skips the COUNT query, so every page costs O(size)
+    private ResponseEntity<?> seekProducts(
+            Specification<Product> spec,
+            String sortField,
+            String sortDirection,
+            String cursor,
+            int size,
+            String message,
+            ProductFacets facets
+    ) {
+        if (size < 1) {
+            return MyResponseWrapper.universalResponse("Page size must be at least 1", null, HttpStatus.BAD_REQUEST);
+        }
+
+        String field = sortField != null && !sortField.isBlank() ? sortField : "createdAt";
+        boolean descending = sortField == null || sortField.isBlank()
+                || (sortDirection != null && sortDirection.equalsIgnoreCase("desc"));
+
+        if (!ProductCursor.SORTABLE_FIELDS.contains(field)) {
+            return MyResponseWrapper.universalResponse(
+                    "Cursor paging supports sorting by createdAt or price only", null, HttpStatus.BAD_REQUEST);
+        }
+
+        ProductCursor after = null;
+        if (!cursor.isBlank()) {
+            try {
+                after = ProductCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                return MyResponseWrapper.universalResponse("Invalid cursor", null, HttpStatus.BAD_REQUEST);
+            }
+
+            if (!after.sortField().equals(field) || after.descending() != descending) {
+                return MyResponseWrapper.universalResponse(
+                        "Cursor does not match the requested sort order", null, HttpStatus.BAD_REQUEST);
+            }
+        }
+
+        // MySQL and H2 sort nulls lowest, which is what ProductSpecification.seekAfter assumes
+        Sort sort = descending
+                ? Sort.by(field).descending().and(Sort.by("Id").descending())
+                : Sort.by(field).ascending().and(Sort.by("Id").ascending());
+
+        // fetch one extra row to know whether another page exists
+        List<Product> rows = productRepository.findBy(
+                spec.and(ProductSpecification.seekAfter(after)),
+                q -> q.sortBy(sort).limit(size + 1).all());
+
+        boolean hasNext = rows.size() > size;
+        List<Product> items = hasNext ? rows.subList(0, size) : rows;
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("items", items);
+        payload.put("size", size);
+        payload.put("hasNext", hasNext);
+        payload.put("nextCursor", hasNext
+                ? ProductCursor.after(items.get(items.size() - 1), field, descending).encode()
+                : null);
+        if (facets != null) {
+            payload.put("facets", facets);
+        }
+
+        return MyResponseWrapper.universalResponse(message, payload, HttpStatus.OK);
+    }
+
     // SINGLE PRODUCT FOR CUSTOMER
     public ResponseEntity<?> getCustomerProduct(Long id) {
 
-        Product p = productRepository.findById(id).orElse(null);
+        CustomerProductDTO p = productCache.get(id).orElse(null);
 
         if (p == null) {
-            return responseWrapper.universalResponse("Not Found ", null, HttpStatus.NOT_FOUND);
+            return MyResponseWrapper.universalResponse("Not Found ", null, HttpStatus.NOT_FOUND);
+        }
+
+        // live count for flash-sale products, the cached snapshot lags until reconcile
+        OptionalLong liveStock = flashSaleInventory.available(id);
+        if (liveStock.isPresent()) {
+            p = p.toBuilder().stock((int) liveStock.getAsLong()).build();
         }
 
-        return responseWrapper.universalResponse("Product Found ", CustomerProductMapper.toDTO(p), HttpStatus.OK);
+        return MyResponseWrapper.universalResponse("Product Found ", p, HttpStatus.OK);
+    }
+
+    // PRODUCT CACHE STATS (hits / misses / evictions)
+    public ResponseEntity<?> getProductCacheStats() {
+        return MyResponseWrapper.universalResponse("Product cache stats", productCache.stats(), HttpStatus.OK);
+    }
+
+    // ADMIN: flash-sale mode for an own product
+    public ResponseEntity<?> adminStartFlashSale(Long adminUserId, Long productId, int shards) {
+
+        Product product = productRepository.findById(productId).orElse(null);
+        if (product == null) {
+            return MyResponseWrapper.universalResponse("Product not found", null, HttpStatus.NOT_FOUND);
+        }
+
+        if (isNotOwner(product, adminUserId)) {
+            return MyResponseWrapper.universalResponse("Forbidden: You do not own this product", null, HttpStatus.FORBIDDEN);
+        }
+
+        return flashSaleInventory.start(productId, shards)
+                .<ResponseEntity<?>>map(status -> MyResponseWrapper.universalResponse("Flash sale started", status, HttpStatus.OK))
+                .orElseGet(() -> MyResponseWrapper.universalResponse("Product not found", null, HttpStatus.NOT_FOUND));
+    }
+
+    public ResponseEntity<?> adminEndFlashSale(Long adminUserId, Long productId) {
+
+        Product product = productRepository.findById(productId).orElse(null);
+        if (product == null) {
+            return MyResponseWrapper.universalResponse("Product not found", null, HttpStatus.NOT_FOUND);
+        }
+
+        if (isNotOwner(product, adminUserId)) {
+            return MyResponseWrapper.universalResponse("Forbidden: You do not own this product", null, HttpStatus.FORBIDDEN);
+        }
+
+        if (!flashSaleInventory.end(productId)) {
+            return MyResponseWrapper.universalResponse("Product is not on flash sale", null, HttpStatus.BAD_REQUEST);
+        }
+
+        return MyResponseWrapper.universalResponse("Flash sale ended", null, HttpStatus.OK);
     }
 
     // RELATED PRODUCTS
@@ -333,7 +507,7 @@ public class ProductService {
                 .limit(4)
                 .toList();
 
-        return responseWrapper.universalResponse("Okay", dtoList, HttpStatus.OK);
+        return MyResponseWrapper.universalResponse("Okay", dtoList, HttpStatus.OK);
     }
 
     
@@ -351,21 +525,22 @@ public class ProductService {
 
         Optional<Category> category = categoryRepository.findById(categoryId);
         if (!category.isPresent()) {
-            return responseWrapper.universalResponse("Category not Found !", null, HttpStatus.NOT_FOUND);
+            return MyResponseWrapper.universalResponse("Category not Found !", null, HttpStatus.NOT_FOUND);
         }
 
         AppUser admin = userRepository.findById(adminUserId)
                 .orElse(null);
 
         if (admin == null) {
-            return responseWrapper.universalResponse("Admin user not found", null, HttpStatus.NOT_FOUND);
+            return MyResponseWrapper.universalResponse("Admin user not found", null, HttpStatus.NOT_FOUND);
         }
 
         product.setCategory(category.get());
         product.setUser(admin);
 
         Product savedProduct = productRepository.save(product);
-        return responseWrapper.universalResponse("Product created successfully", savedProduct, HttpStatus.CREATED);
+        eventPublisher.publishEvent(new ProductChangedEvent(savedProduct));
+        return MyResponseWrapper.universalResponse("Product created successfully", savedProduct, HttpStatus.CREATED);
     }
 
     // ADMIN: get only own products (paginated)
@@ -384,7 +559,7 @@ public class ProductService {
         payload.put("totalElements", result.getTotalElements());
         payload.put("totalPages", result.getTotalPages());
 
-        return responseWrapper.universalResponse("Admin products", payload, HttpStatus.OK);
+        return MyResponseWrapper.universalResponse("Admin products", payload, HttpStatus.OK);
     }
 
     // ADMIN: get single product, but only if owned
@@ -392,14 +567,14 @@ public class ProductService {
 
         Product product = productRepository.findById(productId).orElse(null);
         if (product == null) {
-            return responseWrapper.universalResponse("Product not found", null, HttpStatus.NOT_FOUND);
+            return MyResponseWrapper.universalResponse("Product not found", null, HttpStatus.NOT_FOUND);
         }
 
         if (isNotOwner(product, adminUserId)) {
-            return responseWrapper.universalResponse("Forbidden: You do not own this product", null, HttpStatus.FORBIDDEN);
+            return MyResponseWrapper.universalResponse("Forbidden: You do not own this product", null, HttpStatus.FORBIDDEN);
         }
 
-        return responseWrapper.universalResponse("Product found", product, HttpStatus.OK);
+        return MyResponseWrapper.universalResponse("Product found", product, HttpStatus.OK);
     }
 
     // ADMIN: update only own product
@@ -407,11 +582,16 @@ public class ProductService {
 
         Product product = productRepository.findById(productId).orElse(null);
         if (product == null) {
-            return responseWrapper.universalResponse("Product not found", null, HttpStatus.NOT_FOUND);
+            return MyResponseWrapper.universalResponse("Product not found", null, HttpStatus.NOT_FOUND);
         }
 
         if (isNotOwner(product, adminUserId)) {
-            return responseWrapper.universalResponse("Forbidden: You do not own this product", null, HttpStatus.FORBIDDEN);
+            return MyResponseWrapper.universalResponse("Forbidden: You do not own this product", null, HttpStatus.FORBIDDEN);
+        }
+
+        // stock of a flash-sale product is owned by its counters until the sale ends
+        if (flashSaleInventory.isOnSale(productId) && !product.getStock().equals(productData.getStock())) {
+            return MyResponseWrapper.universalResponse("Stock cannot be changed during a flash sale", null, HttpStatus.CONFLICT);
         }
 
         product.setProductName(productData.getProductName());
@@ -430,7 +610,8 @@ public class ProductService {
         }
 
         Product updatedProduct = productRepository.save(product);
-        return responseWrapper.universalResponse("Product updated successfully", updatedProduct, HttpStatus.OK);
+        eventPublisher.publishEvent(new ProductChangedEvent(updatedProduct));
+        return MyResponseWrapper.universalResponse("Product updated successfully", updatedProduct, HttpStatus.OK);
     }
 
     // ADMIN: delete only own product
@@ -438,15 +619,17 @@ public class ProductService {
 
         Product product = productRepository.findById(productId).orElse(null);
         if (product == null) {
-            return responseWrapper.universalResponse("Product not found", null, HttpStatus.NOT_FOUND);
+            return MyResponseWrapper.universalResponse("Product not found", null, HttpStatus.NOT_FOUND);
         }
 
         if (isNotOwner(product, adminUserId)) {
-            return responseWrapper.universalResponse("Forbidden: You do not own this product", null, HttpStatus.FORBIDDEN);
+            return MyResponseWrapper.universalResponse("Forbidden: You do not own this product", null, HttpStatus.FORBIDDEN);
         }
 
+        flashSaleInventory.end(productId);
         productRepository.delete(product);
-        return responseWrapper.universalResponse("Product deleted successfully", null, HttpStatus.OK);
+        eventPublisher.publishEvent(new ProductDeletedEvent(productId));
+        return MyResponseWrapper.universalResponse("Product deleted successfully", null, HttpStatus.OK);
     }
 
     // ADMIN: filter only own products
@@ -471,28 +654,77 @@ public class ProductService {
                 .and(ProductSpecification.stockBetween(minStock, maxStock))
                 .and((root, query, cb) -> cb.equal(root.get("user").get("userId"), adminUserId));
 
-        Pageable pageable;
+        ProductFilter filter = new ProductFilter(
+                keyword, categoryId, brand, minPrice, maxPrice, minStock, maxStock, adminUserId);
+
         if (page != null && size != null) {
+            Map<String, Object> payload = filterPage(spec, filter, sortField, sortDirection, page, size);
+            return MyResponseWrapper.universalResponse("Filtered admin products", payload, HttpStatus.OK);
+        } else {
+            List<Product> items = productFilterIndex.canServe(null)
+                    ? hydrate(productFilterIndex.page(filter, null, false, 0, Integer.MAX_VALUE).ids())
+                    : productRepository.findAll(spec, Sort.unsorted());
+            return MyResponseWrapper.universalResponse("Filtered admin products", items, HttpStatus.OK);
+        }
+    }
+
+    // FILTER PAGING : ids from the in-memory filter index and one IN (...) for the page,
+    // sort fields the index does not keep (or a disabled index) fall back to the spec query
+    private Map<String, Object> filterPage(
+            Specification<Product> spec,
+            ProductFilter filter,
+            String sortField,
+            String sortDirection,
+            int page,
+            int size
+    ) {
+        boolean descending = sortDirection != null && sortDirection.equalsIgnoreCase("desc");
+
+        Page<Product> resultPage;
+        if (productFilterIndex.canServe(sortField)) {
+            Pageable pageable = PageRequest.of(page, size);
+            ProductFilterIndex.IdPage ids = productFilterIndex.page(
+                    filter, sortField, descending, pageable.getOffset(), pageable.getPageSize());
+            resultPage = new PageImpl<>(hydrate(ids.ids()), pageable, ids.total());
+        } else {
             Sort sort = Sort.unsorted();
             if (sortField != null && !sortField.isBlank()) {
-                sort = sortDirection != null && sortDirection.equalsIgnoreCase("desc")
-                        ? Sort.by(sortField).descending()
-                        : Sort.by(sortField).ascending();
+                sort = descending ? Sort.by(sortField).descending() : Sort.by(sortField).ascending();
             }
-            pageable = PageRequest.of(page, size, sort);
-            Page<Product> resultPage = productRepository.findAll(spec, pageable);
+            resultPage = productRepository.findAll(spec, PageRequest.of(page, size, sort));
+        }
 
-            Map<String, Object> payload = new HashMap<>();
-            payload.put("items", resultPage.getContent());
-            payload.put("page", resultPage.getNumber());
-            payload.put("size", resultPage.getSize());
-            payload.put("totalElements", resultPage.getTotalElements());
-            payload.put("totalPages", resultPage.getTotalPages());
+        return pagePayload(resultPage);
+    }
 
-            return responseWrapper.universalResponse("Filtered admin products", payload, HttpStatus.OK);
-        } else {
-            List<Product> items = productRepository.findAll(spec, Sort.unsorted());
-            return responseWrapper.universalResponse("Filtered admin products", items, HttpStatus.OK);
+    private static Map<String, Object> pagePayload(Page<Product> resultPage) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("items", resultPage.getContent());
+        payload.put("page", resultPage.getNumber());
+        payload.put("size", resultPage.getSize());
+        payload.put("totalElements", resultPage.getTotalElements());
+        payload.put("totalPages", resultPage.getTotalPages());
+        return payload;
+    }
+
+    // loads the products in the order of ids, skipping any deleted meanwhile
+    private List<Product> hydrate(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Product> byId = new HashMap<>();
+        for (Product product : productRepository.findAllById(ids)) {
+            byId.put(product.getId(), product);
+        }
+
+        List<Product> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Product product = byId.get(id);
+            if (product != null) {
+                ordered.add(product);
+            }
         }
+        return ordered;
     }
 }
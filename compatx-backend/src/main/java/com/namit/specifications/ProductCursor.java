@@ -0,0 +1,50 @@
+package com.namit.specifications;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Set;
+
+import com.namit.models.Product;
+
+/**
+ * Opaque continuation token for keyset (seek) paging of products.
+ *
+ * Encodes the sort field, direction, the sort key of the last row served and
+ * its id (tie-breaker). Supported sort keys are createdAt and price. A null
+ * sort key is encoded as an empty field; nulls sort below every other key.
+ */
+public record ProductCursor(String sortField, boolean descending, Comparable<?> sortKey, Long id) {
+
+	public static final Set<String> SORTABLE_FIELDS = Set.of("createdAt", "price");
+
+	// cursor positioned after the given product
+	public static ProductCursor after(Product last, String sortField, boolean descending) {
+		Comparable<?> key = "price".equals(sortField) ? last.getPrice() : last.getCreatedAt();
+		return new ProductCursor(sortField, descending, key, last.getId());
+	}
+
+	public String encode() {
+		String raw = sortField + "|" + (descending ? "desc" : "asc") + "|" + (sortKey == null ? "" : sortKey) + "|" + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static ProductCursor decode(String token) {
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			String[] parts = raw.split("\\|", -1);
+			if (parts.length != 4 || !SORTABLE_FIELDS.contains(parts[0])) {
+				throw new IllegalArgumentException("Invalid cursor");
+			}
+
+			Comparable<?> key = parts[2].isEmpty() ? null
+					: "price".equals(parts[0]) ? Double.valueOf(parts[2])
+					: Instant.parse(parts[2]);
+
+			return new ProductCursor(parts[0], "desc".equals(parts[1]), key, Long.valueOf(parts[3]));
+		} catch (IllegalArgumentException | DateTimeParseException e) {
+			throw new IllegalArgumentException("Invalid cursor", e);
+		}
+	}
+}
@@ -4,6 +4,8 @@ import org.springframework.data.jpa.domain.Specification;
 
 import com.namit.models.Product;
 
+import jakarta.persistence.criteria.Path;
+
 public class ProductSpecification {
 	
 	
@@ -77,6 +79,44 @@ public class ProductSpecification {
 			};
 		}
 	
+	// keyset seek : rows strictly after the cursor in (sortKey, id) order,
+	// null keys count as the lowest value (where MySQL and H2 sort them)
+	
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static Specification<Product> seekAfter(ProductCursor cursor){
+		
+		return (root , query , cb) ->{
+			
+			if(cursor == null) return null;
+			
+			Path key = root.get(cursor.sortField());
+			Comparable value = cursor.sortKey();
+			Path<Long> id = root.get("Id");
+			
+			if(cursor.descending()) {
+				if(value == null) {
+					return cb.and(cb.isNull(key), cb.lessThan(id, cursor.id()));
+				}
+				return cb.or(
+						cb.lessThan(key, value),
+						cb.and(cb.equal(key, value), cb.lessThan(id, cursor.id())),
+						cb.isNull(key)
+				);
+			}
+			
+			if(value == null) {
+				return cb.or(
+						cb.isNotNull(key),
+						cb.and(cb.isNull(key), cb.greaterThan(id, cursor.id()))
+				);
+			}
+			return cb.or(
+					cb.greaterThan(key, value),
+					cb.and(cb.equal(key, value), cb.greaterThan(id, cursor.id()))
+			);
+		};
+	}
+	
 	// only active if product is in stock ( test purpose)
 	
 	public static Specification<Product> inStock(){
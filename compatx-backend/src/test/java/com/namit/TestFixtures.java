@@ -0,0 +1,124 @@
+package com.namit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+
+import com.namit.dtos.cart.AddToCartDTO;
+import com.namit.dtos.order.OrderResponseDTO;
+import com.namit.dtos.order.PlaceOrderRequest;
+import com.namit.dtos.order.UpdateOrderStatusRequest;
+import com.namit.enums.OrderStatus;
+import com.namit.enums.PaymentMethod;
+import com.namit.enums.Role;
+import com.namit.models.AppUser;
+import com.namit.models.Category;
+import com.namit.models.Product;
+import com.namit.repositories.AppUserRepository;
+import com.namit.repositories.CategoryRepository;
+import com.namit.repositories.ProductRepository;
+import com.namit.services.CartService;
+import com.namit.services.OrderService;
+
+/**
+ * Saved categories, users, products and orders for @SpringBootTest classes,
+ * added with @Import(TestFixtures.class). Names and emails carry
+ * System.nanoTime(), so tests sharing a cached context never collide.
+ */
+@TestComponent
+public class TestFixtures {
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private AppUserRepository appUserRepository;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private CartService cartService;
+
+	@Autowired
+	private OrderService orderService;
+
+	public Category category() {
+		Category category = new Category();
+		category.setCategoryName("category-" + System.nanoTime());
+		return categoryRepository.save(category);
+	}
+
+	public AppUser user(String prefix, Role role) {
+		return appUserRepository.save(newUser(prefix, role));
+	}
+
+	public AppUser seller() {
+		return user("seller", Role.ADMIN);
+	}
+
+	public Product product(Category category, AppUser seller, String name, double price, int stock) {
+		return productRepository.save(newProduct(category, seller, name, price, stock));
+	}
+
+	// in its own category, from its own seller
+	public Product product(String name, int stock) {
+		return product(category(), seller(), name, 100.0, stock);
+	}
+
+	public void addToCart(AppUser buyer, Product product) {
+		AddToCartDTO add = new AddToCartDTO();
+		add.setProductId(product.getId());
+		add.setQuantity(1);
+		cartService.addToCart(buyer.getUserId(), add);
+	}
+
+	// one of each product, bought cash on delivery by a new buyer
+	public Long placeOrder(Product... products) {
+		AppUser buyer = user("buyer", Role.USER);
+		for (Product product : products) {
+			addToCart(buyer, product);
+		}
+		return ((OrderResponseDTO) orderService.placeOrder(buyer.getUserId(), placeOrderRequest()).getBody())
+				.getOrderId();
+	}
+
+	public void confirm(Long orderId) {
+		UpdateOrderStatusRequest request = new UpdateOrderStatusRequest();
+		request.setStatus(OrderStatus.CONFIRMED);
+		orderService.updateOrderStatus(orderId, request);
+	}
+
+	public static PlaceOrderRequest placeOrderRequest() {
+		PlaceOrderRequest request = new PlaceOrderRequest();
+		request.setPaymentMethod(PaymentMethod.CASH_ON_DELIVERY);
+		request.setUseProfileAddress(false);
+		request.setShippingFullName("Test Buyer");
+		request.setShippingAddress("1 Test Street");
+		request.setShippingCity("Pune");
+		request.setShippingState("MH");
+		request.setShippingPincode("411001");
+		request.setShippingPhone("9999999999");
+		return request;
+	}
+
+	// not saved, for tests that change it before the first save
+	public static AppUser newUser(String prefix, Role role) {
+		AppUser user = new AppUser();
+		user.setUserName(prefix + "-" + System.nanoTime());
+		user.setEmail(prefix + "-" + System.nanoTime() + "@compatx.test");
+		user.setPassword("password");
+		user.setRole(role);
+		return user;
+	}
+
+	private static Product newProduct(Category category, AppUser seller, String name, double price, int stock) {
+		Product product = new Product();
+		product.setProductName(name);
+		product.setBrand("CompatX");
+		product.setPrice(price);
+		product.setStock(stock);
+		product.setCategory(category);
+		product.setUser(seller);
+		return product;
+	}
+}
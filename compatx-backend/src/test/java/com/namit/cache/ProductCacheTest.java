@@ -0,0 +1,106 @@
+package com.namit.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.namit.TestFixtures;
+import com.namit.models.Product;
+import com.namit.repositories.ProductRepository;
+
+@SpringBootTest
+@Import(TestFixtures.class)
+class ProductCacheTest {
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void secondReadIsAHitUntilTheEntryExpires() throws InterruptedException {
+		ProductCache cache = new ProductCache(productRepository, 10, 200);
+		Long id = fixtures.product("Cache product", 10).getId();
+
+		assertEquals(10, cache.get(id).orElseThrow().getStock());
+		transactionTemplate.executeWithoutResult(tx -> productRepository.decrementStock(id, 1));
+		assertEquals(10, cache.get(id).orElseThrow().getStock());
+		assertEquals(new ProductCache.Stats(1, 1, 0, 1), cache.stats());
+
+		Thread.sleep(300);
+
+		assertEquals(9, cache.get(id).orElseThrow().getStock());
+		assertEquals(new ProductCache.Stats(1, 2, 1, 1), cache.stats());
+		assertTrue(cache.get(-1L).isEmpty());
+	}
+
+	@Test
+	void leastRecentlyUsedEntryIsEvictedFirst() {
+		ProductCache cache = new ProductCache(productRepository, 2, 60_000);
+		Long first = fixtures.product("Cache product", 1).getId();
+		Long second = fixtures.product("Cache product", 2).getId();
+		Long third = fixtures.product("Cache product", 3).getId();
+
+		cache.get(first);
+		cache.get(second);
+		cache.get(first);
+		cache.get(third);
+
+		// second was the least recently read, so it is the one loaded again
+		cache.get(first);
+		cache.get(third);
+		assertEquals(new ProductCache.Stats(3, 3, 1, 2), cache.stats());
+		cache.get(second);
+		assertEquals(new ProductCache.Stats(3, 4, 2, 2), cache.stats());
+	}
+
+	@Test
+	void rolledBackStockChangeDoesNotStayCached() {
+		ProductCache cache = new ProductCache(productRepository, 10, 60_000);
+		Long id = fixtures.product("Cache product", 10).getId();
+		cache.get(id);
+
+		try {
+			transactionTemplate.executeWithoutResult(tx -> {
+				productRepository.decrementStock(id, 4);
+				cache.evictAfterCommit(id);
+
+				// a read inside the transaction caches the uncommitted row
+				assertEquals(6, cache.get(id).orElseThrow().getStock());
+				throw new IllegalStateException("roll back");
+			});
+		} catch (IllegalStateException expected) {
+		}
+
+		assertEquals(10, cache.get(id).orElseThrow().getStock());
+
+		transactionTemplate.executeWithoutResult(tx -> {
+			productRepository.decrementStock(id, 4);
+			cache.evictAfterCommit(id);
+		});
+		assertEquals(6, cache.get(id).orElseThrow().getStock());
+	}
+
+	@Test
+	void refreshReplacesAndEvictRemoves() {
+		ProductCache cache = new ProductCache(productRepository, 10, 60_000);
+		Product product = fixtures.product("Cache product", 10);
+
+		cache.get(product.getId());
+		product.setProductName("Renamed");
+		cache.refresh(product);
+		assertEquals("Renamed", cache.get(product.getId()).orElseThrow().getProductName());
+
+		cache.evict(product.getId());
+		assertEquals("Cache product", cache.get(product.getId()).orElseThrow().getProductName());
+	}
+}
@@ -0,0 +1,52 @@
+package com.namit.config;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.TaskScheduler;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "spring.threads.virtual.enabled=true")
+class ThreadingModeTest {
+
+	@Autowired
+	private ServletWebServerApplicationContext context;
+
+	@Autowired
+	@Qualifier("applicationTaskExecutor")
+	private AsyncTaskExecutor applicationTaskExecutor;
+
+	@Autowired
+	private TaskScheduler taskScheduler;
+
+	@Autowired
+	private ThreadingModeReporter threadingModeReporter;
+
+	@Test
+	void switchMovesTomcatAsyncAndScheduledWorkOntoVirtualThreads() throws Exception {
+		assertTrue(threadingModeReporter.isVirtual());
+
+		Executor tomcat = ((TomcatWebServer) context.getWebServer())
+				.getTomcat().getConnector().getProtocolHandler().getExecutor();
+		assertTrue(runsOnVirtualThread(tomcat), "Tomcat request threads");
+		assertTrue(runsOnVirtualThread(applicationTaskExecutor), "@Async executor");
+		assertTrue(runsOnVirtualThread(task -> taskScheduler.schedule(task, Instant.now())), "@Scheduled scheduler");
+	}
+
+	private static boolean runsOnVirtualThread(Executor executor) throws Exception {
+		CompletableFuture<Boolean> virtual = new CompletableFuture<>();
+		executor.execute(() -> virtual.complete(Thread.currentThread().isVirtual()));
+		return virtual.get(10, TimeUnit.SECONDS);
+	}
+}
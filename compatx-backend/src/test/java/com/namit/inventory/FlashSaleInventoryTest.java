@@ -0,0 +1,195 @@
+package com.namit.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.namit.TestFixtures;
+import com.namit.cache.ProductCache;
+import com.namit.inventory.FlashSaleInventory.Claim;
+import com.namit.repositories.FlashSaleShardRepository;
+import com.namit.repositories.ProductRepository;
+import com.namit.search.ProductFilterIndex;
+import com.namit.search.ProductSearchIndex;
+import com.namit.services.InventoryReservationService;
+
+@SpringBootTest
+@Import(TestFixtures.class)
+class FlashSaleInventoryTest {
+
+	private static final int STOCK = 100;
+
+	@Autowired
+	private FlashSaleInventory flashSaleInventory;
+
+	@Autowired
+	private InventoryReservationService inventoryReservationService;
+
+	@Autowired
+	private FlashSaleShardRepository flashSaleShardRepository;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	@Autowired
+	private ProductCache productCache;
+
+	@Autowired
+	private ProductFilterIndex productFilterIndex;
+
+	@Autowired
+	private ProductSearchIndex productSearchIndex;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void concurrentClaimsNeverOversellAndEndingTheSaleFoldsThemIntoTheRow() throws Exception {
+		Long productId = fixtures.product("Flash sale item", STOCK).getId();
+		flashSaleInventory.start(productId, 8);
+
+		AtomicInteger reserved = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(32);
+		for (int t = 0; t < 32; t++) {
+			pool.submit(() -> {
+				start.await();
+				for (int i = 0; i < 10; i++) {
+					if (inventoryReservationService.reserve(Map.of(productId, 1)).isSuccess()) {
+						reserved.incrementAndGet();
+					}
+				}
+				return null;
+			});
+		}
+		start.countDown();
+		pool.shutdown();
+		assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS), "claims did not finish in time");
+
+		assertEquals(STOCK, reserved.get());
+		assertEquals(0, flashSaleInventory.available(productId).getAsLong());
+		// whatever the scheduled reconcile has not folded yet is still recorded
+		assertEquals(0, stock(productId) - flashSaleShardRepository.sumSold(productId));
+
+		assertTrue(flashSaleInventory.end(productId));
+		assertEquals(0, stock(productId));
+		assertEquals(0, flashSaleShardRepository.sumSold(productId));
+	}
+
+	@Test
+	void rolledBackOrderGivesItsUnitsBack() {
+		Long productId = fixtures.product("Flash sale item", STOCK).getId();
+		flashSaleInventory.start(productId, 4);
+
+		try {
+			transactionTemplate.executeWithoutResult(tx -> {
+				assertTrue(inventoryReservationService.reserve(Map.of(productId, 5)).isSuccess());
+				assertEquals(STOCK - 5, flashSaleInventory.available(productId).getAsLong());
+				throw new IllegalStateException("payment failed");
+			});
+		} catch (IllegalStateException expected) {
+		}
+
+		assertEquals(STOCK, flashSaleInventory.available(productId).getAsLong());
+		assertEquals(0, flashSaleShardRepository.sumSold(productId));
+		flashSaleInventory.end(productId);
+		assertEquals(STOCK, stock(productId));
+	}
+
+	@Test
+	void ordersInFlightWhenTheSaleEndsAreKeptOrUndone() throws Exception {
+		Long committed = fixtures.product("Flash sale item", STOCK).getId();
+		Long rolledBack = fixtures.product("Flash sale item", STOCK).getId();
+		flashSaleInventory.start(committed, 4);
+		flashSaleInventory.start(rolledBack, 4);
+
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		CountDownLatch claimed = new CountDownLatch(2);
+		CountDownLatch ended = new CountDownLatch(1);
+		Future<?> commit = pool.submit(() -> orderInFlight(committed, claimed, ended, false));
+		Future<?> rollback = pool.submit(() -> orderInFlight(rolledBack, claimed, ended, true));
+
+		assertTrue(claimed.await(10, TimeUnit.SECONDS));
+		flashSaleInventory.end(committed);
+		flashSaleInventory.end(rolledBack);
+		ended.countDown();
+		commit.get(10, TimeUnit.SECONDS);
+		rollback.get(10, TimeUnit.SECONDS);
+		pool.shutdown();
+
+		flashSaleInventory.reconcile();
+		assertEquals(STOCK - 3, stock(committed));
+		assertEquals(STOCK, stock(rolledBack));
+		assertEquals(0, flashSaleShardRepository.sumSold(committed));
+		assertEquals(0, flashSaleShardRepository.sumSold(rolledBack));
+	}
+
+	@Test
+	void restartedSaleDoesNotSellUnitsSoldBeforeACrash() {
+		Long productId = fixtures.product("Flash sale item", STOCK).getId();
+		flashSaleInventory.start(productId, 4);
+		for (int i = 0; i < 30; i++) {
+			assertTrue(inventoryReservationService.reserve(Map.of(productId, 1)).isSuccess());
+		}
+
+		// a fresh instance has none of the counters, as after a crash
+		FlashSaleInventory restarted = new FlashSaleInventory(productRepository, flashSaleShardRepository,
+				productCache, productFilterIndex, productSearchIndex, transactionTemplate, List.of(), 4);
+		assertEquals(STOCK - 30, restarted.start(productId, 4).orElseThrow().available());
+
+		AtomicInteger sold = new AtomicInteger();
+		for (int i = 0; i <= STOCK - 30; i++) {
+			transactionTemplate.executeWithoutResult(tx -> {
+				if (restarted.claim(productId, 1) == Claim.CLAIMED) {
+					sold.incrementAndGet();
+				}
+			});
+		}
+		assertEquals(STOCK - 30, sold.get());
+
+		restarted.end(productId);
+		flashSaleInventory.end(productId);
+		assertEquals(0, stock(productId));
+	}
+
+	// claims qty 3, waits until the sale has ended, then commits or rolls back
+	private Void orderInFlight(Long productId, CountDownLatch claimed, CountDownLatch ended, boolean fail) {
+		try {
+			transactionTemplate.executeWithoutResult(tx -> {
+				assertTrue(inventoryReservationService.reserve(Map.of(productId, 3)).isSuccess());
+				claimed.countDown();
+				try {
+					assertTrue(ended.await(10, TimeUnit.SECONDS));
+				} catch (InterruptedException e) {
+					throw new IllegalStateException(e);
+				}
+				if (fail) {
+					throw new IllegalStateException("payment failed");
+				}
+			});
+		} catch (IllegalStateException expected) {
+		}
+		return null;
+	}
+
+	private int stock(Long productId) {
+		return productRepository.findById(productId).orElseThrow().getStock();
+	}
+}
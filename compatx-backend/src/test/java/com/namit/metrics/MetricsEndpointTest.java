@@ -0,0 +1,61 @@
+package com.namit.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class MetricsEndpointTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void prometheusEndpointExposesRequestServiceAndHibernateMetrics() throws Exception {
+		mockMvc.perform(get("/api/v1/products/filter").param("keyword", "ssd"))
+				.andExpect(status().isOk());
+
+		String scrape = mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		assertContains(scrape, "http_server_requests_seconds_bucket{");
+		assertContains(scrape, "uri=\"/api/v1/products/filter\"");
+		assertContains(scrape, "compatx_service_seconds_count{application=\"compatx\",class=\"com.namit.services.ProductService\"");
+		assertContains(scrape, "hibernate_request_statements_count{application=\"compatx\",method=\"GET\",uri=\"/api/v1/products/filter\"}");
+		assertContains(scrape, "hibernate_request_entity_loads");
+		assertContains(scrape, "hibernate_statements_total");
+		assertContains(scrape, "compatx_cache_requests_total{application=\"compatx\",cache=\"product\",result=\"hit\"}");
+
+		// histograms only for the SLO timers
+		assertFalse(scrape.contains("compatx_service_seconds_bucket"), "compatx.service histogram");
+		assertFalse(scrape.contains("hibernate_request_sql_time_seconds_bucket"), "hibernate.request histogram");
+	}
+
+	@Test
+	void onlyAllowedAddressesMayScrapeButAnyoneCanCheckHealth() throws Exception {
+		mockMvc.perform(get("/actuator/prometheus").with(request -> {
+			request.setRemoteAddr("203.0.113.7");
+			return request;
+		})).andExpect(status().isUnauthorized());
+
+		mockMvc.perform(get("/actuator/health").with(request -> {
+			request.setRemoteAddr("203.0.113.7");
+			return request;
+		})).andExpect(status().isOk());
+	}
+
+	private static void assertContains(String scrape, String expected) {
+		assertTrue(scrape.contains(expected), () -> "missing " + expected);
+	}
+}
@@ -0,0 +1,62 @@
+package com.namit.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+/**
+ * SQL statement budgets for tests, so an N+1 regression fails the build
+ * instead of showing up in production latency.
+ *
+ *   mockMvc.perform(get("/api/v1/user/orders")).andExpect(QueryBudget.statementsAtMost(5));
+ *
+ *   List<Order> orders = QueryBudget.assertAtMost(2, () -> orderRepository.findAll());
+ *
+ * MockMvc requests are counted from the Server-Timing header written by
+ * RequestStatisticsFilter, so they include the security filters and the
+ * response rendering; direct calls open their own RequestStatistics scope.
+ */
+public final class QueryBudget {
+
+	private static final Pattern STATEMENTS = Pattern.compile("db;[^,]*desc=\"(\\d+) statements");
+
+	private QueryBudget() {
+	}
+
+	public static ResultMatcher statementsAtMost(long max) {
+		return result -> {
+			long statements = statements(result);
+			assertTrue(statements <= max,
+					() -> "expected at most " + max + " SQL statements but " + result.getRequest().getRequestURI()
+							+ " executed " + statements);
+		};
+	}
+
+	public static long statements(MvcResult result) {
+		String header = result.getResponse().getHeader(RequestStatisticsFilter.SERVER_TIMING);
+		assertNotNull(header, "no " + RequestStatisticsFilter.SERVER_TIMING + " header, is app.metrics.server-timing off?");
+		Matcher matcher = STATEMENTS.matcher(header);
+		assertTrue(matcher.find(), () -> "unexpected " + RequestStatisticsFilter.SERVER_TIMING + ": " + header);
+		return Long.parseLong(matcher.group(1));
+	}
+
+	public static <T> T assertAtMost(long max, Supplier<T> work) {
+		assertTrue(RequestStatistics.current() == null, "already inside a request scope");
+		RequestStatistics statistics = RequestStatistics.begin();
+		T result;
+		try {
+			result = work.get();
+		} finally {
+			RequestStatistics.end();
+		}
+		assertTrue(statistics.statements() <= max,
+				() -> "expected at most " + max + " SQL statements but executed " + statistics.statements());
+		return result;
+	}
+}
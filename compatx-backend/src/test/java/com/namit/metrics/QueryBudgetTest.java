@@ -0,0 +1,153 @@
+package com.namit.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.namit.TestFixtures;
+import com.namit.enums.Role;
+import com.namit.models.AppUser;
+import com.namit.models.Category;
+import com.namit.models.Product;
+import com.namit.repositories.AppUserRepository;
+import com.namit.repositories.OrderRepository;
+import com.namit.security.jwt.JwtUtil;
+import com.namit.services.OrderService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+class QueryBudgetTest {
+
+	private static final int LINES_PER_ORDER = 3;
+	private static final int PAGE_SIZE = 5;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	@Autowired
+	private AppUserRepository appUserRepository;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	private record Shop(AppUser seller, AppUser buyer) {
+	}
+
+	@Test
+	void orderListsDoNotQueryPerOrder() throws Exception {
+		// both fill the first page, so both also run the count query
+		Shop few = shopWithOrders(PAGE_SIZE + 1);
+		Shop many = shopWithOrders(3 * PAGE_SIZE);
+
+		// page, count, owner, then the items (with their products) of the whole page in one IN (...)
+		assertEquals(statements("/api/v1/user/orders", few.buyer()),
+				statements("/api/v1/user/orders", many.buyer()));
+		assertEquals(statements("/api/v1/admin/orders", few.seller()),
+				statements("/api/v1/admin/orders", many.seller()));
+
+		mockMvc.perform(page("/api/v1/user/orders", many.buyer()))
+				.andExpect(QueryBudget.statementsAtMost(4));
+		mockMvc.perform(page("/api/v1/admin/orders", many.seller()))
+				.andExpect(QueryBudget.statementsAtMost(4));
+	}
+
+	@Test
+	void cartIsLoadedWithOneJoin() throws Exception {
+		Shop small = shopWithOrders(0);
+		Shop large = shopWithOrders(0);
+		Category category = fixtures.category();
+		for (Product product : products(small.seller(), category, 1)) {
+			fixtures.addToCart(small.buyer(), product);
+		}
+		for (Product product : products(large.seller(), category, 8)) {
+			fixtures.addToCart(large.buyer(), product);
+		}
+
+		assertEquals(statements("/api/v1/user/cart", small.buyer()), statements("/api/v1/user/cart", large.buyer()));
+		mockMvc.perform(get("/api/v1/user/cart").header("Authorization", bearer(large.buyer())))
+				.andExpect(status().isOk())
+				.andExpect(header().exists(RequestStatisticsFilter.SERVER_TIMING))
+				.andExpect(QueryBudget.statementsAtMost(3));
+	}
+
+	@Test
+	void serviceCallsCanBeBudgetedDirectly() {
+		Shop shop = shopWithOrders(1);
+		Long orderId = orderRepository.findByUser_UserIdOrderByCreatedAtDesc(shop.buyer().getUserId(),
+				PageRequest.of(0, 1)).getContent().get(0).getOrderId();
+
+		// order with items and products, then their categories and users
+		assertTrue(QueryBudget.assertAtMost(3, () -> orderRepository.findByIdWithItems(orderId)).isPresent());
+
+		// the unbatched shape: one lookup per id
+		AssertionError error = assertThrows(AssertionError.class, () -> QueryBudget.assertAtMost(2, () -> {
+			for (int i = 0; i < 3; i++) {
+				appUserRepository.findById(shop.buyer().getUserId() + i);
+			}
+			return null;
+		}));
+		assertTrue(error.getMessage().contains("executed 3"), error.getMessage());
+	}
+
+	private long statements(String uri, AppUser user) throws Exception {
+		return QueryBudget.statements(mockMvc.perform(page(uri, user))
+				.andExpect(status().isOk())
+				.andReturn());
+	}
+
+	private MockHttpServletRequestBuilder page(String uri, AppUser user) {
+		return get(uri).param("size", String.valueOf(PAGE_SIZE)).header("Authorization", bearer(user));
+	}
+
+	private Shop shopWithOrders(int orders) {
+		Category category = fixtures.category();
+		AppUser seller = fixtures.seller();
+		AppUser buyer = fixtures.user("buyer", Role.USER);
+
+		for (int i = 0; i < orders; i++) {
+			for (Product product : products(seller, category, LINES_PER_ORDER)) {
+				fixtures.addToCart(buyer, product);
+			}
+			assertEquals(200, orderService.placeOrder(buyer.getUserId(), TestFixtures.placeOrderRequest())
+					.getStatusCode().value());
+		}
+		return new Shop(seller, buyer);
+	}
+
+	private List<Product> products(AppUser seller, Category category, int count) {
+		List<Product> products = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			products.add(fixtures.product(category, seller, "Product " + i, 100.0, 10));
+		}
+		return products;
+	}
+
+	private String bearer(AppUser user) {
+		return "Bearer " + jwtUtil.generateToken(user);
+	}
+}
@@ -0,0 +1,104 @@
+package com.namit.responsewrapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.namit.TestFixtures;
+import com.namit.models.AppUser;
+import com.namit.models.Category;
+import com.namit.services.ProductService;
+
+@SpringBootTest
+@Import(TestFixtures.class)
+class MyResponseWrapperTest {
+
+	private static final int PRODUCTS = 16;
+	private static final int THREADS = 32;
+	private static final int CALLS_PER_THREAD = 500;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	@Test
+	void serializesToMessageAndData() throws Exception {
+		JsonNode body = objectMapper.valueToTree(
+				MyResponseWrapper.universalResponse("Created", List.of(1, 2), HttpStatus.CREATED).getBody());
+
+		assertEquals(List.of("message", "data"), fieldNames(body));
+		assertEquals("Created", body.get("message").asText());
+		assertEquals(2, body.get("data").size());
+	}
+
+	@Test
+	void concurrentResponsesNeverShareAPayload() throws Exception {
+		List<Long> productIds = products();
+
+		AtomicInteger mismatches = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+		for (int t = 0; t < THREADS; t++) {
+			Random random = new Random(t);
+			pool.submit(() -> {
+				start.await();
+				for (int i = 0; i < CALLS_PER_THREAD; i++) {
+					Long productId = productIds.get(random.nextInt(productIds.size()));
+					Object body = productService.getCustomerProduct(productId).getBody();
+
+					// serialized after the call, like the message converter does
+					JsonNode json = objectMapper.valueToTree(body);
+					if (json.path("data").path("id").asLong() != productId) {
+						mismatches.incrementAndGet();
+					}
+				}
+				return null;
+			});
+		}
+
+		start.countDown();
+		pool.shutdown();
+		assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS), "lookups did not finish in time");
+
+		assertEquals(0, mismatches.get());
+	}
+
+	private List<Long> products() {
+		Category category = fixtures.category();
+		AppUser seller = fixtures.seller();
+
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < PRODUCTS; i++) {
+			ids.add(fixtures.product(category, seller, "Product " + i, 100.0 + i, 10).getId());
+		}
+		return ids;
+	}
+
+	private static List<String> fieldNames(JsonNode node) {
+		List<String> names = new ArrayList<>();
+		node.fieldNames().forEachRemaining(names::add);
+		return names;
+	}
+}
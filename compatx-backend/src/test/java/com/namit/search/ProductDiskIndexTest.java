@@ -0,0 +1,94 @@
+package com.namit.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.namit.TestFixtures;
+import com.namit.enums.Role;
+import com.namit.models.AppUser;
+import com.namit.models.Category;
+import com.namit.models.Product;
+import com.namit.repositories.ProductRepository;
+import com.namit.services.ProductService;
+
+@SpringBootTest
+@Import(TestFixtures.class)
+class ProductDiskIndexTest {
+
+	@DynamicPropertySource
+	static void diskIndex(DynamicPropertyRegistry registry) throws IOException {
+		String path = Files.createTempDirectory("product-index").toString();
+		registry.add("app.search.disk-index.enabled", () -> "true");
+		registry.add("app.search.disk-index.path", () -> path);
+	}
+
+	@Autowired
+	private ProductDiskIndex productDiskIndex;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	@Test
+	void productWritesAreSearchableAndMissedChangesAreCaughtUp() throws IOException {
+		Category category = fixtures.category();
+		AppUser admin = fixtures.user("admin", Role.ADMIN);
+
+		Long lamp = create(admin, category, "Quokka Lamp", "works next to a quokka quokka mouse");
+		Long mouse = create(admin, category, "Quokka Mouse", "wireless");
+		Long cable = create(admin, category, "Cable", "quokka");
+
+		productDiskIndex.refresh();
+		assertEquals(List.of(mouse, lamp, cable), productDiskIndex.search("quokka mouse", 0, 10).ids());
+		assertEquals(new ProductFilterIndex.IdPage(List.of(mouse), 3), productDiskIndex.search("quokka", 1, 1));
+
+		// written behind the index's back: a rename, a delete and a raw insert
+		Product renamed = productRepository.findById(cable).orElseThrow();
+		renamed.setProductName("Wombat Cable");
+		renamed.setDescription("plain");
+		productRepository.save(renamed);
+		productRepository.deleteById(lamp);
+
+		Long hub = fixtures.product(category, admin, "Wombat Hub", 10.0, 1).getId();
+
+		productDiskIndex.verify();
+		assertEquals(List.of(mouse), productDiskIndex.search("quokka", 0, 10).ids());
+		assertEquals(List.of(cable, hub), productDiskIndex.search("wombat", 0, 10).ids());
+
+		// a restart opens the committed segments as they are
+		productDiskIndex.close();
+		productDiskIndex.open();
+		productDiskIndex.verify();
+		assertEquals(List.of(cable, hub), productDiskIndex.search("wombat", 0, 10).ids());
+
+		productService.adminDeleteProduct(admin.getUserId(), hub);
+		productDiskIndex.refresh();
+		assertEquals(List.of(cable), productDiskIndex.search("wombat", 0, 10).ids());
+	}
+
+	private Long create(AppUser admin, Category category, String name, String description) {
+		Product product = new Product();
+		product.setProductName(name);
+		product.setBrand("CompatX");
+		product.setDescription(description);
+		product.setPrice(10.0);
+		product.setStock(5);
+		productService.adminCreateProduct(admin.getUserId(), product, category.getCategoryId());
+		return product.getId();
+	}
+}
@@ -0,0 +1,248 @@
+package com.namit.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+import org.junit.jupiter.api.Test;
+
+import com.namit.models.AppUser;
+import com.namit.models.Category;
+import com.namit.models.Product;
+
+class ProductFilterIndexTest {
+
+	private static final String[] BRANDS = { "Samsung", "Seagate", "Corsair", "Logitech", "Asus", "MSI" };
+	private static final String[] NAMES = { "SSD", "Monitor", "Keyboard", "Mouse", "Motherboard", "RAM Kit" };
+	private static final double[] BUCKETS = { 0, 1000, 5000, 20000 };
+
+	private final Random random = new Random(7);
+	private final List<Category> categories = new ArrayList<>();
+	private final Map<Long, Product> catalog = new HashMap<>();
+
+	private final ProductSearchIndex searchIndex = new ProductSearchIndex(null, 2);
+	private final ProductFilterIndex filterIndex = new ProductFilterIndex(null, searchIndex, BUCKETS, 100, true);
+
+	@Test
+	void pagesMatchAScanOfTheCatalog() {
+		for (long id = 1; id <= 3000; id++) {
+			save(product(id));
+		}
+
+		List<ProductFilter> filters = List.of(
+				new ProductFilter(null, null, null, null, null, null, null, null),
+				new ProductFilter("ssd", null, null, null, null, null, null, null),
+				new ProductFilter(null, 2L, "s", 1000.0, 20000.0, null, null, null),
+				new ProductFilter("o", null, null, null, 4999.0, 1, null, 3L),
+				new ProductFilter(null, null, "sair", null, null, null, 0, null),
+				new ProductFilter("mo", 4L, null, 500.0, null, 3, 12, 1L));
+
+		for (ProductFilter filter : filters) {
+			for (String sortField : new String[] { null, "price", "stock", "createdAt" }) {
+				for (boolean descending : new boolean[] { false, true }) {
+					List<Long> expected = scan(filter, sortField, descending);
+					for (long offset : new long[] { 0, 7, expected.size() - 3 }) {
+						assertPage(expected, filter, sortField, descending, Math.max(0, offset), 10);
+					}
+					assertPage(expected, filter, sortField, descending, 0, Integer.MAX_VALUE);
+				}
+			}
+		}
+	}
+
+	@Test
+	void stockAdjustmentsMoveProductsBetweenRanges() {
+		for (long id = 1; id <= 200; id++) {
+			save(product(id));
+		}
+		ProductFilter outOfStock = new ProductFilter(null, null, null, null, null, null, 0, null);
+		ProductFilter lowStock = new ProductFilter(null, null, null, null, null, 1, 3, null);
+		assertPage(scan(outOfStock, "stock", false), outOfStock, "stock", false, 0, 1000);
+
+		for (long id = 1; id <= 200; id += 3) {
+			Product product = catalog.get(id);
+			int delta = -Math.min(product.getStock(), 1 + random.nextInt(5));
+			product.setStock(product.getStock() + delta);
+			filterIndex.adjustStock(id, delta);
+		}
+
+		assertPage(scan(outOfStock, "stock", false), outOfStock, "stock", false, 0, 1000);
+		assertPage(scan(lowStock, "stock", true), lowStock, "stock", true, 0, 1000);
+	}
+
+	@Test
+	void countsMatchAScanOfTheCatalog() {
+		for (long id = 1; id <= 3000; id++) {
+			save(product(id));
+		}
+
+		assertFacets(null, null, null, null, null);
+		assertFacets("ssd", null, null, null, null);
+		assertFacets("sam", 2L, null, null, null);
+		assertFacets(null, null, "s", 1000.0, 20000.0);
+		assertFacets("o", 3L, "sair", null, 4999.0);
+		assertFacets("nothing like this", null, null, null, null);
+	}
+
+	@Test
+	void followsUpdatesAndDeletesThroughCompaction() {
+		for (long id = 1; id <= 3000; id++) {
+			save(product(id));
+		}
+
+		// rewrites every product more than once, so dead ordinals pile up and get compacted
+		for (int i = 0; i < 8000; i++) {
+			long id = 1 + random.nextInt(3000);
+			if (random.nextInt(5) == 0) {
+				catalog.remove(id);
+				searchIndex.remove(id);
+				filterIndex.remove(id);
+			} else {
+				save(product(id));
+			}
+		}
+
+		assertEquals(catalog.size(), filterIndex.size());
+		assertFacets(null, null, null, null, null);
+		assertFacets("mo", 4L, "a", 500.0, null);
+
+		ProductFilter filter = new ProductFilter(null, null, "s", null, 20000.0, 1, null, 2L);
+		assertPage(scan(filter, "price", true), filter, "price", true, 5, 20);
+	}
+
+	private void assertPage(List<Long> expected, ProductFilter filter, String sortField, boolean descending,
+			long offset, int limit) {
+		ProductFilterIndex.IdPage page = filterIndex.page(filter, sortField, descending, offset, limit);
+
+		int from = (int) Math.min(offset, expected.size());
+		int to = (int) Math.min((long) from + limit, expected.size());
+		assertEquals(expected.size(), page.total());
+		assertEquals(expected.subList(from, to), page.ids(), () -> filter + " by " + sortField);
+	}
+
+	// what the ProductSpecification query returns, ordered by (sort value, id)
+	private List<Long> scan(ProductFilter filter, String sortField, boolean descending) {
+		Comparator<Product> order = switch (sortField == null ? "id" : sortField) {
+		case "price" -> Comparator.comparing(Product::getPrice);
+		case "stock" -> Comparator.comparing(Product::getStock);
+		case "createdAt" -> Comparator.comparing(Product::getCreatedAt);
+		default -> (a, b) -> 0;
+		};
+		order = order.thenComparing(Product::getId);
+
+		return catalog.values().stream()
+				.filter(p -> filter.keyword() == null || contains(p.getProductName(), filter.keyword())
+						|| contains(p.getBrand(), filter.keyword()))
+				.filter(p -> filter.categoryId() == null || p.getCategory().getCategoryId().equals(filter.categoryId()))
+				.filter(p -> filter.brand() == null || contains(p.getBrand(), filter.brand()))
+				.filter(p -> filter.minPrice() == null || p.getPrice() >= filter.minPrice())
+				.filter(p -> filter.maxPrice() == null || p.getPrice() <= filter.maxPrice())
+				.filter(p -> filter.minStock() == null || p.getStock() >= filter.minStock())
+				.filter(p -> filter.maxStock() == null || p.getStock() <= filter.maxStock())
+				.filter(p -> filter.ownerId() == null || p.getUser().getUserId().equals(filter.ownerId()))
+				.sorted(descending ? order.reversed() : order)
+				.map(Product::getId)
+				.toList();
+	}
+
+	private void assertFacets(String keyword, Long categoryId, String brand, Double minPrice, Double maxPrice) {
+		Predicate<Product> byKeyword = p -> keyword == null || contains(p.getProductName(), keyword)
+				|| contains(p.getBrand(), keyword);
+		Predicate<Product> byCategory = p -> categoryId == null || p.getCategory().getCategoryId().equals(categoryId);
+		Predicate<Product> byBrand = p -> brand == null || contains(p.getBrand(), brand);
+		Predicate<Product> byPrice = p -> (minPrice == null || p.getPrice() >= minPrice)
+				&& (maxPrice == null || p.getPrice() <= maxPrice);
+
+		Map<String, Long> brands = new TreeMap<>();
+		Map<Long, Long> categoryCounts = new TreeMap<>();
+		long[] buckets = new long[BUCKETS.length];
+		long total = 0;
+
+		for (Product p : catalog.values()) {
+			if (!byKeyword.test(p)) {
+				continue;
+			}
+			if (byCategory.and(byPrice).test(p)) {
+				brands.merge(p.getBrand(), 1L, Long::sum);
+			}
+			if (byBrand.and(byPrice).test(p)) {
+				categoryCounts.merge(p.getCategory().getCategoryId(), 1L, Long::sum);
+			}
+			if (byCategory.and(byBrand).test(p)) {
+				int bucket = BUCKETS.length - 1;
+				while (p.getPrice() < BUCKETS[bucket]) {
+					bucket--;
+				}
+				buckets[bucket]++;
+				if (byPrice.test(p)) {
+					total++;
+				}
+			}
+		}
+
+		ProductFacets facets = filterIndex.facets(ProductFilter.customer(keyword, categoryId, brand, minPrice, maxPrice));
+
+		assertEquals(total, facets.total());
+		assertEquals(brands, toMap(facets.brands(), ProductFacets.BrandCount::brand, ProductFacets.BrandCount::count));
+		assertEquals(categoryCounts, toMap(facets.categories(), ProductFacets.CategoryCount::categoryId,
+				ProductFacets.CategoryCount::count));
+		for (int i = 0; i < BUCKETS.length; i++) {
+			assertEquals(buckets[i], facets.priceRanges().get(i).count());
+		}
+	}
+
+	private static <T, K> Map<K, Long> toMap(List<T> values, Function<T, K> key, ToLongFunction<T> count) {
+		Map<K, Long> map = new TreeMap<>();
+		values.forEach(value -> map.put(key.apply(value), count.applyAsLong(value)));
+		return map;
+	}
+
+	private void save(Product product) {
+		catalog.put(product.getId(), product);
+		searchIndex.index(product);
+		filterIndex.index(product);
+	}
+
+	private Product product(long id) {
+		Product product = new Product();
+		product.setId(id);
+		product.setBrand(BRANDS[random.nextInt(BRANDS.length)]);
+		product.setProductName(NAMES[random.nextInt(NAMES.length)] + " " + random.nextInt(100));
+		product.setPrice(Math.floor(random.nextDouble() * 30000));
+		product.setStock(random.nextInt(20));
+		product.setCreatedAt(Instant.ofEpochSecond(1_700_000_000L + random.nextInt(500)));
+		product.setCategory(category(1 + random.nextInt(5)));
+		product.setUser(owner(1 + random.nextInt(3)));
+		return product;
+	}
+
+	private Category category(long id) {
+		while (categories.size() < id) {
+			Category category = new Category();
+			category.setCategoryId((long) categories.size() + 1);
+			category.setCategoryName("Category " + (categories.size() + 1));
+			categories.add(category);
+		}
+		return categories.get((int) id - 1);
+	}
+
+	private static AppUser owner(long id) {
+		AppUser owner = new AppUser();
+		owner.setUserId(id);
+		return owner;
+	}
+
+	private static boolean contains(String value, String text) {
+		return value.toLowerCase().contains(text.toLowerCase());
+	}
+}
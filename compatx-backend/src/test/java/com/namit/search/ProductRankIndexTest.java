@@ -0,0 +1,174 @@
+package com.namit.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.namit.models.Product;
+import com.namit.search.ProductFilterIndex.IdPage;
+
+class ProductRankIndexTest {
+
+	private static final double[] BOOSTS = { 3.0, 2.0, 1.0 };
+	private static final String[] WORDS = { "ssd", "nvme", "pro", "gaming", "mouse", "wireless", "rgb", "monitor",
+			"4k", "ultra", "silent", "fan" };
+	private static final String[] BRANDS = { "Samsung", "Logitech", "Corsair", "Noctua", "Dell" };
+	private static final String[] QUERIES = { "ssd", "gaming mouse", "samsung ssd pro", "RGB-fan", "ultra 4k monitor",
+			"corsair", "missing", "pro pro", "wireless logitech mouse silent" };
+
+	private final Random random = new Random(5);
+	private final Map<Long, Product> catalog = new HashMap<>();
+	private final ProductRankIndex index = new ProductRankIndex(null, BOOSTS[0], BOOSTS[1], BOOSTS[2], false);
+
+	@Test
+	void pagesMatchAScoredScanOfTheCatalog() {
+		for (long id = 1; id <= 1500; id++) {
+			save(product(id));
+		}
+		assertAllQueries();
+
+		// re-index and delete enough to compact the postings at least once
+		for (int round = 0; round < 4000; round++) {
+			long id = 1 + random.nextInt(1600);
+			if (random.nextInt(3) == 0) {
+				catalog.remove(id);
+				index.remove(id);
+			} else {
+				save(product(id));
+			}
+		}
+		assertAllQueries();
+	}
+
+	@Test
+	void nameMatchesOutrankDescriptionMatches() {
+		save(named(1, "Desk Lamp", "Generic", "works well next to a gaming mouse"));
+		save(named(2, "Gaming Mouse", "Generic", "a desk lamp"));
+		save(named(3, "Keyboard", "Generic", "gaming"));
+
+		IdPage page = index.search("gaming mouse", 0, 10);
+
+		assertEquals(List.of(2L, 1L, 3L), page.ids());
+		assertEquals(3, page.total());
+		assertEquals(new IdPage(List.of(), 0), index.search("  ", 0, 10));
+	}
+
+	private void assertAllQueries() {
+		for (String query : QUERIES) {
+			List<Long> expected = scan(query);
+			for (int[] paging : new int[][] { { 0, 10 }, { 1, 10 }, { 3, 7 }, { 0, 5000 }, { 1000, 10 } }) {
+				long offset = (long) paging[0] * paging[1];
+				List<Long> expectedPage = expected.subList((int) Math.min(offset, expected.size()),
+						(int) Math.min(offset + paging[1], expected.size()));
+
+				IdPage page = index.search(query, offset, paging[1]);
+				assertEquals(expectedPage, page.ids(), query + " / " + offset);
+				assertEquals(expected.size(), page.total(), query);
+			}
+		}
+	}
+
+	// brute force BM25 over the whole catalog, same term and field order as the index
+	private List<Long> scan(String query) {
+		Set<String> words = new LinkedHashSet<>(tokens(query));
+		int documents = catalog.size();
+
+		List<Map<String, Integer>> documentFrequency = List.of(new HashMap<>(), new HashMap<>(), new HashMap<>());
+		long[] totalLength = new long[3];
+		for (Product product : catalog.values()) {
+			for (int f = 0; f < 3; f++) {
+				List<String> tokens = tokens(field(product, f));
+				totalLength[f] += tokens.size();
+				for (String word : new LinkedHashSet<>(tokens)) {
+					documentFrequency.get(f).merge(word, 1, Integer::sum);
+				}
+			}
+		}
+
+		Map<Long, Double> scores = new HashMap<>();
+		for (Product product : catalog.values()) {
+			double score = 0;
+			boolean matched = false;
+			for (String word : words) {
+				for (int f = 0; f < 3; f++) {
+					List<String> tokens = tokens(field(product, f));
+					int tf = 0;
+					for (String token : tokens) {
+						if (token.equals(word)) {
+							tf++;
+						}
+					}
+					if (tf == 0) {
+						continue;
+					}
+
+					double df = documentFrequency.get(f).get(word);
+					double idf = Math.log(1 + (documents - df + 0.5) / (df + 0.5));
+					double averageLength = (double) totalLength[f] / documents;
+					double norm = 1 - 0.75 + 0.75 * tokens.size() / averageLength;
+					score += BOOSTS[f] * idf * tf * (1.2 + 1) / (tf + 1.2 * norm);
+					matched = true;
+				}
+			}
+			if (matched) {
+				scores.put(product.getId(), score);
+			}
+		}
+
+		List<Long> ids = new ArrayList<>(scores.keySet());
+		ids.sort(Comparator.comparing((Long id) -> -scores.get(id)).thenComparing(id -> id));
+		return ids;
+	}
+
+	private static String field(Product product, int f) {
+		return f == 0 ? product.getProductName() : f == 1 ? product.getBrand() : product.getDescription();
+	}
+
+	private static List<String> tokens(String text) {
+		List<String> tokens = new ArrayList<>();
+		if (text != null) {
+			for (String token : text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+				if (!token.isEmpty()) {
+					tokens.add(token);
+				}
+			}
+		}
+		return tokens;
+	}
+
+	private void save(Product product) {
+		catalog.put(product.getId(), product);
+		index.index(product);
+	}
+
+	private Product product(long id) {
+		return named(id, words(1 + random.nextInt(3)), BRANDS[random.nextInt(BRANDS.length)],
+				random.nextInt(5) == 0 ? null : words(random.nextInt(12)));
+	}
+
+	private String words(int count) {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			text.append(i == 0 ? "" : random.nextBoolean() ? " " : ", ").append(WORDS[random.nextInt(WORDS.length)]);
+		}
+		return text.toString();
+	}
+
+	private static Product named(long id, String name, String brand, String description) {
+		Product product = new Product();
+		product.setId(id);
+		product.setProductName(name);
+		product.setBrand(brand);
+		product.setDescription(description);
+		return product;
+	}
+}
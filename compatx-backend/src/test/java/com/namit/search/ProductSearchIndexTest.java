@@ -0,0 +1,187 @@
+package com.namit.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+import com.namit.models.Product;
+
+class ProductSearchIndexTest {
+
+	private final ProductSearchIndex index = new ProductSearchIndex(null, 2);
+
+	@Test
+	void tokensMatchAnySubstringOfTheNameOrBrand() {
+		save(1, "Galaxy SSD 980", "Samsung");
+		save(2, "MX Master Mouse", "Logitech");
+		save(3, "Barracuda HDD", "Seagate");
+
+		// up to 3 characters straight from the posting list
+		assertEquals(List.of(1L, 3L), ids(index.searchFuzzy("ga")));
+		assertEquals(List.of(1L, 2L, 3L), ids(index.searchFuzzy("a")));
+		// longer tokens through their trigrams, verified against the text
+		assertEquals(List.of(3L), ids(index.searchFuzzy("arracu")));
+		assertEquals(List.of(2L), ids(index.searchFuzzy("OGITE")));
+		assertEquals(Set.of(1L, 3L), index.containing("GA"));
+		assertEquals(Set.of(), index.containing("ssd 9800"));
+		assertEquals(Set.of(1L), index.containing("ssd 98"));
+	}
+
+	@Test
+	void everyTokenMustMatchTheSameProduct() {
+		save(1, "Galaxy SSD 980", "Samsung");
+		save(2, "Galaxy Tab", "Samsung");
+		save(3, "Barracuda HDD", "Seagate");
+
+		assertEquals(List.of(1L, 2L), ids(index.searchFuzzy("samsung galaxy")));
+		assertEquals(List.of(1L), ids(index.searchFuzzy("  samsung   ssd ")));
+		assertEquals(List.of(), ids(index.searchFuzzy("seagate galaxy")));
+		assertEquals(List.of(), ids(index.searchFuzzy("samsung zzzzzz")));
+	}
+
+	@Test
+	void reindexingAProductReplacesWhatItWasPostedUnder() {
+		save(1, "Galaxy SSD 980", "Samsung");
+		save(2, "Barracuda HDD", "Seagate");
+
+		save(1, "Galaxy SSD 990 Pro", "Samsung");
+		assertEquals(Set.of(), index.containing("980"));
+		assertEquals(List.of(1L), ids(index.searchFuzzy("990 pro")));
+		assertEquals(2, index.size());
+
+		index.remove(1L);
+		assertEquals(List.of(), ids(index.searchFuzzy("galaxy")));
+		assertEquals(List.of(2L), ids(index.searchFuzzy("a")));
+		assertEquals(1, index.size());
+
+		// unknown ids are ignored
+		index.remove(42L);
+		assertEquals(1, index.size());
+	}
+
+	@Test
+	void stockAdjustmentsShowInTheReturnedSnapshots() {
+		Product product = product(1, "Galaxy SSD 980", "Samsung");
+		product.setStock(10);
+		index.index(product);
+
+		Product before = index.searchFuzzy("galaxy").products().get(0);
+		index.adjustStock(1L, -3);
+		index.adjustStockAfterCommit(1L, 1);
+		index.adjustStock(42L, -1);
+
+		assertEquals(8, index.searchFuzzy("galaxy").products().get(0).getStock());
+		// copies handed out earlier, and the indexed entity, keep their value
+		assertEquals(10, before.getStock());
+		assertEquals(10, product.getStock());
+	}
+
+	@Test
+	void misspeltTokensAreMatchedToTheClosestWords() {
+		save(1, "Galaxy SSD 980", "Samsung");
+		save(2, "MX Master Mouse", "Logitech");
+		save(3, "G305 Mouse", "Logitech");
+		save(4, "Barracuda HDD", "Seagate");
+
+		ProductSearchIndex.Result result = index.searchFuzzy("samsng ssd");
+		assertEquals(List.of(1L), ids(result));
+		assertEquals("samsung ssd", result.didYouMean());
+
+		result = index.searchFuzzy("logitehc mouse");
+		assertEquals(List.of(2L, 3L), ids(result));
+		assertEquals("logitech mouse", result.didYouMean());
+
+		// tokens that match as typed are never replaced
+		result = index.searchFuzzy("mouse");
+		assertEquals(List.of(2L, 3L), ids(result));
+		assertNull(result.didYouMean());
+
+		// up to 5 characters one edit, up to 2 none
+		assertEquals(List.of(1L), ids(index.searchFuzzy("galxy")));
+		assertEquals(List.of(), ids(index.searchFuzzy("gxlxy")));
+		assertEquals("hdd", index.didYouMean("hxd"));
+		assertNull(index.didYouMean("xy"));
+		assertNull(index.didYouMean("bxrrxcxda"));
+		assertEquals("barracuda seagate", index.didYouMean("barracda segate"));
+	}
+
+	@Test
+	void removedWordsAreNoLongerSuggested() {
+		save(1, "Vengeance RAM", "Corsair");
+		save(2, "Fury RAM", "Kingston");
+		assertEquals("corsair", index.didYouMean("corsiar"));
+
+		index.remove(1L);
+		assertNull(index.didYouMean("corsiar"));
+		assertEquals(List.of(), ids(index.searchFuzzy("corsiar")));
+
+		save(3, "Dominator RAM", "Corsair");
+		assertEquals(List.of(3L), ids(index.searchFuzzy("corsiar")));
+	}
+
+	@Test
+	void maxEditsZeroTurnsCorrectionOff() {
+		ProductSearchIndex exact = new ProductSearchIndex(null, 0);
+		exact.index(product(1, "Galaxy SSD 980", "Samsung"));
+
+		assertNull(exact.didYouMean("samsng"));
+		assertEquals(List.of(), ids(exact.searchFuzzy("samsng")));
+	}
+
+	@Test
+	void bkTreeFindsEveryWordWithinTheDistance() {
+		Random random = new Random(3);
+		List<String> words = new ArrayList<>();
+		BkTree tree = new BkTree();
+		for (int i = 0; i < 2000; i++) {
+			StringBuilder word = new StringBuilder();
+			for (int n = 3 + random.nextInt(6); n > 0; n--) {
+				word.append((char) ('a' + random.nextInt(6)));
+			}
+			words.add(word.toString());
+			tree.add(word.toString());
+		}
+
+		for (String query : new String[] { "abc", "abcdef", "ffeeddcc", "aaaa", "badcafe" }) {
+			for (int edits = 0; edits <= 3; edits++) {
+				TreeMap<String, Integer> expected = new TreeMap<>();
+				for (String word : words) {
+					int distance = BkTree.distance(query, word);
+					if (distance <= edits) {
+						expected.put(word, distance);
+					}
+				}
+
+				TreeMap<String, Integer> found = new TreeMap<>();
+				tree.within(query, edits, found::put);
+				assertEquals(expected, found, query + " / " + edits);
+			}
+		}
+
+		assertEquals(3, BkTree.distance("kitten", "sitting"));
+		assertEquals(6, BkTree.distance("", "abcdef"));
+	}
+
+	private static List<Long> ids(ProductSearchIndex.Result result) {
+		return result.products().stream().map(Product::getId).toList();
+	}
+
+	private void save(long id, String name, String brand) {
+		index.index(product(id, name, brand));
+	}
+
+	private static Product product(long id, String name, String brand) {
+		Product product = new Product();
+		product.setId(id);
+		product.setProductName(name);
+		product.setBrand(brand);
+		return product;
+	}
+}
@@ -0,0 +1,145 @@
+package com.namit.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+import com.namit.models.Product;
+import com.namit.search.ProductSuggestIndex.Kind;
+import com.namit.search.ProductSuggestIndex.Suggestion;
+
+class ProductSuggestIndexTest {
+
+	private static final int LIMIT = 5;
+	private static final String[] BRANDS = { "Samsung", "Seagate", "Sea Sonic", "Corsair", "Cooler Master", "MSI" };
+	private static final String[] WORDS = { "SSD", "Pro", "Power", "Supply", "Monitor", "Mouse", "RGB", "Series" };
+	private static final String[] PREFIXES = { "s", "se", "sea", "sea ", "p", "pro", "po", "m", "mo", "msi",
+			"c", "cooler m", "r", "rgb s", "ssd pro", "supply", "x", "SE", "  mo" };
+
+	private final Random random = new Random(11);
+	private final Map<Long, Product> catalog = new HashMap<>();
+	private final Map<Long, Long> sold = new HashMap<>();
+
+	private final ProductSuggestIndex index = new ProductSuggestIndex(null, null, LIMIT);
+
+	@Test
+	void suggestionsMatchAScanOfTheCatalog() {
+		for (long id = 1; id <= 400; id++) {
+			save(product(id));
+		}
+		assertAllPrefixes();
+
+		for (int round = 0; round < 300; round++) {
+			long id = 1 + random.nextInt(450);
+			switch (random.nextInt(4)) {
+			case 0 -> save(product(id));
+			case 1 -> {
+				catalog.remove(id);
+				sold.remove(id);
+				index.remove(id);
+			}
+			default -> {
+				int quantity = random.nextInt(10) - 2;
+				sold.put(id, Math.max(0, sold.getOrDefault(id, 0L) + quantity));
+				index.addSales(id, quantity);
+			}
+			}
+		}
+		assertAllPrefixes();
+	}
+
+	@Test
+	void productIdIsOnlySetForUniqueNames() {
+		save(named(1, "Barracuda HDD", "Seagate"));
+		save(named(2, "Barracuda HDD", "Seagate"));
+		save(named(3, "Barracuda SSD", "Seagate"));
+
+		List<Suggestion> suggestions = index.suggest("barracuda", 10);
+
+		assertEquals(List.of(
+				new Suggestion("Barracuda HDD", Kind.PRODUCT, null),
+				new Suggestion("Barracuda SSD", Kind.PRODUCT, 3L)), suggestions);
+		assertTrue(index.suggest(" ", 10).isEmpty());
+		assertTrue(index.suggest("barracuda ssdx", 10).isEmpty());
+	}
+
+	private void assertAllPrefixes() {
+		for (String prefix : PREFIXES) {
+			for (int limit : new int[] { 1, 3, LIMIT, 50 }) {
+				assertEquals(scan(prefix, Math.min(limit, LIMIT)), texts(index.suggest(prefix, limit)), prefix + " / " + limit);
+			}
+		}
+	}
+
+	// brute force: group names and brands, weigh by products + units sold, keep words starting with the prefix
+	private List<String> scan(String prefix, int limit) {
+		String query = prefix.toLowerCase().replaceAll("\\s+", " ").stripLeading();
+
+		Map<String, Long> weights = new TreeMap<>();
+		for (Product product : catalog.values()) {
+			long weight = 1 + sold.getOrDefault(product.getId(), 0L);
+			weights.merge("0" + product.getProductName().toLowerCase(), weight, Long::sum);
+			weights.merge("1" + product.getBrand().toLowerCase(), weight, Long::sum);
+		}
+
+		List<Map.Entry<String, Long>> matches = new ArrayList<>();
+		for (Map.Entry<String, Long> term : weights.entrySet()) {
+			String text = term.getKey().substring(1);
+			boolean match = text.startsWith(query);
+			for (int i = text.indexOf(' '); !match && i >= 0; i = text.indexOf(' ', i + 1)) {
+				match = text.startsWith(query, i + 1);
+			}
+			if (match) {
+				matches.add(term);
+			}
+		}
+
+		matches.sort(Comparator.comparing((Map.Entry<String, Long> e) -> -e.getValue())
+				.thenComparing(e -> e.getKey().substring(1))
+				.thenComparing(e -> e.getKey().charAt(0)));
+
+		List<String> texts = new ArrayList<>();
+		for (Map.Entry<String, Long> match : matches.subList(0, Math.min(limit, matches.size()))) {
+			texts.add(match.getKey());
+		}
+		return texts;
+	}
+
+	private static List<String> texts(List<Suggestion> suggestions) {
+		List<String> texts = new ArrayList<>();
+		for (Suggestion suggestion : suggestions) {
+			texts.add((suggestion.kind() == Kind.PRODUCT ? "0" : "1") + suggestion.text().toLowerCase());
+		}
+		return texts;
+	}
+
+	private void save(Product product) {
+		catalog.put(product.getId(), product);
+		index.index(product);
+	}
+
+	private Product product(long id) {
+		StringBuilder name = new StringBuilder(WORDS[random.nextInt(WORDS.length)]);
+		for (int words = random.nextInt(3); words > 0; words--) {
+			name.append(' ').append(WORDS[random.nextInt(WORDS.length)]);
+		}
+		return named(id, name.toString(), BRANDS[random.nextInt(BRANDS.length)]);
+	}
+
+	private static Product named(long id, String name, String brand) {
+		Product product = new Product();
+		product.setId(id);
+		product.setProductName(name);
+		product.setBrand(brand);
+		return product;
+	}
+}
@@ -0,0 +1,78 @@
+package com.namit.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import com.namit.TestFixtures;
+import com.namit.inventory.FlashSaleInventory;
+import com.namit.models.Product;
+import com.namit.responsewrapper.MyResponseWrapper;
+import com.namit.services.InventoryReservationService;
+import com.namit.services.ProductService;
+
+@SpringBootTest
+@Import(TestFixtures.class)
+class SmartSearchStockTest {
+
+	private static final int STOCK = 100;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ProductSearchIndex productSearchIndex;
+
+	@Autowired
+	private InventoryReservationService inventoryReservationService;
+
+	@Autowired
+	private FlashSaleInventory flashSaleInventory;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	@Test
+	void smartSearchShowsStockAfterAReservationAndARelease() {
+		Product product = indexedProduct();
+
+		assertTrue(inventoryReservationService.reserve(Map.of(product.getId(), 7)).isSuccess());
+		assertEquals(STOCK - 7, searchedStock(product));
+
+		inventoryReservationService.release(Map.of(product.getId(), 2));
+		assertEquals(STOCK - 5, searchedStock(product));
+	}
+
+	@Test
+	void smartSearchShowsStockOnceAFlashSaleIsFolded() {
+		Product product = indexedProduct();
+		flashSaleInventory.start(product.getId(), 4);
+
+		for (int i = 0; i < 3; i++) {
+			assertTrue(inventoryReservationService.reserve(Map.of(product.getId(), 2)).isSuccess());
+		}
+
+		assertTrue(flashSaleInventory.end(product.getId()));
+		assertEquals(STOCK - 6, searchedStock(product));
+	}
+
+	private int searchedStock(Product product) {
+		MyResponseWrapper body = (MyResponseWrapper) productService.smartSearch(product.getProductName()).getBody();
+		List<?> items = (List<?>) body.data();
+		assertEquals(1, items.size());
+		return ((Product) items.get(0)).getStock();
+	}
+
+	private Product indexedProduct() {
+		Product product = fixtures.product("Searchable " + System.nanoTime(), STOCK);
+		productSearchIndex.index(product);
+		return product;
+	}
+}
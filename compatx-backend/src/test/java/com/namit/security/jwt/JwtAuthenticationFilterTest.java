@@ -0,0 +1,132 @@
+package com.namit.security.jwt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.namit.TestFixtures;
+import com.namit.enums.Role;
+import com.namit.models.AppUser;
+import com.namit.repositories.AppUserRepository;
+import com.namit.security.details.CustomUserDetails;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class JwtAuthenticationFilterTest {
+
+	@Autowired
+	private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private AppUserRepository appUserRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private TokenRevocationList tokenRevocationList;
+
+	@AfterEach
+	void clearContext() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void bearerTokenAuthenticatesWithoutTouchingTheDatabase() throws Exception {
+		AppUser user = appUserRepository.save(TestFixtures.newUser("jwt", Role.USER));
+		String token = jwtUtil.generateToken(user);
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		Authentication auth = authenticate(token);
+
+		CustomUserDetails principal = (CustomUserDetails) auth.getPrincipal();
+		assertEquals(user.getUserId(), principal.getUserId());
+		assertEquals(user.getUserName(), principal.getUsername());
+		assertEquals("ROLE_USER", auth.getAuthorities().iterator().next().getAuthority());
+
+		assertEquals(0, statistics.getQueryExecutionCount());
+		assertEquals(0, statistics.getEntityLoadCount());
+		assertEquals(0, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void tokensIssuedBeforeARoleChangeOrDeactivationAreRejected() throws Exception {
+		AppUser user = appUserRepository.save(TestFixtures.newUser("jwt", Role.ADMIN));
+		String adminToken = jwtUtil.generateToken(user);
+
+		user.setRole(Role.USER);
+		user = appUserRepository.save(user);
+		tokenRevocationList.reload();
+
+		assertNull(authenticate(adminToken));
+
+		// a token with the new role works
+		String userToken = jwtUtil.generateToken(user);
+		assertEquals("ROLE_USER", authenticate(userToken).getAuthorities().iterator().next().getAuthority());
+
+		user.setIsActive(false);
+		appUserRepository.save(user);
+		tokenRevocationList.reload();
+
+		assertNull(authenticate(userToken));
+	}
+
+	@Test
+	void revocationsAreReadFromTheTableSoEveryInstanceSeesThem() throws Exception {
+		AppUser user = appUserRepository.save(TestFixtures.newUser("jwt", Role.ADMIN));
+		String adminToken = jwtUtil.generateToken(user);
+
+		// saving without an access change revokes nothing
+		user.setEmail("renamed-" + System.nanoTime() + "@compatx.test");
+		user = appUserRepository.save(user);
+		assertEquals(0L, user.getTokenVersion());
+
+		user.setRole(Role.USER);
+		appUserRepository.save(user);
+
+		// another node, or this one after a restart
+		TokenRevocationList restarted = new TokenRevocationList(appUserRepository, 900_000);
+		JwtAuthenticationFilter otherNode = new JwtAuthenticationFilter(jwtUtil, null, restarted);
+		assertEquals(0, restarted.size());
+
+		restarted.reload();
+		SecurityContextHolder.clearContext();
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/user/cart");
+		request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken);
+		otherNode.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+		assertNull(SecurityContextHolder.getContext().getAuthentication());
+		assertTrue(restarted.isRevoked(user.getUserId(), 0));
+		assertFalse(restarted.isRevoked(user.getUserId(), 1));
+	}
+
+	private Authentication authenticate(String token) throws Exception {
+		SecurityContextHolder.clearContext();
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/user/cart");
+		request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+		jwtAuthenticationFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+		return SecurityContextHolder.getContext().getAuthentication();
+	}
+}
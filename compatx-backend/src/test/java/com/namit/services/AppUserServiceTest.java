@@ -0,0 +1,102 @@
+package com.namit.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.namit.TestFixtures;
+import com.namit.enums.Role;
+import com.namit.models.AppUser;
+import com.namit.repositories.AppUserRepository;
+import com.namit.security.jwt.JwtUtil;
+import com.namit.security.jwt.TokenRevocationList;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+class AppUserServiceTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private TokenRevocationList tokenRevocationList;
+
+	@Autowired
+	private AppUserRepository appUserRepository;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	@Test
+	void adminRoleChangeAndDeactivationRevokeTheUsersTokens() throws Exception {
+		String admin = bearer(fixtures.user("admin", Role.ADMIN));
+		AppUser staff = fixtures.user("staff", Role.ADMIN);
+		String staffToken = bearer(staff);
+
+		mockMvc.perform(get("/api/v1/admin/orders/stats").header("Authorization", staffToken))
+				.andExpect(status().isOk());
+
+		// users cannot change access, admins can
+		mockMvc.perform(changeRole(staff.getUserId(), Role.USER, bearer(fixtures.user("buyer", Role.USER))))
+				.andExpect(status().isForbidden());
+		mockMvc.perform(changeRole(staff.getUserId(), Role.USER, admin))
+				.andExpect(status().isOk());
+		tokenRevocationList.reload();
+
+		mockMvc.perform(get("/api/v1/admin/orders/stats").header("Authorization", staffToken))
+				.andExpect(status().isUnauthorized());
+
+		// a token issued after the change carries the new role
+		String userToken = bearer(reload(staff));
+		mockMvc.perform(get("/api/v1/user/cart").header("Authorization", userToken))
+				.andExpect(status().isOk());
+
+		// setting what is already there revokes nothing
+		long version = reload(staff).getTokenVersion();
+		mockMvc.perform(changeRole(staff.getUserId(), Role.USER, admin))
+				.andExpect(status().isOk());
+		assertEquals(version, reload(staff).getTokenVersion());
+
+		mockMvc.perform(put("/api/v1/admin/users/{userId}/deactivate", staff.getUserId())
+				.header("Authorization", admin))
+				.andExpect(status().isOk());
+		tokenRevocationList.reload();
+
+		assertFalse(reload(staff).getIsActive());
+		mockMvc.perform(get("/api/v1/user/cart").header("Authorization", userToken))
+				.andExpect(status().isUnauthorized());
+
+		mockMvc.perform(changeRole(-1L, Role.USER, admin))
+				.andExpect(status().isNotFound());
+	}
+
+	private MockHttpServletRequestBuilder changeRole(Long userId, Role role, String token) {
+		return put("/api/v1/admin/users/{userId}/role", userId)
+				.header("Authorization", token)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"role\":\"" + role + "\"}");
+	}
+
+	private AppUser reload(AppUser user) {
+		return appUserRepository.findById(user.getUserId()).orElseThrow();
+	}
+
+	private String bearer(AppUser user) {
+		return "Bearer " + jwtUtil.generateToken(user);
+	}
+}
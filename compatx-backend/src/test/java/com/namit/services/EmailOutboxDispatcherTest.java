@@ -0,0 +1,141 @@
+package com.namit.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.namit.enums.EmailStatus;
+import com.namit.models.EmailOutbox;
+import com.namit.repositories.EmailOutboxRepository;
+
+import jakarta.mail.internet.MimeMessage;
+
+@SpringBootTest
+class EmailOutboxDispatcherTest {
+
+	// in-process SMTP server on localhost:3025 (see test application.properties)
+	@RegisterExtension
+	static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+			.withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication());
+
+	@Autowired
+	private EmailService emailService;
+
+	@Autowired
+	private EmailOutboxDispatcher emailOutboxDispatcher;
+
+	@Autowired
+	private EmailOutboxRepository emailOutboxRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@BeforeEach
+	void clearOutbox() {
+		emailOutboxRepository.deleteAll();
+	}
+
+	@Test
+	void queuedEmailsAreSentInOneBatch() throws Exception {
+		for (int i = 0; i < 5; i++) {
+			emailService.queuePasswordResetEmail("user" + i + "@compatx.test", "token-" + i);
+		}
+
+		assertEquals(5, emailOutboxDispatcher.dispatch());
+
+		MimeMessage[] received = greenMail.getReceivedMessages();
+		assertEquals(5, received.length);
+		assertEquals("CompatX - Password Reset Request", received[0].getSubject());
+		assertTrue(GreenMailUtil.getBody(received[0]).contains("/reset-password?token=token-"));
+
+		for (EmailOutbox email : emailOutboxRepository.findAll()) {
+			assertEquals(EmailStatus.SENT, email.getStatus());
+			assertEquals(1, email.getAttempts());
+			assertNotNull(email.getSentAt());
+		}
+
+		// nothing left to send
+		assertEquals(0, emailOutboxDispatcher.dispatch());
+		assertEquals(5, greenMail.getReceivedMessages().length);
+	}
+
+	@Test
+	void failedSendsAreRetriedThenMarkedFailed() {
+		emailService.queuePasswordResetEmail("retry@compatx.test", "token");
+
+		greenMail.stop();
+		try {
+			// max-attempts=3 and no backoff in tests
+			assertEquals(0, emailOutboxDispatcher.dispatch());
+			EmailOutbox email = emailOutboxRepository.findAll().get(0);
+			assertEquals(EmailStatus.PENDING, email.getStatus());
+			assertEquals(1, email.getAttempts());
+			assertNotNull(email.getLastError());
+
+			emailOutboxDispatcher.dispatch();
+			emailOutboxDispatcher.dispatch();
+			email = emailOutboxRepository.findAll().get(0);
+			assertEquals(EmailStatus.FAILED, email.getStatus());
+			assertEquals(3, email.getAttempts());
+		} finally {
+			greenMail.start();
+		}
+
+		// FAILED emails are not picked up again
+		assertEquals(0, emailOutboxDispatcher.dispatch());
+		assertEquals(0, greenMail.getReceivedMessages().length);
+	}
+
+	@Test
+	void emailsClaimedByAnotherDispatcherAreLeftUntilTheClaimLapses() {
+		for (int i = 0; i < 3; i++) {
+			emailService.queuePasswordResetEmail("claimed" + i + "@compatx.test", "token-" + i);
+		}
+		List<Long> ids = emailOutboxRepository.findAll().stream().map(EmailOutbox::getId).toList();
+		Instant now = Instant.now();
+		transactionTemplate.executeWithoutResult(tx ->
+				assertEquals(3, emailOutboxRepository.claim(ids, "other-instance", now, now.plusSeconds(3600))));
+
+		assertEquals(0, emailOutboxDispatcher.dispatch());
+		assertEquals(0, greenMail.getReceivedMessages().length);
+
+		// the other instance died holding the claim
+		transactionTemplate.executeWithoutResult(tx -> emailOutboxRepository.findClaimed("other-instance")
+				.forEach(email -> email.setClaimedUntil(now.minusSeconds(1))));
+
+		assertEquals(3, emailOutboxDispatcher.dispatch());
+		assertEquals(3, greenMail.getReceivedMessages().length);
+		for (EmailOutbox email : emailOutboxRepository.findAll()) {
+			assertEquals(EmailStatus.SENT, email.getStatus());
+			assertNull(email.getClaimedBy());
+		}
+	}
+
+	@Test
+	void emailIsDroppedWhenItsTransactionRollsBack() {
+		assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(tx -> {
+			emailService.queuePasswordResetEmail("rollback@compatx.test", "token");
+			throw new IllegalStateException("order failed");
+		}));
+
+		assertEquals(0, emailOutboxRepository.count());
+		assertEquals(0, emailOutboxDispatcher.dispatch());
+		assertEquals(0, greenMail.getReceivedMessages().length);
+	}
+}
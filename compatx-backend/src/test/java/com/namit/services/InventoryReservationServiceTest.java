@@ -0,0 +1,88 @@
+package com.namit.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import com.namit.TestFixtures;
+import com.namit.models.Product;
+import com.namit.repositories.ProductRepository;
+
+@SpringBootTest
+@Import(TestFixtures.class)
+class InventoryReservationServiceTest {
+
+	private static final int STOCK = 100;
+	private static final int THREADS = 32;
+	private static final int ATTEMPTS_PER_THREAD = 10;
+
+	@Autowired
+	private InventoryReservationService inventoryReservationService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	@Test
+	void concurrentReservationsOfOneSkuNeverOversell() throws Exception {
+		Long productId = fixtures.product("Flash sale item", STOCK).getId();
+
+		AtomicInteger reserved = new AtomicInteger();
+		AtomicInteger rejected = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+		for (int t = 0; t < THREADS; t++) {
+			pool.submit(() -> {
+				start.await();
+				for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+					if (inventoryReservationService.reserve(Map.of(productId, 1)).isSuccess()) {
+						reserved.incrementAndGet();
+					} else {
+						rejected.incrementAndGet();
+					}
+				}
+				return null;
+			});
+		}
+
+		start.countDown();
+		pool.shutdown();
+		assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS), "reservations did not finish in time");
+
+		// throughput is measured by ReservationBenchmark (JMH), not here
+		int attempts = THREADS * ATTEMPTS_PER_THREAD;
+		assertEquals(STOCK, reserved.get());
+		assertEquals(attempts - STOCK, rejected.get());
+		assertEquals(0, productRepository.findById(productId).orElseThrow().getStock());
+	}
+
+	@Test
+	void failedLineGivesBackTheOthers() {
+		Product plenty = fixtures.product("Flash sale item", STOCK);
+		Product scarce = fixtures.product("Flash sale item", STOCK);
+
+		InventoryReservationService.Result result = inventoryReservationService
+				.reserve(Map.of(plenty.getId(), 5, scarce.getId(), STOCK + 1));
+
+		assertFalse(result.isSuccess());
+		assertEquals(List.of(scarce.getId()), result.failed());
+		assertEquals(STOCK, productRepository.findById(plenty.getId()).orElseThrow().getStock());
+		assertEquals(STOCK, productRepository.findById(scarce.getId()).orElseThrow().getStock());
+	}
+}
@@ -0,0 +1,84 @@
+package com.namit.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.namit.TestFixtures;
+import com.namit.dtos.order.AdminOrderResponseDTO;
+import com.namit.dtos.order.OrderSummaryDTO;
+import com.namit.enums.OrderStatus;
+import com.namit.enums.Role;
+import com.namit.models.AppUser;
+import com.namit.models.Category;
+import com.namit.models.Product;
+
+@SpringBootTest
+@Import(TestFixtures.class)
+class OrderSellerServiceTest {
+
+	@Autowired
+	private OrderSellerService orderSellerService;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void sellersSeeTheirOrdersAndMissingLinksAreBackfilled() {
+		Category category = fixtures.category();
+		AppUser seller = fixtures.seller();
+		AppUser other = fixtures.user("other", Role.ADMIN);
+		Product mine = fixtures.product(category, seller, "Linked product", 100.0, 10);
+		Product theirs = fixtures.product(category, other, "Linked product", 40.0, 10);
+
+		Long first = fixtures.placeOrder(mine);
+		Long shared = fixtures.placeOrder(mine, theirs);
+		Long last = fixtures.placeOrder(theirs);
+		fixtures.confirm(first);
+
+		assertEquals(List.of(shared, first), orders(seller));
+		assertEquals(List.of(last, shared), orders(other));
+		assertEquals(List.of(first), confirmed(seller));
+
+		// orders placed before the link table existed
+		jdbcTemplate.update("DELETE FROM order_sellers WHERE seller_id = ?", seller.getUserId());
+		assertEquals(List.of(), orders(seller));
+
+		orderSellerService.backfillMissing();
+		assertEquals(List.of(shared, first), orders(seller));
+		assertEquals(List.of(last, shared), orders(other));
+		assertEquals(List.of(first), confirmed(seller));
+
+		// links that exist are left alone
+		orderSellerService.backfillMissing();
+		assertEquals(List.of(last, shared), orders(other));
+	}
+
+	// newest first, through the order_sellers link table
+	@SuppressWarnings("unchecked")
+	private List<Long> orders(AppUser seller) {
+		Page<AdminOrderResponseDTO> page = (Page<AdminOrderResponseDTO>) orderService
+				.getOrdersForAdmin(seller.getUserId(), null, null, "createdAt", "desc", 0, 10).getBody();
+		return page.getContent().stream().map(AdminOrderResponseDTO::getOrderId).toList();
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<Long> confirmed(AppUser seller) {
+		Page<OrderSummaryDTO> page = (Page<OrderSummaryDTO>) orderService
+				.getOrdersByStatusForAdmin(seller.getUserId(), OrderStatus.CONFIRMED, 0, 10).getBody();
+		return page.getContent().stream().map(OrderSummaryDTO::getOrderId).toList();
+	}
+}
@@ -0,0 +1,81 @@
+package com.namit.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import com.namit.TestFixtures;
+import com.namit.dtos.order.PlaceOrderRequest;
+import com.namit.enums.Role;
+import com.namit.metrics.QueryBudget;
+import com.namit.models.AppUser;
+import com.namit.models.Category;
+import com.namit.repositories.CartRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(TestFixtures.class)
+class OrderServiceTest {
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	@Autowired
+	private CartRepository cartRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private record Counts(long inserts, long updates, long deletes) {
+	}
+
+	@Test
+	void placeOrderWritesTheOrderOnceAndClearsTheCartInBulk() {
+		// the first orders also fetch the pooled id blocks
+		placeOrderWithLines(1, Long.MAX_VALUE);
+		placeOrderWithLines(1, Long.MAX_VALUE);
+
+		// user, cart, cart DELETE, 4 batched INSERTs, 2 counter upserts + one stock UPDATE per line
+		placeOrderWithLines(3, 9 + 3);
+		Counts large = placeOrderWithLines(6, 9 + 6);
+
+		// order + items + one seller link + the outbox email, never updated after the insert
+		assertEquals(1 + 6 + 1 + 1, large.inserts());
+		assertEquals(0, large.updates());
+
+		// cart items go with one bulk DELETE, not one by one
+		assertEquals(0, large.deletes());
+	}
+
+	private Counts placeOrderWithLines(int lines, long statementBudget) {
+		Category category = fixtures.category();
+		AppUser seller = fixtures.seller();
+		AppUser buyer = fixtures.user("buyer", Role.USER);
+		for (int i = 0; i < lines; i++) {
+			fixtures.addToCart(buyer, fixtures.product(category, seller, "Product " + i, 100.0, 10));
+		}
+		PlaceOrderRequest request = TestFixtures.placeOrderRequest();
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		assertEquals(200, QueryBudget.assertAtMost(statementBudget,
+				() -> orderService.placeOrder(buyer.getUserId(), request)).getStatusCode().value());
+
+		Counts counts = new Counts(statistics.getEntityInsertCount(), statistics.getEntityUpdateCount(),
+				statistics.getEntityDeleteCount());
+
+		assertTrue(cartRepository.findByUserIdWithItems(buyer.getUserId()).orElseThrow().getItems().isEmpty());
+		return counts;
+	}
+}
@@ -0,0 +1,80 @@
+package com.namit.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.namit.TestFixtures;
+import com.namit.dtos.order.OrderStatsDTO;
+import com.namit.enums.Role;
+import com.namit.models.AppUser;
+import com.namit.models.Category;
+import com.namit.models.Product;
+import com.namit.repositories.OrderRepository;
+
+@SpringBootTest
+@Import(TestFixtures.class)
+class OrderStatsServiceTest {
+
+	@Autowired
+	private OrderStatsService orderStatsService;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void countersFollowOrdersAndRecountRepairsThem() {
+		Category category = fixtures.category();
+		AppUser seller = fixtures.seller();
+		AppUser other = fixtures.user("other", Role.ADMIN);
+		Product mine = fixtures.product(category, seller, "Stats product", 100.0, 10);
+		Product theirs = fixtures.product(category, other, "Stats product", 40.0, 10);
+
+		Long first = fixtures.placeOrder(mine);
+		fixtures.placeOrder(mine, theirs);
+		fixtures.placeOrder(theirs);
+		fixtures.confirm(first);
+
+		OrderStatsDTO sellerStats = stats(2, 1, 1, 0.0);
+		OrderStatsDTO otherStats = stats(2, 2, 0, 0.0);
+		assertEquals(sellerStats, orderStatsService.statsForSeller(seller.getUserId()));
+		assertEquals(otherStats, orderStatsService.statsForSeller(other.getUserId()));
+
+		// orders written before the counters existed, and a counter that drifted
+		jdbcTemplate.update("DELETE FROM order_status_counters WHERE seller_id = ?", seller.getUserId());
+		jdbcTemplate.update("UPDATE order_status_counters SET order_count = order_count + 5 WHERE seller_id = ?",
+				other.getUserId());
+
+		orderStatsService.recount();
+		assertEquals(sellerStats, orderStatsService.statsForSeller(seller.getUserId()));
+		assertEquals(otherStats, orderStatsService.statsForSeller(other.getUserId()));
+		assertEquals(orderRepository.count(), orderStatsService.globalStats().getTotalOrders());
+
+		// nothing left to correct the second time
+		orderStatsService.recount();
+		assertEquals(sellerStats, orderStatsService.statsForSeller(seller.getUserId()));
+		assertEquals(orderRepository.count(), orderStatsService.globalStats().getTotalOrders());
+	}
+
+	private static OrderStatsDTO stats(long total, long pending, long confirmed, double revenue) {
+		return OrderStatsDTO.builder()
+				.totalOrders(total)
+				.pendingOrders(pending)
+				.confirmedOrders(confirmed)
+				.shippedOrders(0L)
+				.deliveredOrders(0L)
+				.cancelledOrders(0L)
+				.totalRevenue(revenue)
+				.build();
+	}
+}
@@ -0,0 +1,111 @@
+package com.namit.specifications;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.namit.TestFixtures;
+import com.namit.models.AppUser;
+import com.namit.models.Category;
+import com.namit.models.Product;
+import com.namit.responsewrapper.MyResponseWrapper;
+import com.namit.services.ProductService;
+
+@SpringBootTest
+@Import(TestFixtures.class)
+class ProductCursorTest {
+
+	private static final Instant EARLY = Instant.parse("2024-01-01T10:00:00Z");
+	private static final Instant TIED = Instant.parse("2024-02-01T10:00:00Z");
+	private static final Instant LATE = Instant.parse("2024-03-01T10:00:00Z");
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private TestFixtures fixtures;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void cursorsRoundTrip() {
+		ProductCursor byPrice = new ProductCursor("price", false, 19.5, 7L);
+		ProductCursor byDate = new ProductCursor("createdAt", true, TIED, 8L);
+		ProductCursor nullKey = new ProductCursor("createdAt", true, null, 9L);
+
+		assertEquals(byPrice, ProductCursor.decode(byPrice.encode()));
+		assertEquals(byDate, ProductCursor.decode(byDate.encode()));
+		assertEquals(nullKey, ProductCursor.decode(nullKey.encode()));
+		assertNull(ProductCursor.decode(nullKey.encode()).sortKey());
+
+		assertThrows(IllegalArgumentException.class, () -> ProductCursor.decode("not a cursor"));
+		assertThrows(IllegalArgumentException.class, () -> ProductCursor.decode(
+				new ProductCursor("stock", false, 1, 1L).encode()));
+	}
+
+	@Test
+	void pagesVisitEveryProductOnceIncludingTiesAndNullKeys() {
+		Category category = fixtures.category();
+		AppUser seller = fixtures.seller();
+
+		// three rows tied on createdAt and two without one
+		Map<Long, Instant> createdAt = new HashMap<>();
+		Instant[] keys = { TIED, null, LATE, TIED, EARLY, null, TIED };
+		for (Instant key : keys) {
+			Long id = fixtures.product(category, seller, "Cursor product", 10.0, 1).getId();
+			createdAt.put(id, key);
+			jdbcTemplate.update("UPDATE product SET created_at = ? WHERE id = ?",
+					key == null ? null : Timestamp.from(key), id);
+		}
+
+		Comparator<Long> ascending = Comparator
+				.comparing((Long id) -> createdAt.get(id), Comparator.nullsFirst(Comparator.naturalOrder()))
+				.thenComparing(Comparator.naturalOrder());
+		List<Long> expected = new ArrayList<>(createdAt.keySet());
+
+		expected.sort(ascending);
+		for (int size = 1; size <= 3; size++) {
+			assertEquals(expected, walk(category, "asc", size), "asc / " + size);
+		}
+
+		expected.sort(ascending.reversed());
+		for (int size = 1; size <= 3; size++) {
+			assertEquals(expected, walk(category, "desc", size), "desc / " + size);
+		}
+	}
+
+	// follows nextCursor from the first page until hasNext is false
+	@SuppressWarnings("unchecked")
+	private List<Long> walk(Category category, String direction, int size) {
+		List<Long> ids = new ArrayList<>();
+		String cursor = "";
+
+		while (cursor != null) {
+			MyResponseWrapper body = (MyResponseWrapper) productService.customerFilterProducts(
+					null, category.getCategoryId(), null, null, null, "createdAt", direction, null, size, cursor, false)
+					.getBody();
+			Map<String, Object> page = (Map<String, Object>) body.data();
+
+			for (Product product : (List<Product>) page.get("items")) {
+				ids.add(product.getId());
+			}
+			cursor = (String) page.get("nextCursor");
+		}
+		return ids;
+	}
+}